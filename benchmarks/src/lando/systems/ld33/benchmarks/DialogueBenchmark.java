@@ -0,0 +1,56 @@
+package lando.systems.ld33.benchmarks;
+
+import com.badlogic.gdx.utils.Array;
+import lando.systems.ld33.dialogue.Dialogue;
+import lando.systems.ld33.utils.GameText;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Showing a dialogue box, which wraps the first message, and typing a message out in full
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class DialogueBenchmark {
+
+    private static final float DT = 1f / 60f;
+
+    // From a one liner up to the longest lines in the game
+    @Param({ "ellipses", "foremanLate", "wifeBitching", "theEnd1", "theEnd2" })
+    public String text;
+
+    private Dialogue      dialogue;
+    private Array<String> messages;
+    private int           typingFrames;
+
+    @Setup
+    public void setup() {
+        Headless.boot();
+        dialogue = new Dialogue();
+        messages = new Array<String>();
+        messages.add(GameText.getText(text));
+        // 20 characters a second, plus a second to spare
+        typingFrames = (int) ((messages.first().length() / 20f + 1) * 60);
+    }
+
+    @Benchmark
+    public Dialogue show() {
+        dialogue.show(1, 10, 18, 4, messages);
+        return dialogue;
+    }
+
+    @Benchmark
+    public Dialogue typeOut() {
+        dialogue.show(1, 10, 18, 4, messages);
+        for (int i = 0; i < typingFrames; i++) {
+            dialogue.update(DT);
+        }
+        return dialogue;
+    }
+
+}
@@ -0,0 +1,66 @@
+package lando.systems.ld33.benchmarks;
+
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import lando.systems.ld33.World;
+import lando.systems.ld33.entities.EntityBase;
+import lando.systems.ld33.entities.mario.MarioDumb;
+import lando.systems.ld33.utils.Assets;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A frame of EntityBase.update for a crowd of Marios wandering the first level. The
+ * crowd is set up fresh each iteration, so the ones that fall off don't thin it out.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class EntityUpdateBenchmark {
+
+    private static final float DT = 1f / 60f;
+
+    @Param({ "10", "100", "1000" })
+    public int entities;
+
+    private World             world;
+    private Array<EntityBase> crowd;
+
+    @Setup
+    public void setup() {
+        Headless.boot();
+        Headless.loadMaps(World.Phase.DAY_ONE.mapName);
+        world = new World(new OrthographicCamera(), World.Phase.DAY_ONE, Assets.batch);
+        crowd = new Array<EntityBase>(entities);
+    }
+
+    @Setup(Level.Iteration)
+    public void spawn() {
+        world.gameEntities.clear();
+        world.ai.clear();
+        crowd.clear();
+        int width = world.foregroundLayer.getWidth();
+        for (int i = 0; i < entities; i++) {
+            crowd.add(new MarioDumb(world, new Vector2(2 + (i * 7) % (width - 4), 3)));
+        }
+    }
+
+    @Benchmark
+    public void update() {
+        for (int i = 0; i < crowd.size; i++) {
+            crowd.get(i).update(DT);
+        }
+        world.ai.update(DT);
+    }
+
+    @TearDown
+    public void tearDown() {
+        world.dispose();
+    }
+
+}
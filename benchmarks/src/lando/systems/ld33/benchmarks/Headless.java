@@ -0,0 +1,40 @@
+package lando.systems.ld33.benchmarks;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import lando.systems.ld33.LudumDare33;
+import lando.systems.ld33.utils.Assets;
+
+/**
+ * Brings the game's statics up on the headless backend with a mock GL, run from the
+ * assets directory. Everything is loaded up front so nothing loads mid measurement.
+ */
+public class Headless {
+
+    private static boolean booted;
+
+    public static synchronized void boot() {
+        if (booted) return;
+        booted = true;
+        new HeadlessApplication(new ApplicationAdapter() {}, new HeadlessApplicationConfiguration());
+        Gdx.gl = Gdx.gl20 = MockGL.create();
+        LudumDare33.setupTweens();
+        Assets.load();
+        Assets.finishLoading();
+    }
+
+    /**
+     * Pin maps with the preloader and wait for them, the way a story step would have before
+     * its World is made. Anything that builds a World or loads a map needs its maps in first.
+     */
+    public static void loadMaps(String... fileNames) {
+        for (String fileName : fileNames) {
+            Assets.preloader.isLoaded(fileName, TiledMap.class);
+        }
+        Assets.finishLoading();
+    }
+
+}
@@ -0,0 +1,74 @@
+package lando.systems.ld33.benchmarks;
+
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TmxMapLoader;
+import lando.systems.ld33.utils.CompiledMapLoader;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loading a map from its TMX source and from the compiled .ldmap. The tilesets are kept
+ * loaded throughout, so only the map itself is measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class MapLoadBenchmark {
+
+    private static final String[] TILESETS = {
+        "maps/mario-tileset.png", "maps/factory-tileset.png", "maps/mario-screen.png",
+        "maps/tube-empty.png", "maps/pluto.png"
+    };
+
+    @Param({ "level1", "level5", "level-factory", "inhome-bedroom" })
+    public String map;
+
+    private AssetManager manager;
+    private String       tmxName;
+    private String       ldmapName;
+
+    @Setup
+    public void setup() {
+        Headless.boot();
+        manager = new AssetManager();
+        manager.setLoader(TiledMap.class, new TmxMapLoader(new InternalFileHandleResolver()));
+        manager.setLoader(TiledMap.class, CompiledMapLoader.SUFFIX, new CompiledMapLoader(new InternalFileHandleResolver()));
+        for (String tileset : TILESETS) {
+            manager.load(tileset, Texture.class);
+        }
+        manager.finishLoading();
+        tmxName = "maps/" + map + ".tmx";
+        ldmapName = "maps/" + map + CompiledMapLoader.SUFFIX;
+    }
+
+    @Benchmark
+    public TiledMap tmx() {
+        return load(tmxName);
+    }
+
+    @Benchmark
+    public TiledMap compiled() {
+        return load(ldmapName);
+    }
+
+    @TearDown
+    public void tearDown() {
+        manager.dispose();
+    }
+
+    private TiledMap load(String fileName) {
+        manager.load(fileName, TiledMap.class);
+        manager.finishLoadingAsset(fileName);
+        TiledMap map = manager.get(fileName, TiledMap.class);
+        manager.unload(fileName);
+        return map;
+    }
+
+}
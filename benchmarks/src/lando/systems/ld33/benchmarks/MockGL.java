@@ -0,0 +1,47 @@
+package lando.systems.ld33.benchmarks;
+
+import com.badlogic.gdx.graphics.GL20;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.IntBuffer;
+
+/**
+ * A GL20 that does nothing, quickly. Handles come out unique, every shader compiles
+ * and links and every frame buffer is complete, everything else answers zero.
+ */
+public class MockGL implements InvocationHandler {
+
+    private static final int GL_COMPILE_STATUS       = 0x8B81;
+    private static final int GL_LINK_STATUS          = 0x8B82;
+    private static final int GL_FRAMEBUFFER_COMPLETE = 0x8CD5;
+
+    private int nextHandle = 1;
+
+    public static GL20 create() {
+        return (GL20) Proxy.newProxyInstance(GL20.class.getClassLoader(), new Class[] { GL20.class }, new MockGL());
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        String name = method.getName();
+        if (name.equals("glGetShaderiv") || name.equals("glGetProgramiv")) {
+            int pname = (Integer) args[1];
+            ((IntBuffer) args[2]).put(0, (pname == GL_COMPILE_STATUS || pname == GL_LINK_STATUS) ? 1 : 0);
+            return null;
+        }
+        if (name.equals("glCheckFramebufferStatus")) return GL_FRAMEBUFFER_COMPLETE;
+        if (name.startsWith("glGen") || name.startsWith("glCreate")) return nextHandle++;
+        if (name.equals("hashCode")) return System.identityHashCode(proxy);
+        if (name.equals("equals")) return proxy == args[0];
+
+        Class<?> type = method.getReturnType();
+        if (type == int.class) return 0;
+        if (type == boolean.class) return false;
+        if (type == float.class) return 0f;
+        if (type == String.class) return "";
+        return null;
+    }
+
+}
@@ -0,0 +1,65 @@
+package lando.systems.ld33.benchmarks;
+
+import com.badlogic.gdx.math.Vector2;
+import lando.systems.ld33.utils.ParticleManager;
+import lando.systems.ld33.utils.Rng;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The two big particle bursts, on their own and played out over their whole lifetime
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ParticleBenchmark {
+
+    private static final float DT = 1f / 60f;
+    // Long enough for every particle in either burst to die off
+    private static final int LIFETIME_FRAMES = 150;
+
+    private ParticleManager particles;
+    private Vector2         pos;
+
+    @Setup
+    public void setup() {
+        Headless.boot();
+        particles = new ParticleManager(new Rng(1, 1));
+        pos = new Vector2(10, 5);
+    }
+
+    @Benchmark
+    public void largeBlood() {
+        particles.addLargeBlood(pos);
+        particles.clear();
+    }
+
+    @Benchmark
+    public void fireworkExplosion() {
+        particles.addFireworkExplotion(pos);
+        particles.clear();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void largeBloodLifetime() {
+        particles.addLargeBlood(pos);
+        for (int i = 0; i < LIFETIME_FRAMES; i++) {
+            particles.update(DT);
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void fireworkExplosionLifetime() {
+        particles.addFireworkExplotion(pos);
+        for (int i = 0; i < LIFETIME_FRAMES; i++) {
+            particles.update(DT);
+        }
+    }
+
+}
@@ -0,0 +1,38 @@
+package lando.systems.ld33.benchmarks;
+
+import lando.systems.ld33.utils.Score;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rebuilding the score and coin strings, as every stomp and coin does
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ScoreBenchmark {
+
+    private Score score;
+
+    @Setup
+    public void setup() {
+        score = new Score("1-1");
+    }
+
+    @Benchmark
+    public Score addScore() {
+        score.addScore(100);
+        return score;
+    }
+
+    @Benchmark
+    public Score addCoin() {
+        score.addCoin(1);
+        return score;
+    }
+
+}
@@ -0,0 +1,479 @@
+package lando.systems.ld33.benchmarks;
+
+import com.badlogic.gdx.Application;
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Graphics;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.LongArray;
+import lando.systems.ld33.Config;
+import lando.systems.ld33.LudumDare33;
+import lando.systems.ld33.World;
+import lando.systems.ld33.screens.LDScreen;
+import lando.systems.ld33.screens.PrototypeScreen;
+import lando.systems.ld33.utils.GameInput;
+import lando.systems.ld33.utils.StoryManager;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Plays the whole story through once, headless with a mock GL and a fixed time step run as
+ * fast as the machine allows, and reports how every step of it went: frame time percentiles,
+ * allocation, GC, entity and particle counts and heap.
+ *
+ * Input comes from a replayed session if there is one, then a route script if there is one,
+ * otherwise from a bot that holds right, turns around when it stops getting anywhere, jumps
+ * and presses enter now and then. The bot gets through the early phases but not the later
+ * levels, so the gradle task replays sessions/story.session, the whole story recorded from
+ * the route in sessions/story.script with --script and --record. A phase that isn't finished
+ * in time is ended for it and marked as skipped, and fails the run, a report with holes in it
+ * says nothing about the steps it missed. The story is over once the last phase's cutscene is.
+ *
+ * A scripted or bot run presses what it holds again every tick, the way the bot does, where a
+ * keyboard only presses on the way down. A session recorded on the desktop plays differently
+ * for it, held jumps don't jump again, so the soak session comes from the script.
+ *
+ *   --replay <file>      play a recorded input session, the bot takes over if it runs out
+ *   --script <file>      play a route script instead, the bot takes over if it runs out
+ *   --bot                leave it all to the bot, even with a --replay or --script given before
+ *   --record <file>      record the run's input as a session, for --script or the bot
+ *   --seed <n>           seed for the worlds' random streams, defaults to 1. A replay always
+ *                        runs with the seed it was recorded with, so not with --replay
+ *   --dt <seconds>       time step, defaults to 1/60
+ *   --step-timeout <s>   game time a step gets before it's skipped, defaults to 180
+ *   --csv <file>         write the report as CSV as well
+ *   --max-p99 <ms>       fail if any step's 99th percentile frame goes over this
+ *   --verbose            leave the game's logging on
+ *
+ * Exits with 1 if --max-p99 was exceeded, 2 if the story never finished, 3 if a step was
+ * skipped, 4 if the run threw. Once the story changes the recording stops lining up with it, fix the route in
+ * the script and record the session again from it.
+ */
+public class Soak {
+
+    // An hour of game time, well past what a full play through takes
+    private static final int MAX_FRAMES = 60 * 60 * 60;
+
+    static class Step {
+        final String    name;
+        final LongArray frameNanos = new LongArray(false, 4096);
+        float           time;
+        long            allocatedBytes;
+        long            gcCount;
+        long            gcMillis;
+        int             peakEntities;
+        int             peakParticles;
+        long            peakHeap;
+        boolean         skipped;
+
+        Step(String name) {
+            this.name = name;
+        }
+
+        long percentile(long[] sorted, float p) {
+            if (sorted.length == 0) return 0;
+            int index = (int) Math.ceil(p * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+        }
+    }
+
+    private static float  dt          = 1f / 60f;
+    private static float  stepTimeout = 180f;
+    private static String csvFile;
+    private static float  maxP99      = -1f;
+    private static boolean verbose;
+    private static String scriptFile;
+
+    public static void main(String[] args) throws IOException {
+        Config.seed = 1;
+        boolean seeded = false;
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.equals("--replay")) {
+                Config.replayInput = args[++i];
+                scriptFile = null;
+            } else if (arg.equals("--script")) {
+                scriptFile = args[++i];
+                Config.replayInput = null;
+            } else if (arg.equals("--bot")) {
+                Config.replayInput = null;
+                scriptFile = null;
+            } else if (arg.equals("--record")) {
+                Config.recordInput = args[++i];
+            } else if (arg.equals("--seed")) {
+                Config.seed = Long.parseLong(args[++i]);
+                seeded = true;
+            } else if (arg.equals("--dt")) {
+                dt = Float.parseFloat(args[++i]);
+            } else if (arg.equals("--step-timeout")) {
+                stepTimeout = Float.parseFloat(args[++i]);
+            } else if (arg.equals("--csv")) {
+                csvFile = args[++i];
+            } else if (arg.equals("--max-p99")) {
+                maxP99 = Float.parseFloat(args[++i]);
+            } else if (arg.equals("--verbose")) {
+                verbose = true;
+            } else {
+                throw new IllegalArgumentException("Unknown option " + arg);
+            }
+        }
+        if (Config.replayInput != null && seeded) {
+            throw new IllegalArgumentException("--seed doesn't go with --replay, the session's own seed is used");
+        }
+        if (Config.replayInput != null && Config.recordInput != null) {
+            throw new IllegalArgumentException("--record needs --script or --bot, a replay isn't recorded");
+        }
+
+        new HeadlessApplication(new ApplicationAdapter() {}, new HeadlessApplicationConfiguration());
+        int exit;
+        try {
+            exit = run();
+        } catch (Throwable t) {
+            t.printStackTrace();
+            exit = 4;
+        }
+        // Always exit, the headless backend's loop would keep the JVM up otherwise
+        System.exit(exit);
+    }
+
+    private static int run() throws IOException {
+        Gdx.gl = Gdx.gl20 = MockGL.create();
+        Gdx.graphics = fixedDelta(Gdx.graphics, dt);
+        if (!verbose) Gdx.app.setLogLevel(Application.LOG_ERROR);
+        Script script = scriptFile == null ? null : new Script(Gdx.files.local(scriptFile));
+
+        LudumDare33 game = new LudumDare33();
+        game.create();
+        Array<Step> steps = new Array<Step>();
+        boolean finished = play(game, script, steps);
+        game.dispose();
+
+        report(steps);
+        int exit = 0;
+        if (!finished) {
+            System.out.println("FAIL: the story didn't finish within " + MAX_FRAMES + " frames");
+            exit = 2;
+        } else if (skipped(steps)) {
+            exit = 3;
+        } else if (maxP99 > 0) {
+            for (Step step : steps) {
+                long[] sorted = sortedFrames(step);
+                float p99 = step.percentile(sorted, 0.99f) / 1e6f;
+                if (p99 > maxP99) {
+                    System.out.println(String.format("FAIL: %s p99 %.2f ms is over %.2f ms", step.name, p99, maxP99));
+                    exit = 1;
+                }
+            }
+        }
+        return exit;
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+
+    private static boolean play(LudumDare33 game, Script script, Array<Step> steps) {
+        com.sun.management.ThreadMXBean threads = null;
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean) {
+            threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            if (!threads.isThreadAllocatedMemorySupported()) threads = null;
+        }
+        long threadId = Thread.currentThread().getId();
+        List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+        Runtime runtime = Runtime.getRuntime();
+
+        Bot bot = new Bot();
+        Step step = null;
+        int lastIndex = -2;
+        long gcCountStart = 0;
+        long gcMillisStart = 0;
+        for (int frame = 0; frame < MAX_FRAMES; frame++) {
+            StoryManager story = game.getStoryManager();
+            int index = story == null ? -1 : story.getStoryIndex();
+            if (index != lastIndex) {
+                // Around the end the story wraps back to the title, one time through is enough
+                if (story != null && index < lastIndex) {
+                    closeStep(step, collectors, gcCountStart, gcMillisStart);
+                    return true;
+                }
+                closeStep(step, collectors, gcCountStart, gcMillisStart);
+                step = new Step(stepName(story, index));
+                steps.add(step);
+                gcCountStart = gcCount(collectors);
+                gcMillisStart = gcMillis(collectors);
+                lastIndex = index;
+                bot.reset();
+            }
+
+            World world = null;
+            LDScreen screen = story == null ? null : story.getCurrentScreen();
+            if (screen instanceof PrototypeScreen) world = ((PrototypeScreen) screen).getWorld();
+            boolean scripted = !GameInput.isReplaying() && script != null && script.drive();
+            if (!GameInput.isReplaying() && !scripted) bot.drive(world, dt);
+            if (world != null && step.time > stepTimeout && !world.done) {
+                world.done = true;
+                step.skipped = true;
+            }
+            // The last phase never hands over, it stays on game over
+            if (world != null && index == story.getStoryLength() - 1 && world.cutscene.isFinished()) {
+                closeStep(step, collectors, gcCountStart, gcMillisStart);
+                return true;
+            }
+
+            long allocatedBefore = threads != null ? threads.getThreadAllocatedBytes(threadId) : 0;
+            long start = System.nanoTime();
+            game.render();
+            step.frameNanos.add(System.nanoTime() - start);
+            if (scripted) script.endTick();
+            if (threads != null) step.allocatedBytes += threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+            step.time += dt;
+
+            step.peakHeap = Math.max(step.peakHeap, runtime.totalMemory() - runtime.freeMemory());
+            if (world != null) {
+                step.peakEntities = Math.max(step.peakEntities, world.gameEntities.size);
+                step.peakParticles = Math.max(step.peakParticles, world.particles.getActiveCount());
+            }
+        }
+        closeStep(step, collectors, gcCountStart, gcMillisStart);
+        return false;
+    }
+
+    private static void closeStep(Step step, List<GarbageCollectorMXBean> collectors, long countStart, long millisStart) {
+        if (step == null) return;
+        step.gcCount = gcCount(collectors) - countStart;
+        step.gcMillis = gcMillis(collectors) - millisStart;
+    }
+
+    private static boolean skipped(Array<Step> steps) {
+        boolean skipped = false;
+        for (Step step : steps) {
+            if (step.skipped) {
+                System.out.println("FAIL: " + step.name + " was skipped after " + stepTimeout + " s");
+                skipped = true;
+            }
+        }
+        return skipped;
+    }
+
+    private static String stepName(StoryManager story, int index) {
+        if (story == null) return "loading";
+        Integer chapter = story.getCurrentChapter();
+        if (chapter != null) return index + " chapter " + chapter;
+        return index + " " + story.getCurrentPhase().name();
+    }
+
+    private static long gcCount(List<GarbageCollectorMXBean> collectors) {
+        long count = 0;
+        for (GarbageCollectorMXBean collector : collectors) count += Math.max(0, collector.getCollectionCount());
+        return count;
+    }
+
+    private static long gcMillis(List<GarbageCollectorMXBean> collectors) {
+        long millis = 0;
+        for (GarbageCollectorMXBean collector : collectors) millis += Math.max(0, collector.getCollectionTime());
+        return millis;
+    }
+
+    private static long[] sortedFrames(Step step) {
+        long[] sorted = Arrays.copyOf(step.frameNanos.items, step.frameNanos.size);
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+
+    private static void report(Array<Step> steps) throws IOException {
+        String header = String.format("%-30s %7s %7s %8s %8s %8s %8s %10s %5s %7s %6s %7s %8s",
+                                      "step", "frames", "time s", "p50 ms", "p95 ms", "p99 ms", "max ms",
+                                      "alloc/fr", "gcs", "gc ms", "ents", "parts", "heap MB");
+        System.out.println(header);
+        PrintWriter csv = null;
+        if (csvFile != null) {
+            csv = new PrintWriter(new FileWriter(csvFile));
+            csv.println("step,frames,time_s,p50_ms,p95_ms,p99_ms,max_ms,alloc_bytes_per_frame,gc_count,gc_ms,"
+                      + "peak_entities,peak_particles,peak_heap_mb,skipped");
+        }
+        for (Step step : steps) {
+            long[] sorted = sortedFrames(step);
+            int frames = sorted.length;
+            float p50 = step.percentile(sorted, 0.50f) / 1e6f;
+            float p95 = step.percentile(sorted, 0.95f) / 1e6f;
+            float p99 = step.percentile(sorted, 0.99f) / 1e6f;
+            float max = frames == 0 ? 0 : sorted[frames - 1] / 1e6f;
+            long allocPerFrame = frames == 0 ? 0 : step.allocatedBytes / frames;
+            float heapMb = step.peakHeap / (1024f * 1024f);
+            String name = step.skipped ? step.name + " (skipped)" : step.name;
+            System.out.println(String.format("%-30s %7d %7.1f %8.3f %8.3f %8.3f %8.3f %10d %5d %7d %6d %7d %8.1f",
+                                             name, frames, step.time, p50, p95, p99, max, allocPerFrame,
+                                             step.gcCount, step.gcMillis, step.peakEntities, step.peakParticles,
+                                             heapMb));
+            if (csv != null) {
+                csv.println(String.format("%s,%d,%.3f,%.4f,%.4f,%.4f,%.4f,%d,%d,%d,%d,%d,%.2f,%b",
+                                          step.name, frames, step.time, p50, p95, p99, max, allocPerFrame,
+                                          step.gcCount, step.gcMillis, step.peakEntities, step.peakParticles,
+                                          heapMb, step.skipped));
+            }
+        }
+        if (csv != null) csv.close();
+    }
+
+    /**
+     * The headless backend's graphics, but with every frame taking exactly the time step
+     */
+    private static Graphics fixedDelta(final Graphics graphics, final float dt) {
+        return (Graphics) Proxy.newProxyInstance(Graphics.class.getClassLoader(), new Class[] { Graphics.class },
+                                                 new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                String name = method.getName();
+                if (name.equals("getDeltaTime") || name.equals("getRawDeltaTime")) return dt;
+                try {
+                    return method.invoke(graphics, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            }
+        });
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Plays a route from a script, one line for each stretch of ticks: how many, then the
+     * actions held through them joined with +, or - for none. # starts a comment. Ticks held
+     * waiting on loading don't count, there are as many of those as the machine needs, so
+     * the route lines up with the story however fast it loads.
+     *
+     *   30 -
+     *   1 ADVANCE+START
+     *   12 RIGHT+JUMP
+     */
+    static class Script {
+        private final IntArray ticks   = new IntArray();
+        private final IntArray actions = new IntArray();
+        private int            line;
+        private int            left;
+
+        Script(FileHandle file) {
+            String[] lines = file.readString().split("\\r?\\n");
+            for (int i = 0; i < lines.length; i++) {
+                String text = lines[i];
+                int comment = text.indexOf('#');
+                if (comment >= 0) text = text.substring(0, comment);
+                text = text.trim();
+                if (text.isEmpty()) continue;
+                String[] parts = text.split("\\s+");
+                try {
+                    if (parts.length != 2) throw new IllegalArgumentException("expected ticks and actions");
+                    ticks.add(Integer.parseInt(parts[0]));
+                    actions.add(parseActions(parts[1]));
+                } catch (IllegalArgumentException e) {
+                    throw new GdxRuntimeException(file.path() + ":" + (i + 1) + " " + e.getMessage());
+                }
+            }
+            line = -1;
+            left = 0;
+        }
+
+        /**
+         * Press this tick's actions, again every tick like the bot
+         * @return false once the script has run out
+         */
+        boolean drive() {
+            while (left == 0) {
+                if (++line >= ticks.size) return false;
+                left = ticks.get(line);
+            }
+            GameInput.releaseAll();
+            GameInput.press(actions.get(line));
+            return true;
+        }
+
+        /**
+         * Count the tick just played against the route, unless it was held on loading
+         */
+        void endTick() {
+            if (!GameInput.isHolding()) left--;
+        }
+
+        private static int parseActions(String text) {
+            if (text.equals("-")) return 0;
+            int actions = 0;
+            for (String name : text.split("\\+")) {
+                if (name.equals("LEFT")) actions |= GameInput.LEFT;
+                else if (name.equals("RIGHT")) actions |= GameInput.RIGHT;
+                else if (name.equals("JUMP")) actions |= GameInput.JUMP;
+                else if (name.equals("ADVANCE")) actions |= GameInput.ADVANCE;
+                else if (name.equals("START")) actions |= GameInput.START;
+                else throw new IllegalArgumentException("unknown action " + name);
+            }
+            return actions;
+        }
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Plays like someone who only knows to keep going and press enter
+     */
+    static class Bot {
+        private static final float TAP_EVERY   = 0.5f;
+        private static final float JUMP_EVERY  = 0.75f;
+        private static final float STUCK_AFTER = 4f;
+
+        private int   direction;
+        private float time;
+        private float lastTap;
+        private float lastJump;
+        private float lastProgress;
+        private float bestX;
+
+        void reset() {
+            direction = GameInput.RIGHT;
+            time = 0;
+            lastTap = 0;
+            lastJump = 0;
+            lastProgress = 0;
+            bestX = Float.NaN;
+        }
+
+        void drive(World world, float dt) {
+            time += dt;
+            // Everything is let go each frame, whatever's pressed below is held for just this one
+            GameInput.releaseAll();
+            if (time - lastTap >= TAP_EVERY) {
+                lastTap = time;
+                GameInput.press(GameInput.START | GameInput.ADVANCE);
+            }
+            if (world == null || world.player == null) return;
+
+            float x = world.player.getBounds().x;
+            if (Float.isNaN(bestX) || Math.abs(x - bestX) > 0.5f) {
+                bestX = x;
+                lastProgress = time;
+            } else if (time - lastProgress > STUCK_AFTER) {
+                direction = direction == GameInput.RIGHT ? GameInput.LEFT : GameInput.RIGHT;
+                lastProgress = time;
+            }
+            GameInput.press(direction);
+            if (time - lastJump >= JUMP_EVERY) {
+                lastJump = time;
+                GameInput.press(GameInput.JUMP);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,60 @@
+package lando.systems.ld33.benchmarks;
+
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import lando.systems.ld33.World;
+import lando.systems.ld33.utils.Assets;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * World.getTiles over every shipped map, swept with the window an entity asks for each frame
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class TileQueryBenchmark {
+
+    @Param({ "level1", "level2", "level3", "level4", "level5", "level-factoryintro", "level-factory", "cadreroom",
+             "enterhome", "exithome", "inhome-bedroom", "inhome-bedroom-sad", "mario-test" })
+    public String map;
+
+    private World            world;
+    private Array<Rectangle> tiles;
+    private int              width;
+    private int              height;
+
+    @Setup
+    public void setup() {
+        Headless.boot();
+        Headless.loadMaps(World.Phase.DAY_ONE.mapName, "maps/" + map + ".ldmap");
+        world = new World(new OrthographicCamera(), World.Phase.DAY_ONE, Assets.batch);
+        world.loadMap("maps/" + map + ".ldmap");
+        width = world.foregroundLayer.getWidth();
+        height = world.foregroundLayer.getHeight();
+        tiles = new Array<Rectangle>();
+    }
+
+    @Benchmark
+    public int sweep() {
+        int found = 0;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                world.getTiles(x - 1, y - 1, x + 2, y + 2, tiles);
+                found += tiles.size;
+            }
+        }
+        return found;
+    }
+
+    @TearDown
+    public void tearDown() {
+        world.dispose();
+    }
+
+}
@@ -9,4 +9,14 @@ public class Config {
     public static int width = 640;
     public static int height = 480;
 
+    // Seeds every world's random streams, 0 picks one at startup
+    public static long seed = 0;
+
+    // Local paths to record the session's input to, or play one back from, null for neither
+    public static String recordInput = null;
+    public static String replayInput = null;
+
+    // Local path to write the frame profiler's history to on exit, null to leave it off
+    public static String profileOutput = null;
+
 }
@@ -1,50 +1,101 @@
 package lando.systems.ld33;
 
 import aurelienribon.tweenengine.Tween;
-import aurelienribon.tweenengine.TweenManager;
 import com.badlogic.gdx.Game;
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.TimeUtils;
 import lando.systems.ld33.accessors.*;
-import lando.systems.ld33.screens.ChapterScreen;
+import lando.systems.ld33.screens.LDScreen;
+import lando.systems.ld33.screens.LoadingScreen;
 import lando.systems.ld33.utils.Assets;
+import lando.systems.ld33.utils.FrameProfiler;
+import lando.systems.ld33.utils.GameInput;
 import lando.systems.ld33.utils.StoryManager;
+import lando.systems.ld33.utils.TweenGroups;
 
 public class LudumDare33 extends Game {
 
-	public static TweenManager tween;
+	public static TweenGroups tweens;
 
 	StoryManager storyManager;
 
 	@Override
 	public void create () {
-		if (tween == null) {
-			tween = new TweenManager();
-			Tween.registerAccessor(Color.class, new ColorAccessor());
-			Tween.registerAccessor(Rectangle.class, new RectangleAccessor());
-			Tween.registerAccessor(Vector2.class, new Vector2Accessor());
-			Tween.registerAccessor(Vector3.class, new Vector3Accessor());
-            Tween.registerAccessor(OrthographicCamera.class, new CameraAccessor());
-		}
+		setupTweens();
 		Assets.load();
-		storyManager = new StoryManager(this);
+		if (Config.seed == 0) Config.seed = TimeUtils.millis();
+		Gdx.app.log("LudumDare33", "Seed " + Config.seed);
+		if (Config.replayInput != null) {
+			GameInput.replay(Gdx.files.local(Config.replayInput));
+		} else if (Config.recordInput != null) {
+			GameInput.record(Gdx.files.local(Config.recordInput));
+		}
+		FrameProfiler.setEnabled(Config.profileOutput != null);
+		setScreen(new LoadingScreen(this));
+	}
+
+	/**
+	 * Tween groups and accessors, for anything that runs game code without the game around it
+	 */
+	public static void setupTweens() {
+		if (tweens != null) return;
+		tweens = new TweenGroups();
+		Tween.registerAccessor(Color.class, new ColorAccessor());
+		Tween.registerAccessor(Rectangle.class, new RectangleAccessor());
+		Tween.registerAccessor(Vector2.class, new Vector2Accessor());
+		Tween.registerAccessor(Vector3.class, new Vector3Accessor());
+		Tween.registerAccessor(OrthographicCamera.class, new CameraAccessor());
 	}
 
 	@Override
 	public void render() {
+		FrameProfiler.beginFrame();
+		if (Gdx.input.isKeyJustPressed(Input.Keys.F3)) FrameProfiler.toggleOverlay();
 		float delta = Gdx.graphics.getDeltaTime();
 		delta = Math.min(delta, 1/30f);
-		storyManager.update(delta);
-		tween.update(delta);
+		delta = GameInput.update(delta);
+		Assets.update();
+		FrameProfiler.begin(FrameProfiler.STORY);
+		if (storyManager == null) {
+			// Title screen assets are in, the rest keeps loading behind it
+			if (!GameInput.waitOn(((LDScreen) getScreen()).isDone())) {
+				// A replay can get here before this machine has caught up
+				if (!((LDScreen) getScreen()).isDone()) Assets.finishLoading();
+				getScreen().dispose();
+				storyManager = new StoryManager(this);
+			}
+		} else {
+			storyManager.update(delta);
+		}
+		FrameProfiler.end(FrameProfiler.STORY);
+		FrameProfiler.begin(FrameProfiler.TWEENS);
+		tweens.update(delta);
+		FrameProfiler.end(FrameProfiler.TWEENS);
+		FrameProfiler.begin(FrameProfiler.SCREEN);
 		super.render();
+		FrameProfiler.end(FrameProfiler.SCREEN);
+		FrameProfiler.begin(FrameProfiler.SOUND);
+		Assets.soundManager.update(delta);
+		FrameProfiler.end(FrameProfiler.SOUND);
+		GameInput.endTick(delta);
+		FrameProfiler.endFrame();
+		FrameProfiler.render(Assets.batch);
+	}
+
+	public StoryManager getStoryManager() {
+		return storyManager;
 	}
 
 	@Override
 	public void dispose() {
+		GameInput.stop();
+		if (Config.profileOutput != null) FrameProfiler.export(Gdx.files.local(Config.profileOutput));
 		Assets.dispose();
 	}
 
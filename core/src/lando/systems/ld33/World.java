@@ -1,31 +1,21 @@
 package lando.systems.ld33;
 
-import aurelienribon.tweenengine.BaseTween;
-import aurelienribon.tweenengine.Timeline;
 import aurelienribon.tweenengine.Tween;
-import aurelienribon.tweenengine.TweenCallback;
-import aurelienribon.tweenengine.equations.*;
+import aurelienribon.tweenengine.TweenManager;
 import aurelienribon.tweenengine.primitives.MutableFloat;
-import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import com.badlogic.gdx.maps.MapLayer;
-import com.badlogic.gdx.maps.MapObject;
-import com.badlogic.gdx.maps.MapProperties;
 import com.badlogic.gdx.maps.tiled.TiledMap;
 import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
-import com.badlogic.gdx.maps.tiled.TmxMapLoader;
 import com.badlogic.gdx.maps.tiled.renderers.OrthogonalTiledMapRenderer;
-import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Pool;
 import com.badlogic.gdx.utils.Pools;
-import lando.systems.ld33.accessors.CameraAccessor;
-import lando.systems.ld33.accessors.ColorAccessor;
-import lando.systems.ld33.accessors.RectangleAccessor;
+import lando.systems.ld33.cutscene.CutscenePlayer;
+import lando.systems.ld33.cutscene.PhaseScripts;
 import lando.systems.ld33.dialogue.Dialogue;
 import lando.systems.ld33.entities.*;
 import lando.systems.ld33.entities.items.CoinItem;
@@ -33,8 +23,6 @@ import lando.systems.ld33.entities.items.ItemEntity;
 import lando.systems.ld33.entities.mapobjects.*;
 import lando.systems.ld33.entities.mario.Mario;
 import lando.systems.ld33.entities.mario.MarioAI;
-import lando.systems.ld33.entities.mario.MarioDumb;
-import lando.systems.ld33.entities.mario.MarioSmart;
 import lando.systems.ld33.utils.*;
 
 import java.util.Iterator;
@@ -44,33 +32,47 @@ import java.util.Iterator;
  */
 public class World {
 
+    private static final PayloadCallback<World> PHASE_DONE = new PayloadCallback<World>() {
+        @Override
+        protected void onEvent(World world) {
+            world.done = true;
+        }
+    };
+
     public static final float MAP_UNIT_SCALE    = 1f / 16f;
     public static final int   SCREEN_TILES_WIDE = 20;
     public static final int   SCREEN_TILES_HIGH = 15;
     public static final int   PIXELS_PER_TILE   = Config.width / SCREEN_TILES_WIDE;
 
     public enum Phase {
-        DAY_ONE,
-        HEADING_HOME,
-        MEET_THE_WIFE,
-        LEAVING_HOME,
-        BACK_TO_WORK,
-        HEADING_HOME_SAD,
-        EMPTY_HOUSE,
-        GET_MUSHROOM,
-        OVERWORLD_FIRST,
-        UNDERWORLD,
-        SHROOM_LAND,
-        BRIDGES_TO_FACTORY,
-        INTO_THE_FACTORY,
-        DEEP_FACTORY,
-        CULT_ROOM
+        DAY_ONE            ("maps/level1.ldmap"),
+        HEADING_HOME       ("maps/enterhome.ldmap"),
+        MEET_THE_WIFE      ("maps/inhome-bedroom.ldmap"),
+        LEAVING_HOME       ("maps/exithome.ldmap"),
+        BACK_TO_WORK       ("maps/level1.ldmap"),
+        HEADING_HOME_SAD   ("maps/enterhome.ldmap"),
+        EMPTY_HOUSE        ("maps/inhome-bedroom.ldmap"),
+        GET_MUSHROOM       ("maps/level1.ldmap"),
+        OVERWORLD_FIRST    ("maps/level2.ldmap"),
+        UNDERWORLD         ("maps/level3.ldmap"),
+        SHROOM_LAND        ("maps/level4.ldmap"),
+        BRIDGES_TO_FACTORY ("maps/level5.ldmap"),
+        INTO_THE_FACTORY   ("maps/level-factoryintro.ldmap"),
+        DEEP_FACTORY       ("maps/level-factory.ldmap"),
+        CULT_ROOM          ("maps/cadreroom.ldmap");
+
+        public final String mapName;
+        Phase(String mapName) {
+            this.mapName = mapName;
+        }
     }
 
     public ParticleManager            particles;
     public TiledMapTileLayer          foregroundLayer;
     public TiledMapTileLayer          backgroundLayer;
     public TiledMap                   map;
+    public MapCollision               collision;
+    public NavGraph                   nav;
     public OrthogonalTiledMapRenderer mapRenderer;
     public Array<Rectangle>           tileRects;
     public Pool<Rectangle>            rectPool;
@@ -84,13 +86,11 @@ public class World {
     public float                      cameraRightEdge;
     public float                      gameWidth;
     public Phase                      phase;
-    public int                        segment;
     public boolean                    done;
     public Dialogue                   dialogue;
     public Color                      transitionColor;
     public boolean                    cameraLock;
     public SpriteBatch                batch;
-    public float                      endDelay;
     public Ganon                      ganon;
     public KingHippo                  kingHippo;
     public MotherBrain                motherBrain;
@@ -106,6 +106,15 @@ public class World {
     public Score                      score;
     public float                      fireworkDelay;
     public MarioAI                    marioAI;
+    public CutscenePlayer             cutscene;
+    public TweenManager               tweens;
+    public TriggerVolumes             triggers;
+    public AIScheduler                ai;
+    // Reseeded every phase, gameplay draws from rng and effects from fx so one can't shift the other
+    public Rng                        rng;
+    public Rng                        fx;
+
+    private MapCache.Entry mapEntry;
 
     public boolean drawEndCurtain;
     public boolean endCurtainAnimationComplete;
@@ -122,34 +131,100 @@ public class World {
 
     public World(OrthographicCamera cam, Phase p, SpriteBatch batch) {
         this.batch = batch;
-        shake = new Shake();
-        particles = new ParticleManager();
-        phase = p;
-        endDelay = 0;
-        done = false;
-        cameraLock = true;
+        camera = cam;
+        tweens = LudumDare33.tweens.get(this);
+        rng = new Rng(Config.seed, 0);
+        fx = new Rng(Config.seed, 1);
+        shake = new Shake(fx);
+        particles = new ParticleManager(fx);
         dialogue = new Dialogue();
         transitionColor = new Color(1,1,1,1);
-        drawEndCurtain = false;
-
         gameEntities = new Array<EntityBase>();
-        camera = cam;
-
-        initPhase();
-
+        mapObjects = new Array<ObjectBase>();
         tileRects = new Array<Rectangle>();
         rectPool = Pools.get(Rectangle.class);
-        cameraCenter = new Vector2(camera.position.x, 7.5f);
+        cameraCenter = new Vector2();
+        cutscene = new CutscenePlayer();
+        ai = new AIScheduler();
 
+        reset(p);
     }
 
-    public void loadMap(String mapName){
-        final TmxMapLoader mapLoader = new TmxMapLoader();
+    /**
+     * Start over on another phase. Pools, particles, entity storage and the dialogue box
+     * are kept, only the map and whatever the phase's script sets up get swapped in.
+     */
+    public void reset(Phase p) {
+        // Anything still tweening belongs to the phase that just ended and would reach into this one
+        tweens.killAll();
+        repeatingTween = null;
+        capeFloatingTween = null;
+
+        // A phase plays out the same for a given seed, whichever way it was reached
+        rng.reseed(Config.seed, p.ordinal() * 2);
+        fx.reseed(Config.seed, p.ordinal() * 2 + 1);
+        particles.clear();
+        dialogue.clear();
+        shake.shakeDuration = 0;
+        shake.randomize(fx);
+        gameEntities.clear();
+        ai.clear();
+        mapObjects.clear();
+        rectPool.freeAll(tileRects);
+        tileRects.clear();
+
+        player = null;
+        wife = null;
+        kids = null;
+        ganon = null;
+        kingHippo = null;
+        motherBrain = null;
+        dracula = null;
+        luigi = null;
+        drWily = null;
+        cape = null;
+        fallingMario = null;
+        marioAI = null;
+        score = null;
+        fireworkDelay = 0;
+
+        drawEndCurtain = false;
+        endCurtainAnimationComplete = false;
+        endCurtainBottomY = null;
+        endCurtainFullY = null;
+        endCurtainPositions.clear();
+        endCurtainCompleteRuffleCount = 0;
+
+        phase = p;
+        done = false;
+        cameraLock = true;
 
-        map = mapLoader.load(mapName);
-        loadMapObjects();
+        fadeIn();
+        cutscene.start(this, PhaseScripts.get(phase));
+        cameraCenter.set(camera.position.x, 7.5f);
+    }
 
-        mapRenderer = new OrthogonalTiledMapRenderer(map, MAP_UNIT_SCALE, batch);
+    public void loadMap(String mapName){
+        // Usually staged while the last phase played out, the new map comes acquired
+        // so a reload of the same one never drops out of the cache
+        PhaseStager.Staged staged = Assets.stager.take(mapName);
+        MapCache.Entry previous = mapEntry;
+        mapEntry = staged.map;
+        if (previous != null) Assets.mapCache.release(previous);
+        map = mapEntry.map;
+        collision = mapEntry.collision;
+        nav = mapEntry.map.nav;
+        triggers = staged.triggers;
+        triggers.setListener(cutscene);
+        loadMapObjects(staged.spawns);
+        cutscene.resolve(triggers);
+
+        if (mapRenderer == null) {
+            mapRenderer = Assets.resources.track(this, new OrthogonalTiledMapRenderer(map, MAP_UNIT_SCALE, batch),
+                                                 "MapRenderer", 0);
+        } else {
+            mapRenderer.setMap(map);
+        }
 
         foregroundLayer = (TiledMapTileLayer) map.getLayers().get("foreground");
         backgroundLayer = (TiledMapTileLayer) map.getLayers().get("background");
@@ -160,11 +235,19 @@ public class World {
     }
 
     public void update(float dt) {
+        FrameProfiler.begin(FrameProfiler.WORLD_UPDATE);
+        FrameProfiler.begin(FrameProfiler.DIALOGUE);
         dialogue.update(dt);
+        FrameProfiler.end(FrameProfiler.DIALOGUE);
+        FrameProfiler.begin(FrameProfiler.PARTICLES);
         particles.update(dt);
+        FrameProfiler.end(FrameProfiler.PARTICLES);
+        FrameProfiler.begin(FrameProfiler.SCORE);
         if (!dialogue.isActive()) {
             if (score != null) score.update(dt);
         }
+        FrameProfiler.end(FrameProfiler.SCORE);
+        FrameProfiler.begin(FrameProfiler.ENTITIES);
             Iterator<EntityBase> iterator = gameEntities.iterator();
             while (iterator.hasNext()) {
                 EntityBase entity = iterator.next();
@@ -175,19 +258,31 @@ public class World {
                         player.respawn();
                     } else {
                         iterator.remove();
+                        if (entity instanceof AIScheduler.Thinker) ai.remove((AIScheduler.Thinker) entity);
                     }
                 }
             }
+        FrameProfiler.end(FrameProfiler.ENTITIES);
+        // Marios decide where they just moved to and act on it next frame, they sit out dialogue
+        FrameProfiler.begin(FrameProfiler.AI);
+        if (!dialogue.isActive()) ai.update(dt);
+        FrameProfiler.end(FrameProfiler.AI);
 
 
+        FrameProfiler.begin(FrameProfiler.MAP_OBJECTS);
         for (ObjectBase object : mapObjects) {
             object.update(dt);
         }
+        FrameProfiler.end(FrameProfiler.MAP_OBJECTS);
 
 
-        handlePhaseUpdate(dt);
+        FrameProfiler.begin(FrameProfiler.SCRIPTS);
+        if (player != null) triggers.update(player.getBounds());
+        cutscene.update(this, dt);
+        FrameProfiler.end(FrameProfiler.SCRIPTS);
 
         // keep the map in view always
+        FrameProfiler.begin(FrameProfiler.CAMERA);
         if (cameraLock) {
             float playerX = player.getBounds().x;
             if (playerX < cameraCenter.x - 3) cameraCenter.x = playerX + 3;
@@ -200,35 +295,57 @@ public class World {
         }
         camera.update();
         shake.update(dt, camera, cameraCenter);
+        FrameProfiler.end(FrameProfiler.CAMERA);
 
+        // Positional sounds played this frame are heard from here
+        if (player != null) {
+            Assets.soundManager.setListener(player.getBounds().x, player.getBounds().y);
+        } else {
+            Assets.soundManager.setListener(camera.position.x, camera.position.y);
+        }
+        FrameProfiler.end(FrameProfiler.WORLD_UPDATE);
 
     }
 
     public void render(SpriteBatch batch){
+        FrameProfiler.begin(FrameProfiler.WORLD_RENDER);
         mapRenderer.setView(camera);
 
         batch.begin();
         batch.setProjectionMatrix(camera.combined);
         {
+            FrameProfiler.begin(FrameProfiler.BACKGROUND);
             mapRenderer.renderTileLayer(backgroundLayer);
+            FrameProfiler.end(FrameProfiler.BACKGROUND);
 
 //            player.render(batch);
+            FrameProfiler.begin(FrameProfiler.DRAW_ENTITIES);
             for (EntityBase entity : gameEntities) {
                 entity.render(batch);
             }
+            FrameProfiler.end(FrameProfiler.DRAW_ENTITIES);
+            FrameProfiler.begin(FrameProfiler.DRAW_OBJECTS);
             for (ObjectBase object : mapObjects) {
                 object.render(batch);
             }
+            FrameProfiler.end(FrameProfiler.DRAW_OBJECTS);
 
+            FrameProfiler.begin(FrameProfiler.DRAW_PARTICLES);
             particles.render(batch);
+            FrameProfiler.end(FrameProfiler.DRAW_PARTICLES);
 
+            FrameProfiler.begin(FrameProfiler.FOREGROUND);
             mapRenderer.renderTileLayer(foregroundLayer);
+            FrameProfiler.end(FrameProfiler.FOREGROUND);
+            FrameProfiler.begin(FrameProfiler.ON_TOP);
             for (EntityBase entity : gameEntities){
                 if (entity.drawOnTop)
                     entity.render(batch);
             }
+            FrameProfiler.end(FrameProfiler.ON_TOP);
         }
         batch.end();
+        FrameProfiler.end(FrameProfiler.WORLD_RENDER);
 
     }
 
@@ -293,8 +410,7 @@ public class World {
         tiles.clear();
         for (int y = startY; y <= endY; y++) {
             for (int x = startX; x <= endX; x++) {
-                TiledMapTileLayer.Cell cell = foregroundLayer.getCell(x, y);
-                if (cell != null) {
+                if (collision.isSolid(x, y)) {
                     Rectangle rect = rectPool.obtain();
                     rect.set(x, y, 1, 1);
                     tiles.add(rect);
@@ -315,1486 +431,73 @@ public class World {
         if (score != null) score.addScore(s);
     }
 
-    public void addCoin(int c, Vector2 dist){
+    public void addCoin(int c, float x, float y){
         if (score != null) score.addCoin(c);
-        Assets.soundManager.playSound3D(SoundManager.SoundOptions.COIN_GET, dist);
+        Assets.soundManager.playSoundAt(SoundManager.SoundOptions.COIN_GET, x, y);
     }
 
     public void doShake(float time){
         shake.shake(time);
     }
 
-    // ------------------------------------------------------------------------
-    // Private Implementation
-    // ------------------------------------------------------------------------
-
     /**
-     * Performs the initial setup for each phase.
-     * - Load the appropriate map
-     * - Spawn entities
-     * - Get entities in their places
-     * - Kick off any dialog
-     * - ???
-     * - Profit
+     * Hand the map back to the cache and release what the world registered, it can't be used after this
      */
-    private void initPhase() {
-        segment = 0;
-        fadeIn();
-
-        switch (phase) {
-            case DAY_ONE:
-                score = new Score("1-1");
-
-                loadMap("maps/level1.tmx");
-                cameraLock = false;
-
-
-                player = new PlayerGoomba(this, new Vector2(33.5f, 3f));
-                player.canJump = false;
-                player.canRight = false;
-                player.moveDelay = EntityBase.PIPEDELAY;
-
-                TweenHelper.tweenPipeTravel(player, RectangleAccessor.Y, player.getBounds().y + 1f)
-                        .start(LudumDare33.tween);
-
-                float initY = camera.position.y;
-                float initZoom = camera.zoom;
-                camera.position.x = player.getBounds().x + .5f;
-                camera.position.y = player.getBounds().y + .5f;
-                camera.zoom = .1f;
-                camera.update();
-                Tween.to(camera, CameraAccessor.XYZ, EntityBase.PIPEDELAY)
-                        .target(cameraRightEdge, initY, initZoom)
-                        .ease(Linear.INOUT)
-                        .setCallback(new TweenCallback() {
-                            @Override
-                            public void onEvent(int i, BaseTween<?> baseTween) {
-                                cameraLock = true;
-                            }
-                        })
-                        .start(LudumDare33.tween);
-
-                Array<String> messages = new Array<String>();
-                messages.add(GameText.getText("foremanLate"));
-                dialogue.show(1, 10, 18, 4, messages);
-                break;
-            case HEADING_HOME:
-                Gdx.gl.glClearColor(Assets.NIGHT_SKY_R, Assets.NIGHT_SKY_G, Assets.NIGHT_SKY_B, 1f);
-                loadMap("maps/enterhome.tmx");
-
-                player = new PlayerGoomba(this, new Vector2(17, 2));
-                player.canJump = false;
-                player.canRight = false;
-                player.setWounded();
-                player.moveDelay = EntityBase.PIPEDELAY;
-
-                TweenHelper.tweenPipeTravel(player, RectangleAccessor.X, player.getBounds().x - 1f)
-                     .start(LudumDare33.tween);
-
-                messages = new Array<String>();
-                messages.add(GameText.getText("playerLate"));
-                dialogue.show(1, 10, 18, 4, messages);
-                break;
-            case MEET_THE_WIFE:
-                Gdx.gl.glClearColor(0f, 0f, 0f, 1f);
-
-                loadMap("maps/inhome-bedroom.tmx");
-
-                player = new PlayerGoomba(this, new Vector2(20, 2));
-                player.canJump = false;
-                player.canRight = false;
-                player.setWounded();
-                player.moveDelay = EntityBase.PIPEDELAY;
-                Tween.to(player.getBounds(), RectangleAccessor.X, EntityBase.PIPEDELAY)
-                        .target(player.getBounds().x - 1f)
-                        .ease(Linear.INOUT)
-                        .start(LudumDare33.tween);
-
-
-                wife = new WifeGoomba(this, new Vector2(9, 2));
-                wife.moveDelay = 1f;
-                Tween.to(wife.getBounds(), RectangleAccessor.Y, 0.2f)
-                        .target(wife.getBounds().y + 0.5f)
-                        .repeatYoyo(3, 0f)
-                        .ease(Linear.INOUT)
-                        .start(LudumDare33.tween);
-
-                kids = new GoombaKids(this, new Vector2(15, 2));
-                Tween.to(kids.getBounds(), RectangleAccessor.X, 2f)
-                        .target(18)
-                        .ease(Linear.INOUT)
-                        .start(LudumDare33.tween);
-                kids.addThought("Daddy! Daddy!");
-
-                messages = new Array<String>();
-                messages.add(GameText.getText("wifeBitching"));
-                messages.add(GameText.getText("playerStammer"));
-                dialogue.show(1, 10, 18, 4, messages);
-                break;
-            case LEAVING_HOME:
-                Gdx.gl.glClearColor(Assets.BLUE_SKY_R, Assets.BLUE_SKY_G, Assets.BLUE_SKY_B, 1f);
-
-                loadMap("maps/exithome.tmx");
-
-                player = new PlayerGoomba(this, new Vector2(11, 2));
-                player.canJump = false;
-                player.canRight = false;
-                player.moveDelay = EntityBase.PIPEDELAY;
-                player.setSadMode();
-                player.maxVelocity = 3f;
-                Tween.to(player.getBounds(), RectangleAccessor.X, EntityBase.PIPEDELAY)
-                     .target(player.getBounds().x - 1f)
-                     .ease(Linear.INOUT)
-                     .start(LudumDare33.tween);
-                break;
-            case BACK_TO_WORK:
-                Gdx.gl.glClearColor(Assets.BLUE_SKY_R, Assets.BLUE_SKY_G, Assets.BLUE_SKY_B, 1f);
-                score = new Score("1-1");
-                score.reset();
-
-                loadMap("maps/level1.tmx");
-
-                player = new PlayerGoomba(this, new Vector2(33.5f, 3f));
-                player.canJump = false;
-                player.canRight = false;
-                player.moveDelay = EntityBase.PIPEDELAY;
-                player.setSadMode();
-
-                TweenHelper.tweenPipeTravel(player, RectangleAccessor.Y, player.getBounds().y + 1f)
-                     .start(LudumDare33.tween);
-
-                messages = new Array<String>();
-                messages.add(GameText.getText("impressBoss"));
-                dialogue.show(1, 10, 18, 4, messages);
-                break;
-            case HEADING_HOME_SAD:
-                Gdx.gl.glClearColor(Assets.NIGHT_SKY_R, Assets.NIGHT_SKY_G, Assets.NIGHT_SKY_B, 1f);
-                loadMap("maps/enterhome.tmx");
-
-                player = new PlayerGoomba(this, new Vector2(17, 2));
-                player.canJump = false;
-                player.canRight = false;
-                player.setWounded();
-                player.moveDelay = EntityBase.PIPEDELAY;
-
-                TweenHelper.tweenPipeTravel(player, RectangleAccessor.X, player.getBounds().x - 1f)
-                           .start(LudumDare33.tween);
-                break;
-            case EMPTY_HOUSE:
-                Gdx.gl.glClearColor(0f, 0f, 0f, 1f);
-
-                loadMap("maps/inhome-bedroom.tmx");
-
-                player = new PlayerGoomba(this, new Vector2(20, 2));
-                player.canJump = false;
-                player.canRight = false;
-                player.setWounded();
-                player.moveDelay = EntityBase.PIPEDELAY;
-                Tween.to(player.getBounds(), RectangleAccessor.X, EntityBase.PIPEDELAY)
-                     .target(player.getBounds().x - 1f)
-                        .ease(Linear.INOUT)
-                     .start(LudumDare33.tween);
-
-                messages = new Array<String>();
-                messages.add(GameText.getText("ellipses"));
-                messages.add(GameText.getText("notComingBack"));
-                dialogue.show(1, 10, 18, 4, messages);
-                break;
-            case GET_MUSHROOM:
-                Gdx.gl.glClearColor(Assets.BLUE_SKY_R, Assets.BLUE_SKY_G, Assets.BLUE_SKY_B, 1);
-                loadMap("maps/level1.tmx");
-                score = new Score("1-1");
-                score.reset();
-
-                player = new PlayerGoomba(this, new Vector2(33.5f, 3f));
-                player.canJump = false;
-                player.canRight = false;
-                player.moveDelay = EntityBase.PIPEDELAY;
-                player.setSadMode();
-
-                TweenHelper.tweenPipeTravel(player, RectangleAccessor.Y, player.getBounds().y + 1f)
-                        .start(LudumDare33.tween);
-
-                messages = new Array<String>();
-                messages.add(GameText.getText("foremanLate"));
-                dialogue.show(1, 10, 18, 4, messages);
-                break;
-            case INTO_THE_FACTORY:
-                Gdx.gl.glClearColor(0.25f, 0.25f, 0.25f, 1);
-                score = new Score("F-B");
-                loadMap("maps/level-factoryintro.tmx");
-                Assets.soundManager.playMusic(SoundManager.MusicOptions.ZELDA_BK);
-                player = new PlayerGoomba(this, new Vector2(97, 2));
-                player.setRageMode();
-                player.moveDelay = EntityBase.PIPEDELAY;
-                TweenHelper.tweenPipeTravel(player, RectangleAccessor.X, player.getBounds().x - 1f)
-                        .ease(Linear.INOUT)
-                        .start(LudumDare33.tween);
-                messages = new Array<String>();
-                messages.add(GameText.getText("intoFactory"));
-                messages.add(GameText.getText("factoryNoise"));
-                dialogue.show(1, 10, 18, 4, messages);
-                fallingMario = new Mario(this, new Vector2(0,0));
-                fallingMario.dead = true;
-                break;
-            case DEEP_FACTORY:
-                Gdx.gl.glClearColor(0.25f, 0.25f, 0.25f, 1f);
-                score = new Score("F-A");
-                loadMap("maps/level-factory.tmx");
-
-                player = new PlayerGoomba(this, new Vector2(97, 2));
-                player.setRageMode();
-                player.moveDelay = EntityBase.PIPEDELAY;
-                TweenHelper.tweenPipeTravel(player, RectangleAccessor.X, player.getBounds().x - 1f)
-                     .ease(Linear.INOUT)
-                     .start(LudumDare33.tween);
-
-
-                break;
-            case CULT_ROOM:
-                Gdx.gl.glClearColor(220f / 255f, 20f / 255f, 60f / 255f, 1f);
-
-                Assets.soundManager.playMusic(SoundManager.MusicOptions.METRIOD_BK);
-                loadMap("maps/cadreroom.tmx");
-
-                // Spawn cultist members
-                ganon       = new Ganon(this, new Vector2(0.5f, 2));
-                kingHippo   = new KingHippo(this, new Vector2(2.5f, 2));
-                motherBrain = new MotherBrain(this, new Vector2(6, 2));
-                dracula     = new Dracula(this, new Vector2(13, 2));
-                dracula.facesRight = true;
-                luigi       = new Luigi(this, new Vector2(16, 2));
-                luigi.facesRight = true;
-                drWily      = new DrWily(this, new Vector2(18, 2));
-                drWily.facesRight = true;
-                cape        = new Cape(this, new Vector2(8, 2));
-
-                capeFloatingTween = Tween.to(cape.getBounds(), RectangleAccessor.Y, 1f)
-                                        .target(4)
-                                        .ease(Sine.INOUT)
-                                        .repeatYoyo(-1, 0)
-                                        .start(LudumDare33.tween);
-                cape.moveDelay = 100000;
-
-                ganon.addThought("LUDUM DARE");
-                kingHippo.addThought("LUDUM DARE");
-                motherBrain.addThought("LUDUM DARE");
-                dracula.addThought("LUDUM DARE");
-                luigi.addThought("LUDUM DARE");
-                drWily.addThought("LUDUM DARE");
-
-                repeatingTween = Tween.call(new TweenCallback() {
-                            @Override
-                            public void onEvent(int i, BaseTween<?> baseTween) {
-                                ganon.addThought("LUDUM DARE");
-                                kingHippo.addThought("LUDUM DARE");
-                                motherBrain.addThought("LUDUM DARE");
-                                dracula.addThought("LUDUM DARE");
-                                luigi.addThought("LUDUM DARE");
-                                drWily.addThought("LUDUM DARE");
-                            }
-                        })
-                     .delay(3.5f)
-                     .repeat(-1, 3.5f)
-                     .start(LudumDare33.tween);
-
-                player = new PlayerGoomba(this, new Vector2(17.5f, 7f));
-                player.setRageMode();
-                player.canJump = false;
-                player.moveDelay = EntityBase.PIPEDELAY;
-                TweenHelper.tweenPipeTravel(player, RectangleAccessor.Y, player.getBounds().y - 1f)
-                     .setCallback(new TweenCallback() {
-                         @Override
-                         public void onEvent(int i, BaseTween<?> baseTween) {
-                             Array<String> messages = new Array<String>();
-                             messages.add(GameText.getText("cultFlavor"));
-                             messages.add(GameText.getText("cultEnter"));
-                             dialogue.show(1, 10, 18, 4, messages);
-                         }
-                     })
-                     .start(LudumDare33.tween);
-                break;
-            case OVERWORLD_FIRST:
-                Gdx.gl.glClearColor(Assets.BLUE_SKY_R - 0.1f, Assets.BLUE_SKY_G - 0.1f, Assets.BLUE_SKY_B - 0.1f, 1f);
-                score = new Score("F-E");
-
-                loadMap("maps/level2.tmx");
-                Assets.soundManager.playMusic(SoundManager.MusicOptions.MARIO_MAJOR_BK);
-
-                new MarioSmart(this, new Vector2(75f, 3f));
-                new MarioSmart(this, new Vector2(47f, 3f));
-                new MarioSmart(this, new Vector2(17f, 10f));
-                new MarioSmart(this, new Vector2(22, 3));
-                new MarioSmart(this, new Vector2(3f, 3f));
-
-                player = new PlayerGoomba(this, new Vector2(97f, 2f));
-                player.moveDelay = EntityBase.PIPEDELAY;
-                player.setRageMode();
-
-                // Pipe enter
-                TweenHelper.tweenPipeTravel(player, RectangleAccessor.X, player.getBounds().x - 1f)
-                     .ease(Linear.INOUT)
-                     .setCallback(new TweenCallback() {
-                         @Override
-                         public void onEvent(int i, BaseTween<?> baseTween) {
-                             Array<String> messages = new Array<String>();
-                             messages.add(GameText.getText("level3Intro"));
-                             dialogue.show(1, 10, 18, 4, messages);
-                         }
-                     })
-                     .start(LudumDare33.tween);
-                break;
-            case UNDERWORLD:
-                Gdx.gl.glClearColor(Assets.UNDERGROUND_R, Assets.UNDERGROUND_G, Assets.UNDERGROUND_B, 1f);
-                score = new Score("F-F");
-
-                loadMap("maps/level3.tmx");
-
-                Assets.soundManager.playMusic(SoundManager.MusicOptions.DNUORGREDNU);
-
-                player = new PlayerGoomba(this, new Vector2(97.5f, 7f));
-                player.moveDelay = EntityBase.PIPEDELAY;
-                player.setRageMode();
-
-                TweenHelper.tweenPipeTravel(player, RectangleAccessor.Y, player.getBounds().y - 1f)
-                     .setCallback(new TweenCallback() {
-                         @Override
-                         public void onEvent(int i, BaseTween<?> baseTween) {
-                             Array<String> messages = new Array<String>();
-                             messages.add(GameText.getText("level2Intro"));
-                             dialogue.show(1, 10, 18, 4, messages);
-                         }
-                     })
-                     .start(LudumDare33.tween);
-                break;
-            case SHROOM_LAND:
-                Gdx.gl.glClearColor(Assets.NIGHT_SKY_R + 0.2f, Assets.NIGHT_SKY_G + 0.2f, Assets.NIGHT_SKY_B + 0.2f, 1f);
-
-                score = new Score("F-D");
-
-                loadMap("maps/level4.tmx");
-
-                Assets.soundManager.playMusic(SoundManager.MusicOptions.MARIO_MAJOR_BK);
-
-                new MarioSmart(this, new Vector2(72, 7));
-                new MarioSmart(this, new Vector2(34, 10));
-                new MarioSmart(this, new Vector2(4, 5));
-
-                new MarioDumb(this, new Vector2(67, 6));
-                new MarioDumb(this, new Vector2(43, 5));
-
-
-                player = new PlayerGoomba(this, new Vector2(97f, 2f));
-                player.moveDelay = EntityBase.PIPEDELAY;
-                player.setRageMode();
-                TweenHelper.tweenPipeTravel(player, RectangleAccessor.X, player.getBounds().x - 1f)
-                           .setCallback(new TweenCallback() {
-                               @Override
-                               public void onEvent(int i, BaseTween<?> baseTween) {
-                                   Array<String> messages = new Array<String>();
-                                   messages.add(GameText.getText("level4Intro"));
-                                   dialogue.show(1, 10, 18, 4, messages);
-                               }
-                           })
-                           .start(LudumDare33.tween);
-                break;
-            case BRIDGES_TO_FACTORY:
-                Gdx.gl.glClearColor(Assets.NIGHT_SKY_R, Assets.NIGHT_SKY_G, Assets.NIGHT_SKY_B, 1f);
-
-                score = new Score("F-C");
-
-                loadMap("maps/level5.tmx");
-
-                Assets.soundManager.playMusic(SoundManager.MusicOptions.ZELDA_BK);
-
-                new MarioDumb(this, new Vector2(56, 5));
-                new MarioDumb(this, new Vector2(35, 8));
-                new MarioDumb(this, new Vector2(10, 2));
-
-                new MarioSmart(this, new Vector2(76, 5));
-
-                fireworkDelay = 0;
-                player = new PlayerGoomba(this, new Vector2(97f, 2f));
-                player.moveDelay = EntityBase.PIPEDELAY;
-                player.setRageMode();
-                TweenHelper.tweenPipeTravel(player, RectangleAccessor.X, player.getBounds().x - 1f)
-                           .setCallback(new TweenCallback() {
-                               @Override
-                               public void onEvent(int i, BaseTween<?> baseTween) {
-                                   Array<String> messages = new Array<String>();
-                                   messages.add(GameText.getText("level5Intro"));
-                                   dialogue.show(1, 10, 18, 4, messages);
-                               }
-                           })
-                           .start(LudumDare33.tween);
-                break;
+    public void dispose() {
+        if (mapEntry != null) {
+            Assets.mapCache.release(mapEntry);
+            mapEntry = null;
         }
+        Assets.resources.release(this);
+        LudumDare33.tweens.release(this);
+        mapRenderer = null;
     }
 
-    /**
-     * Progress through each phase one scripted segment at a time
-     * @param dt the Fucking Delta what else? Intellij Complaining
-     */
-    private void handlePhaseUpdate(float dt){
-        switch (phase){
-            case DAY_ONE:
-                switch (segment){
-                    case 0:
-                        // Get in position, release a mario
-                        if (player.getBounds().x < 27){
-                            player.getBounds().x = 27;
-                            segment++;
-                            player.moveDelay = 6;
-
-                            Array<String> messages = new Array<String>();
-                            messages.add(GameText.getText("hereComesMario"));
-                            dialogue.show(1,10,18,4,messages);
-
-                        }
-                        break;
-                    case 1:
-                        if (!dialogue.isActive()) {
-                            segment++;
-                            marioAI = new MarioAI(this, new Vector2(10, 2));
-                            player.moveDelay = 6f;
-                        }
-                        break;
-                    case 2:
-                        // Just a bump on the head, released to go home for the day
-                        if (marioAI.dead){
-                            segment++;
-                            Array<String> messages = new Array<String>();
-                            messages.add(GameText.getText("headHome"));
-                            dialogue.show(1, 10, 18, 4, messages);
-                            player.setWounded();
-                        }
-                        break;
-                    case 3:
-                        if (!dialogue.isActive()) {
-                            segment++;
-                            player.addThought("Good idea");
-                        }
-                        break;
-                    case 4:
-                        // Enter home pipe
-                        if (player.getBounds().x <= 5.5){
-                            segment++;
-                            fadeOut();
-                            TweenHelper.tweenPipeTravel(player, RectangleAccessor.X, 3.5f)
-                                    .start(LudumDare33.tween);
-                        }
-                        break;
-                    case 5:
-                        break;
-                }
-                break;
-            case HEADING_HOME:
-                switch (segment){
-                    case 0:
-                        // Enter, stage right
-                        if (player.getBounds().x < 16){
-                            player.getBounds().x = 16;
-                            segment++;
-                        }
-                        break;
-                    case 1:
-                        // Walking into the house
-                        if (player.getBounds().x < 10) {
-                            player.getBounds().x = 10;
-                            segment++;
-                            player.moveDelay = EntityBase.PIPEDELAY;
-                            fadeOut();
-                            Tween.to(player.getBounds(), RectangleAccessor.X, EntityBase.PIPEDELAY)
-                                 .target(8f)
-                                 .ease(Linear.INOUT)
-                                 .start(LudumDare33.tween);
-                        }
-                        break;
-                }
-                break;
-            case MEET_THE_WIFE:
-                switch (segment) {
-                    case 0:
-                        if (!dialogue.isActive()){
-                            segment++;
-                            player.moveDelay = 2f;
-                            Array<String> messages = new Array<String>();
-                            messages.add(GameText.getText("wrangleKids"));
-                            messages.add(GameText.getText("playerDontGo"));
-                            dialogue.show(1, 10, 18, 4, messages);
-                            Tween.to(kids.getBounds(), RectangleAccessor.X, 2f)
-                                    .target(wife.getBounds().x + 1f)
-                                    .delay(0.75f)
-                                    .ease(Linear.INOUT)
-                                    .start(LudumDare33.tween);
-                        }
-                        break;
-                    case 1:
-                        // Wife storms out, takes the kids
-                        if (!dialogue.isActive()) {
-                            Array<String> messages = new Array<String>();
-                            messages.add(GameText.getText("noTimeForThis"));
-                            dialogue.show(1, 10, 18, 4, messages);
-                            segment++;
-                            //player.moveDelay = 4f;
-                            Tween.to(wife.getBounds(), RectangleAccessor.X, 4f)
-                                    .target(-1f)
-                                    .ease(Linear.INOUT)
-                                    .setCallback(new TweenCallback() {
-                                        @Override
-                                        public void onEvent(int i, BaseTween<?> baseTween) {
-                                            wife.dead = true;
-                                        }
-                                    })
-                                    .start(LudumDare33.tween);
-                            Tween.to(kids.getBounds(), RectangleAccessor.X, 4f)
-                                    .target(-1f)
-                                    .ease(Linear.INOUT)
-                                    .setCallback(new TweenCallback() {
-                                        @Override
-                                        public void onEvent(int i, BaseTween<?> baseTween) {
-                                            kids.dead = true;
-                                        }
-                                    })
-                                    .start(LudumDare33.tween);
-                        }
-                        break;
-                    // TODO: have a drink (or three)
-                    case 2:
-                        // Go to the bed
-                        if (player.getBounds().x < 12) {
-                            player.getBounds().x = 12;
-                            segment++;
-                        }
-                        break;
-                    case 3:
-                        // Get into bed
-                        if (player.getBounds().x < 9.5f) {
-                            player.getBounds().x = 9.5f;
-                            segment++;
-                            player.moveDelay = 1f;
-                            Tween.to(player.getBounds(), RectangleAccessor.Y, 1f)
-                                 .target(player.getBounds().y + 1f)
-                                 .ease(Linear.INOUT)
-                                 .start(LudumDare33.tween);
-                        }
-                        break;
-                    case 4:
-                        // Going to sleep
-                        if (player.moveDelay <= 0){
-                            player.moveDelay = 2f;
-                            segment++;
-                            Tween.to(transitionColor, ColorAccessor.A, 1f)
-                                    .target(1)
-                                    .ease(Linear.INOUT)
-                                    .repeatYoyo(1, 0)
-                                    .setCallback(new TweenCallback() {
-                                        @Override
-                                        public void onEvent(int i, BaseTween<?> baseTween) {
-                                            // WAKE UP
-                                            World.this.player.setSadMode();
-                                            Array<String> messages = new Array<String>();
-                                            messages.add(GameText.getText("tooOld"));
-                                            messages.add(GameText.getText("missMisty"));
-                                            dialogue.show(1, 10, 18, 4, messages);
-                                        }
-                                    })
-                                    .start(LudumDare33.tween);
-                            Tween.call(new TweenCallback() {
-                                @Override
-                                public void onEvent(int i, BaseTween<?> baseTween) {
-                                    player.setSadMode();
-                                }
-                            })
-                                 .delay(1f)
-                                 .start(LudumDare33.tween);
-                        }
-                        break;
-                    case 5:
-                        if (player.getBounds().x < 1) {
-                            player.moveDelay = EntityBase.PIPEDELAY;
-                            segment++;
-                            fadeOut();
-                            Tween.to(player.getBounds(), RectangleAccessor.X, EntityBase.PIPEDELAY)
-                                    .target(-1f)
-                                    .ease(Linear.INOUT)
-                                    .start(LudumDare33.tween);
-                            Tween.to(transitionColor, ColorAccessor.A, EntityBase.PIPEDELAY)
-                                    .target(0)
-                                    .ease(Linear.INOUT)
-                                    .start(LudumDare33.tween);
-                        }
-                        break;
-                }
-                break;
-            case LEAVING_HOME:
-                switch (segment) {
-                    case 0:
-                        // Enter, stage right
-                        if (player.getBounds().x < 10){
-                            player.getBounds().x = 10;
-                            segment++;
-                        }
-                        break;
-                    case 1:
-                        // Walking into the pipe
-                        if (player.getBounds().x < 3.5f) {
-                            player.getBounds().x = 3;
-                            segment++;
-                            player.moveDelay = EntityBase.PIPEDELAY;
-                            fadeOut();
-
-                            TweenHelper.tweenPipeTravel(player, RectangleAccessor.X, player.getBounds().x - 1f)
-                                 .start(LudumDare33.tween);
-                        }
-                        break;
-                }
-                break;
-            case BACK_TO_WORK:
-                switch (segment){
-                    case 0:
-                        // Get in position, release a mario
-                        if (player.getBounds().x < 27){
-                            player.getBounds().x = 27;
-                            segment++;
-                            player.moveDelay = 6;
-
-                            Array<String> messages = new Array<String>();
-                            messages.add(GameText.getText("hereComesMario"));
-                            dialogue.show(1,10,18,4,messages);
-                        }
-                        break;
-                    case 1:
-                        if (!dialogue.isActive()){
-                            segment++;
-                            marioAI = new MarioAI(this, new Vector2(10, 2));
-                            player.moveDelay = 6;
-                        }
-                        break;
-                    case 2:
-                        // Just a bump on the head, released to go home for the day
-                        if (marioAI.dead){
-                            segment++;
-                            Array<String> messages = new Array<String>();
-                            messages.add(GameText.getText("injuredAgain"));
-                            dialogue.show(1, 10, 18, 4, messages);
-                            player.setWounded();
-                        }
-                        break;
-                    case 3:
-                        if (!dialogue.isActive()) {
-                            segment++;
-                            player.addThought("yeah ... family ...");
-                        }
-                        break;
-                    case 4:
-                        // Enter home pipe
-                        if (player.getBounds().x <= 5.5){
-                            segment++;
-                            fadeOut();
-                            TweenHelper.tweenPipeTravel(player, RectangleAccessor.X, 3.5f)
-                                    .start(LudumDare33.tween);
-                        }
-                }
-                break;
-            case HEADING_HOME_SAD:
-                switch (segment) {
-                    case 0:
-                        // Enter, stage right
-                        if (player.getBounds().x < 16.5f) {
-                            player.getBounds().x = 16.5f;
-                            segment++;
-
-                            Array<String> messages = new Array<String>();
-                            messages.add(GameText.getText("mistyHope"));
-                            dialogue.show(1, 10, 18, 4, messages);
-                        }
-                        break;
-                    case 1:
-                        if (!dialogue.isActive()) {
-                            segment++;
-                            player.addThought("Hopefully");
-                        }
-                        break;
-                    case 2:
-                        // Walking into the house
-                        if (player.getBounds().x < 10) {
-                            player.getBounds().x = 10;
-                            segment++;
-                            player.moveDelay = EntityBase.PIPEDELAY;
-                            fadeOut();
-                            TweenHelper.tweenPipeTravel(player, RectangleAccessor.X, 8f)
-                                    .start(LudumDare33.tween);
-                        }
-                        break;
-                }
-                break;
-            case EMPTY_HOUSE:
-                switch (segment) {
-                    case 0:
-                        // Get into bed
-                        if (player.getBounds().x < 9.5f) {
-                            player.getBounds().x = 9.5f;
-                            segment++;
-                            player.moveDelay = 1f;
-                            Tween.to(player.getBounds(), RectangleAccessor.Y, 1f)
-                                 .target(player.getBounds().y + 1f)
-                                 .ease(Linear.INOUT)
-                                 .start(LudumDare33.tween);
-                        }
-                        break;
-                    case 1:
-                        // Sleep... beautiful sleep
-                        if (player.moveDelay <= 0) {
-                            player.moveDelay = 2f;
-                            segment++;
-                            Tween.call(new TweenCallback() {
-                                    @Override
-                                    public void onEvent(int i, BaseTween<?> baseTween) {
-                                        Assets.soundManager.playMusic(SoundManager.MusicOptions.MARIO_MINOR);
-                                        loadMap("maps/inhome-bedroom-sad.tmx");
-                                        player.setSadMode();
-                                        player.addThought("* sigh *");
-                                    }
-                                })
-                                    .delay(1.1f)
-                                    .start(LudumDare33.tween);
-
-                            Tween.to(transitionColor, ColorAccessor.A, 1f)
-                                 .target(1)
-                                 .ease(Linear.INOUT)
-                                 .start(LudumDare33.tween);
-                            Tween.to(transitionColor, ColorAccessor.A, 1f)
-                                    .target(0)
-                                    .delay(1.5f)
-                                    .ease(Linear.INOUT)
-                                    .start(LudumDare33.tween);
-                        }
-                        break;
-                    case 2:
-                        // Up and at-them
-                        if (player.getBounds().x < 1) {
-                            player.moveDelay = EntityBase.PIPEDELAY;
-                            segment++;
-                            fadeOut();
-                            Tween.to(player.getBounds(), RectangleAccessor.X, EntityBase.PIPEDELAY)
-                                 .target(-1f)
-                                 .ease(Linear.INOUT)
-                                 .start(LudumDare33.tween);
-                            Tween.to(transitionColor, ColorAccessor.A, EntityBase.PIPEDELAY)
-                                 .target(0)
-                                 .ease(Linear.INOUT)
-                                 .start(LudumDare33.tween);
-                        }
-                        break;
-                }
-                break;
-            case GET_MUSHROOM:
-                switch (segment){
-                    case 0:
-                        // Get in position, release a mario
-                        if (player.getBounds().x < 27){
-                            player.getBounds().x = 27;
-                            segment++;
-                            player.moveDelay = 6;
-
-                            Array<String> messages = new Array<String>();
-                            messages.add(GameText.getText("hereComesMario"));
-                            dialogue.show(1,10,18,4,messages);
-                        }
-                        break;
-                    case 1:
-                        if (!dialogue.isActive()){
-                            segment++;
-                            MarioAI mario = new MarioAI(this, new Vector2(10, 2));
-                            player.getBounds().x = 27;
-                            player.moveDelay = 6;
-                        }
-                        break;
-                    case 2:
-                        // Just picked up the Mushroom
-                        if (player.raged){
-                            Assets.soundManager.playSound(SoundManager.SoundOptions.GOOMBA_MUSHROOM_GET);
-                            Assets.soundManager.playMusic(SoundManager.MusicOptions.MARIO_MAJOR_BK);
-                            segment++;
-                            player.moveDelay = 4f;
-                            cameraLock = false;
-                            player.smashedAnimation = player.standingAnimation = Assets.goombaGrowAnimation;
-                            player.stateTime = 0f;
-                            Timeline.createSequence()
-                                    .push(Tween.to(camera, CameraAccessor.XYZ, 2f)
-                                        .target(player.getBounds().x + .5f, player.getBounds().y + .5f, .1f)
-                                        .ease(Quad.OUT))
-                                    .pushPause(.5f)
-                                    .push(Tween.to(camera, CameraAccessor.XYZ, 1.5f)
-                                        .target(cameraCenter.x, cameraCenter.y, 1)
-                                        .ease(Quad.IN)
-                                        .setCallback(new TweenCallback() {
-                                            @Override
-                                            public void onEvent(int type, BaseTween<?> source) {
-                                                player.smashedAnimation = Assets.goombaSmashedAnimation;
-                                                player.setRageMode();
-                                            }
-                                        }))
-                                    .start(LudumDare33.tween);
-                        }
-                        break;
-                    case 3:
-                        particles.addSparkles(player.getBounds()); //sparkle all the time until you can move again
-                        if (player.moveDelay <= 0){
-                            cameraLock = true;
-                            segment++;
-                            Array<String> messages = new Array<String>();
-                            messages.add(GameText.getText("gotMushroom1"));
-                            messages.add(GameText.getText("gotMushroom2"));
-                            messages.add(GameText.getText("gotMushroom3"));
-                            messages.add(GameText.getText("gotMushroom4"));
-                            dialogue.show(1, 10, 18, 4, messages);
-                        }
-                        break;
-                    case 4:
-                        if (player.getBounds().x < 9){
-                            segment++;
-                            Array<String> messages = new Array<String>();
-                            messages.add(GameText.getText("noGoingBack1"));
-                            messages.add(GameText.getText("noGoingBack2"));
-                            dialogue.show(1, 10, 18, 4, messages);
-                        }
-                        break;
-                    case 5:
-                        // Head to new world
-                        if (player.getBounds().x <= 2.5 && player.getBounds().x > 1 && player.getBounds().y < 5.1) {
-                            segment++;
-                            player.getBounds().x = 1.7f;
-                            player.moveDelay = EntityBase.PIPEDELAY;
-                            TweenHelper.tweenPipeTravel(player, RectangleAccessor.Y, 3)
-                                    .setCallback(new TweenCallback() {
-                                        @Override
-                                        public void onEvent(int i, BaseTween<?> baseTween) {
-                                            World.this.done = true;
-                                        }
-                                    })
-                                    .start(LudumDare33.tween);
-                        }
-                }
-                break;
-            case INTO_THE_FACTORY:
-                if (fallingMario.dead){
-                    fallingMario = new Mario(this, new Vector2(22.5f,14));
-                    fallingMario.setDeadAnimations();
-                    final Rectangle fallingMarioBounds = fallingMario.getBounds();
-                    repeatingTween = Tween.to(fallingMarioBounds, RectangleAccessor.Y, 2f)
-                                          .target(7)
-                                          .repeat(-1, 2)
-                                          .ease(Expo.IN)
-                                          .setCallback(new TweenCallback() {
-                                              @Override
-                                              public void onEvent(int i, BaseTween<?> baseTween) {
-                                                  shake.shake(.5f);
-                                                  particles.addLargeBlood(new Vector2(22.5f, 8.5f));
-                                                  Vector2 dist = new Vector2(fallingMarioBounds.x - player.getBounds().x, fallingMarioBounds.y - player.getBounds().y);
-                                                  Assets.soundManager.playSound3D(
-                                                          SoundManager.SoundOptions.MARIO_RECLAIMATION,
-                                                          dist);
-                                              }
-                                          })
-                                          .setCallbackTriggers(TweenCallback.END)
-                                          .start(LudumDare33.tween);
-                    fallingMario.moveDelay = 100000f;
-                }
-                switch (segment){
-                    case 0:
-                        if (!dialogue.isActive()) {
-                            segment++;
-                        }
-                        break;
-                    case 1:
-                        if (player.getBounds().x < 84f) {
-                            player.getBounds().x = 84f;
-                            segment++;
-
-                            Array<String> messages = new Array<String>();
-                            messages.add(GameText.getText("marioScreenWTF"));
-                            dialogue.show(1, 10, 18, 4, messages);
-                        }
-                        break;
-                    case 2:
-                        if (!dialogue.isActive()) {
-                            segment++;
-                        }
-                        break;
-                    case 3:
-                        if (player.getBounds().x < 45.5f) {
-                            player.getBounds().x = 45.5f;
-                            segment++;
-
-                            Array<String> messages = new Array<String>();
-                            messages.add(GameText.getText("marioTubesWTF"));
-                            dialogue.show(1, 10, 18, 4, messages);
-                        }
-                        break;
-                    case 4:
-                        if (!dialogue.isActive()) {
-                            segment++;
-                        }
-                        break;
-                    case 5:
-                        if (player.getBounds().x < 22.5f) {
-                            player.getBounds().x = 22.5f;
-                            segment++;
-
-                            Array<String> messages = new Array<String>();
-                            messages.add(GameText.getText("ellipses"));
-                            messages.add(GameText.getText("marioGrinderWTF"));
-                            dialogue.show(1, 10, 18, 4, messages);
-                        }
-                        break;
-                    case 6:
-                        if (player.getBounds().x < 2.5f && player.getBounds().y < 4.1) {
-                            player.getBounds().x = 2.5f;
-                            player.getBounds().y = 4f;
-                            player.moveDelay = EntityBase.PIPEDELAY;
-                            repeatingTween.kill();
-                            fadeOut();
-                            segment++;
-                            TweenHelper.tweenPipeTravel(player, RectangleAccessor.Y, player.getBounds().y - 1f)
-                                    .ease(Linear.INOUT)
-                                    .start(LudumDare33.tween);
-                        }
-                        break;
-                }
-                break;
-            case DEEP_FACTORY:
-                switch (segment) {
-                    case 0:
-                        if (player.getBounds().x < 2.5f && player.getBounds().y < 4.1) {
-                            player.getBounds().x = 2.5f;
-                            player.getBounds().y = 4f;
-                            player.moveDelay = EntityBase.PIPEDELAY;
-                            fadeOut();
-                            TweenHelper.tweenPipeTravel(player, RectangleAccessor.Y, player.getBounds().y - 1f)
-                                    .ease(Linear.INOUT)
-                                    .start(LudumDare33.tween);
-                            segment++;
-                        }
-                        break;
-                }
-                break;
-            case CULT_ROOM:
-                switch (segment) {
-                    case 0:
-                        if (player.getBounds().x < 10){
-                            kingHippo.chant(false);
-                            motherBrain.chant(false);
-                            dracula.chant(false);
-                            luigi.chant(false);
-                            drWily.chant(false);
-                            repeatingTween.kill();
-                            player.moveDelay = 10000;
-                            segment++;
-                            Array<String> messages = new Array<String>();
-                            messages.add(GameText.getText("cultCenter1"));
-                            dialogue.show(1, 10, 18, 4, messages);
-                        }
-                        break;
-                    case 1:
-                        if (!dialogue.isActive()){
-                            ganon.chant(false);
-                            kingHippo.chant(true);
-                            segment++;
-                            Array<String> messages = new Array<String>();
-                            messages.add(GameText.getText("cultCenter2"));
-                            dialogue.show(1, 10, 18, 4, messages);
-                        }
-                        break;
-                    case 2:
-                        if (!dialogue.isActive()){
-                            segment++;
-                            kingHippo.chant(false);
-                            motherBrain.chant(true);
-                            Array<String> messages = new Array<String>();
-                            messages.add(GameText.getText("cultCenter3"));
-                            dialogue.show(1, 10, 18, 4, messages);
-                        }
-                        break;
-                    case 3:
-                        if (!dialogue.isActive()){
-                            segment++;
-                            motherBrain.chant(false);
-                            dracula.chant(true);
-                            Array<String> messages = new Array<String>();
-                            messages.add(GameText.getText("cultCenter4"));
-                            dialogue.show(1, 10, 18, 4, messages);
-                        }
-                        break;
-                    case 4:
-                        if (!dialogue.isActive()){
-                            segment++;
-                            dracula.chant(false);
-                            luigi.chant(true);
-                            Array<String> messages = new Array<String>();
-                            messages.add(GameText.getText("cultCenter5"));
-                            dialogue.show(1, 10, 18, 4, messages);
-                        }
-                        break;
-                    case 5:
-                        if (!dialogue.isActive()){
-                            segment++;
-                            luigi.chant(false);
-                            drWily.chant(true);
-                            Array<String> messages = new Array<String>();
-                            messages.add(GameText.getText("cultCenter6"));
-                            dialogue.show(1, 10, 18, 4, messages);
-                        }
-                        break;
-                    case 6:
-                        if (!dialogue.isActive()) {
-                            segment++;
-                            Array<String> messages = new Array<String>();
-                            messages.add(GameText.getText("cultReflection1"));
-                            messages.add(GameText.getText("cultReflection2"));
-                            messages.add(GameText.getText("cultReflection3"));
-                            messages.add(GameText.getText("cultReflection4"));
-                            messages.add(GameText.getText("cultReflection5"));
-                            messages.add(GameText.getText("cultReflection6"));
-                            dialogue.show(1, 10, 18, 4, messages);
-                        }
-                        break;
-                    case 7:
-                        if (!dialogue.isActive()){
-                            drWily.chant(false);
-                            segment++;
-                            endDelay = 1000;
-                            cape.moveDelay = 10000;
-                            transitionColor = new Color(1,1,1,0);
-                            capeFloatingTween.kill();
-                            Timeline.createSequence()
-                                    .push(Tween.to(cape.getBounds(), RectangleAccessor.Y, 1f)
-                                            .target(2))
-                                    .beginParallel()
-                                          .push(Tween.to(player.getBounds(), RectangleAccessor.Y, 2f)
-                                                  .target(10))
-                                          .push(Tween.to(cape.getBounds(), RectangleAccessor.Y, 2f)
-                                                  .target(10))
-                                    .end()
-                                    .pushPause(.1f)
-                                    .beginParallel()
-                                        .push(Tween.to(player.getBounds(), RectangleAccessor.X, .5f)
-                                                .target(9)
-                                                .ease(Circ.INOUT)
-                                                .repeatYoyo(2, 0))
-                                        .push(Tween.to(cape.getBounds(), RectangleAccessor.X, .5f)
-                                                .target(9)
-                                                .ease(Circ.INOUT)
-                                                .repeatYoyo(2, 0))
-
-                                    .end()
-                                    .beginParallel()
-
-                                        .push(Tween.to(player.getBounds(), RectangleAccessor.X, .2f)
-                                                .target(10)
-                                                .ease(Circ.INOUT)
-                                                .repeatYoyo(10, 0))
-                                        .push(Tween.to(cape.getBounds(), RectangleAccessor.X, .2f)
-                                                .target(8)
-                                                .ease(Circ.INOUT)
-                                                .repeatYoyo(10, 0))
-                                        .push(Tween.to(transitionColor, ColorAccessor.A, 2f)
-                                                .target(1))
-                                    .end()
-                                    .pushPause(.25f)
-                                    .push(Tween.call(new TweenCallback() {
-                                        @Override
-                                        public void onEvent(int i, BaseTween<?> baseTween) {
-                                            player.setCaped();
-                                            cape.dead = true;
-                                            player.getBounds().x = 0f;
-                                            player.getBounds().y = 2;
-                                            ganon.getBounds().x = 1.4f;
-                                            kingHippo.getBounds().x = 2.85f;
-                                            endDelay = 5;
-                                            cameraLock = false;
-                                            camera.position.x = player.getBounds().x + 1.5f;
-                                            camera.position.y = player.getBounds().y + 1f;
-                                            camera.zoom = .1f;
-
-                                        }
-                                    }))
-                                    .pushPause(.5f)
-                                    .push(Tween.to(transitionColor, ColorAccessor.A, 1f)
-                                            .target(0)
-                                            .ease(Linear.INOUT))
-                                    .pushPause(.5f)
-                                    .push(Tween.to(camera, CameraAccessor.XYZ, 2f)
-                                            .target(cameraCenter.x, cameraCenter.y, 1)
-                                            .ease(Linear.INOUT))
-                                    .start(LudumDare33.tween);
-
-
-                        }
-                        break;
-                    case 8:
-                        endDelay -= dt;
-                        if (endDelay < 0){
-                            endDelay = 2f;
-                            segment++;
-                            ganon.chant(true);
-                            kingHippo.chant(true);
-                            motherBrain.chant(true);
-                            dracula.chant(true);
-                            luigi.chant(true);
-                            drWily.chant(true);
-                            Array<String> messages = new Array<String>();
-                            messages.add(GameText.getText("theEnd1"));
-                            dialogue.show(1, 10, 18, 4, messages);
-                            Tween.call(new TweenCallback() {
-                                @Override
-                                public void onEvent(int i, BaseTween<?> baseTween) {
-
-
-                                    ganon.addThought("LUDUM DARE");
-                                    kingHippo.addThought("LUDUM DARE");
-                                    motherBrain.addThought("LUDUM DARE");
-                                    dracula.addThought("LUDUM DARE");
-                                    luigi.addThought("LUDUM DARE");
-                                    drWily.addThought("LUDUM DARE");
-                                    player.addThought("LUDUM DARE");
-
-                                    repeatingTween = Tween.call(new TweenCallback() {
-                                        @Override
-                                        public void onEvent(int i, BaseTween<?> baseTween) {
-                                            ganon.addThought("LUDUM DARE");
-                                            kingHippo.addThought("LUDUM DARE");
-                                            motherBrain.addThought("LUDUM DARE");
-                                            dracula.addThought("LUDUM DARE");
-                                            luigi.addThought("LUDUM DARE");
-                                            drWily.addThought("LUDUM DARE");
-                                            player.addThought("LUDUM DARE");
-                                        }
-                                    })
-                                            .delay(3.5f)
-                                            .repeat(-1, 3.5f)
-                                            .start(LudumDare33.tween);
-                                }
-                            })
-                                    .delay(1.1f)
-                                    .start(LudumDare33.tween);
-                        }
-                        break;
-                    case 9:
-                        endDelay -= dt;
-                        if (endDelay <= 0) {
-                            segment++;
-                            // Let's bring down the curtain.
-                            drawEndCurtain = true;
-                            endCurtainAnimationComplete = false;
-
-                            endCurtainBottomY = new MutableFloat(Config.height);
-                            endCurtainFullY = new MutableFloat(Config.height + 32f);
-                            // Prep the tween to bring the full curtain just a bit past the bottom.
-                            final TweenCallback fullCurtainCompleteTC = new TweenCallback() {
-                                @Override
-                                public void onEvent(int i, BaseTween<?> baseTween) {
-                                endCurtainAnimationComplete = true;
-                                }
-                            };
-                            TweenCallback fullCurtainTC = new TweenCallback() {
-                                @Override
-                                public void onEvent(int i, BaseTween<?> baseTween) {
-                                    Tween.to(endCurtainFullY, -1, 0.35f)
-                                            .target(8f)
-                                            .ease(Sine.OUT)
-                                            .setCallback(fullCurtainCompleteTC)
-                                            .start(LudumDare33.tween);
-                                }
-                            };
-                            // Tween both curtains down together.
-                            // Bottom
-                            Tween.to(endCurtainBottomY, -1, 3f)
-                                    .target(-8f)
-                                    .ease(Linear.INOUT)
-                                    .start(LudumDare33.tween);
-                            Tween.to(endCurtainFullY, -1, 3f)
-                                    .target(24f)
-                                    .ease(Linear.INOUT)
-                                    .setCallback(fullCurtainTC)
-                                    .start(LudumDare33.tween);
-
-//                        float endCurtainInitialDuration = 3f;
-//                        float endCurtainRuffleDuration = 0.35f;
-//                        endCurtainCompleteRuffleCount = 0;
-//                        int i;
-//                        float start;
-//                        float target;
-//
-//                        // Create the timeline
-//                        Timeline curtainTimeline = Timeline.createSequence();
-//
-//                        // Add the initial tweens to get everything to descend in a linear sequence.
-//                        curtainTimeline.beginParallel();
-//                        for (i = 0; i < END_CURTAIN_RUFFLES; i++) {
-//                            // We have to init the Mutables this time around
-//                            start = Config.height + (END_CURTAIN_RUFFLE_OFFSET * i);
-//                            endCurtainPositions.add(new MutableFloat(start));
-//                            target = END_CURTAIN_BOTTOM_RUFFLE_END_Y + (END_CURTAIN_RUFFLE_OFFSET * i);
-//                            curtainTimeline.push(
-//                                    Tween.to(endCurtainPositions.get(i), -1, endCurtainInitialDuration)
-//                                            .target(target)
-//                                            .ease(Linear.INOUT)
-//                            );
-//                        }
-//
-//                        // End that initial parallel
-//                        curtainTimeline.end();
-//
-//                        // When that parallel ends, we want to update our finished ruffle index
-//                        curtainTimeline.setCallback(new TweenCallback() {
-//                            @Override
-//                            public void onEvent(int i, BaseTween<?> baseTween) {
-//                                endCurtainCompleteRuffleCount = 1;
-//                            }
-//                        });
-//
-//                        // For each extra ruffle, add a new easing tween to bring down and stop the ruffle.
-//                        for (i = 1; i < END_CURTAIN_RUFFLES; i++) {
-//                            curtainTimeline.push(
-//                                    Tween.to(endCurtainPositions.get(i), -1, endCurtainRuffleDuration)
-//                                            .target(endCurtainPositions.get(i).floatValue() - 16f)
-//                                            .ease(Sine.OUT)
-//                                            .setCallback(new TweenCallback() {
-//                                                @Override
-//                                                public void onEvent(int i, BaseTween<?> baseTween) {
-//                                                    endCurtainCompleteRuffleCount++;
-//                                                }
-//                                            })
-//                            );
-//                        }
-//
-//                        // When it's all over, flip the complete flag
-//                        curtainTimeline.setCallback(new TweenCallback() {
-//                            @Override
-//                            public void onEvent(int i, BaseTween<?> baseTween) {
-//                                endCurtainAnimationComplete = true;
-//                            }
-//                        });
-//
-//                        // Start it up
-//                        curtainTimeline.start(LudumDare33.tween);
-                        }
-                        break;
-                    case 10:
-                        // Wait for the curtain to be fully done.
-                        if (endCurtainAnimationComplete) {
-                            segment++;
-                        }
-                        break;
-                    case 11:
-                        if (!dialogue.isActive()){
-                            segment++;
-                            Array<String> messages = new Array<String>();
-                            messages.add(GameText.getText("theEnd2"));
-                            dialogue.show(1, 10, 18, 4, messages);
-                        }
-                        break;
-                    case 12:
-                        if (!dialogue.isActive()){
-                            segment++;
-                            Array<String> messages = new Array<String>();
-                            messages.add(GameText.getText("gameOver"));
-                            dialogue.show(8, 7, 4, 3, messages, false, 100, false);
-                        }
-                        break;
-                }
-                break;
-            case OVERWORLD_FIRST:
-                switch (segment) {
-                    case 0:
-                        if (player.getBounds().x < 95.5f) {
-                            player.getBounds().x = 95.5f;
-                            segment++;
-                        }
-                        break;
-                    case 1:
-                        if (player.getBounds().x < 2.1f && player.getBounds().y < 2.5f) {
-                            segment++;
-                            // Pipe exit
-                            TweenHelper.tweenPipeTravel(player, RectangleAccessor.X, player.getBounds().x - 1f)
-                                    .ease(Linear.INOUT)
-                                    .setCallback(new TweenCallback() {
-                                        @Override
-                                        public void onEvent(int i, BaseTween<?> baseTween) {
-                                            World.this.fadeOut();
-                                        }
-                                    })
-                                    .start(LudumDare33.tween);
-                        }
-                }
-                break;
-            case UNDERWORLD:
-                switch (segment) {
-                    case 0:
-                        if (player.getBounds().x < 5.5f && player.getBounds().y < 10.5f) {
-
-                            segment++;
-                            // Pipe exit
-                            TweenHelper.tweenPipeTravel(player, RectangleAccessor.X, player.getBounds().x - 1f)
-                                    .ease(Linear.INOUT)
-                                    .setCallback(new TweenCallback() {
-                                        @Override
-                                        public void onEvent(int i, BaseTween<?> baseTween) {
-                                            World.this.fadeOut();
-                                        }
-                                    })
-                                    .start(LudumDare33.tween);
-                        }
-                }
-                break;
-            case SHROOM_LAND:
-                switch (segment) {
-                    case 0:
-                        if (!dialogue.isActive()) {
-                            segment++;
-                        }
-                        break;
-                    case 1:
-                        if (player.getBounds().x < 2.5f && player.getBounds().y < 2.1f) {
-                            segment++;
-                            player.moveDelay = EntityBase.PIPEDELAY;
-                            fadeOut();
-                            TweenHelper.tweenPipeTravel(player, RectangleAccessor.X, player.getBounds().x - 1)
-                                 .ease(Linear.INOUT)
-                                 .start(LudumDare33.tween);
-                        }
-                }
-                break;
-            case BRIDGES_TO_FACTORY:
-                // Always be shooting fireworks
-                fireworkDelay-= dt;
-                if (fireworkDelay <= 0) {
-                    shootCastleFireworks();
-                }
-
-                switch (segment) {
-                    case 0:
-                        if (!dialogue.isActive()) {
-                            segment++;
-                            // TODO: script all the things! (or at least an exit handler)
-                        }
-                        break;
-                    case 1:
-                        if (player.getBounds().x < 8){
-                            segment++;
-                            Array<String> messages = new Array<String>();
-                            messages.add(GameText.getText("atCastle1"));
-                            messages.add(GameText.getText("atCastle2"));
-                            messages.add(GameText.getText("atCastle3"));
-                            dialogue.show(1, 10, 18, 4, messages);
-                        }
-                        break;
-                    case 2:
-                        if (player.getBounds().x < 3.1 && player.getBounds().y < 3.1){
-                            player.moveDelay = EntityBase.PIPEDELAY;
-                            fadeOut();
-                            Tween.to(player.getBounds(), RectangleAccessor.X, EntityBase.PIPEDELAY)
-                                    .target(1)
-                                    .ease(Linear.INOUT)
-                                    .start(LudumDare33.tween);
-                        }
-                        break;
-                }
-                break;
-        }
+    public void fadeIn(){
+        transitionColor.set(0, 0, 0, 1);
+        TweenHelper.fadeIn(transitionColor, EntityBase.PIPEDELAY)
+                .start(tweens);
     }
 
-    private void fadeIn(){
-        transitionColor = new Color(0, 0, 0, 1);
-        Tween.to(transitionColor, ColorAccessor.A, EntityBase.PIPEDELAY)
-                .target(0)
-                .ease(Linear.INOUT)
-                .start(LudumDare33.tween);
-    }
-
-    private void fadeOut(){
-        transitionColor = new Color(0, 0, 0, 0);
-        Tween.to(transitionColor, ColorAccessor.A, EntityBase.PIPEDELAY)
-                .target(1)
-                .ease(Linear.INOUT)
-                .setCallback(new TweenCallback() {
-                    @Override
-                    public void onEvent(int i, BaseTween<?> baseTween) {
-                        World.this.done = true;
-                    }
-                })
-                .start(LudumDare33.tween);
+    /**
+     * Fade to black, the phase is done once it's covered
+     */
+    public void fadeOut(){
+        transitionColor.set(0, 0, 0, 0);
+        TweenHelper.fadeOut(transitionColor, EntityBase.PIPEDELAY)
+                .setUserData(this)
+                .setCallback(PHASE_DONE)
+                .start(tweens);
     }
 
+    // ------------------------------------------------------------------------
+    // Private Implementation
+    // ------------------------------------------------------------------------
 
-
-    private void loadMapObjects() {
-        if (map == null) return;
-
-        mapObjects = new Array<ObjectBase>();
-
-        MapProperties props;
-        MapLayer objectLayer = map.getLayers().get("objects");
-        for (MapObject object : objectLayer.getObjects()) {
-            props = object.getProperties();
-            float w = (Float) props.get("width");
-            float h = (Float) props.get("height");
-            float x = (Float) props.get("x");
-            float y = (Float) props.get("y"); // NOTE: god dammit... off by 1
-            String type = (String) props.get("type");
-
+    private void loadMapObjects(Array<PhaseStager.Spawn> spawns) {
+        mapObjects.clear();
+        for (int i = 0; i < spawns.size; i++) {
+            PhaseStager.Spawn spawn = spawns.get(i);
             // Instantiate based on type
-            if (type.equals("qblock")) {
-                String dropTypeName = (String) props.get("drops");
-                ItemEntity.ItemType dropType = ItemEntity.ItemType.getType(dropTypeName);
-                mapObjects.add(new QuestionBlock(this, new Rectangle(x / w, (y / h) + 1, 1, 1), dropType));
-            }
-            else if (type.equals("spike")) {
-                mapObjects.add(new SpikeObject(this, new Rectangle(x / w, (y / h) + 1, 1, 1)));
-            }
-            else if(type.equals("tube")) {
-                mapObjects.add(new TubeObject(
-                    this, new Rectangle(x / w, (y / 16) + 2, 1, 2),
-                    TubeObject.TubeContents.valueOf((String) props.get("contains"))));
+            switch (spawn.type) {
+                case QBLOCK:
+                    ItemEntity.ItemType dropType = ItemEntity.ItemType.getType(spawn.param);
+                    mapObjects.add(new QuestionBlock(this, spawn.bounds, dropType));
+                    break;
+                case SPIKE:
+                    mapObjects.add(new SpikeObject(this, spawn.bounds));
+                    break;
+                case TUBE:
+                    mapObjects.add(new TubeObject(this, spawn.bounds, TubeObject.TubeContents.valueOf(spawn.param)));
+                    break;
+                case MARIO_SCREEN:
+                    mapObjects.add(new MarioScreenObject(this, spawn.bounds));
+                    break;
+                case COIN:
+                    new CoinItem(this, spawn.bounds.x, spawn.bounds.y, false);
+                    break;
             }
-            else if(type.equals("marioscreen")) {
-                mapObjects.add(new MarioScreenObject(
-                    this, new Rectangle(x / 16, (y / 16) + 2, 2, 2)));
-            }
-            else if (type.equals("coin")) {
-                new CoinItem(this, x / 16, (y / 16) + 1, false);
-            }
-//            else if (type.equals("...")) {
-//
-//            }
-        }
-    }
-
-    private void shootCastleFireworks(){
-        fireworkDelay = .5f;
-
-        int rand = MathUtils.random(4);
-        switch(rand) {
-            case 0:
-                particles.addFirework(new Vector2(4.1f, 11), 90);
-                break;
-            case 1:
-                particles.addFirework(new Vector2(2.1f, 11), 90);
-                break;
-            case 2:
-                particles.addFirework(new Vector2(5.1f, 9), 45);
-                break;
-            case 3:
-                particles.addFirework(new Vector2(6.1f, 7), 30);
-                break;
-            case 4:
-                particles.addFirework(new Vector2(4.1f, 7), 45);
-                break;
         }
-
-
     }
 
 }
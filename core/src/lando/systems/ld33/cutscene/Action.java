@@ -0,0 +1,12 @@
+package lando.systems.ld33.cutscene;
+
+import lando.systems.ld33.World;
+
+/**
+ * Something a cutscene step does once, when its trigger fires
+ */
+public interface Action {
+
+    void run(World world);
+
+}
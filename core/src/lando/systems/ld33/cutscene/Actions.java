@@ -0,0 +1,315 @@
+package lando.systems.ld33.cutscene;
+
+import aurelienribon.tweenengine.BaseTween;
+import aurelienribon.tweenengine.Tween;
+import aurelienribon.tweenengine.TweenCallback;
+import aurelienribon.tweenengine.equations.Linear;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import lando.systems.ld33.World;
+import lando.systems.ld33.accessors.ColorAccessor;
+import lando.systems.ld33.accessors.RectangleAccessor;
+import lando.systems.ld33.entities.EntityBase;
+import lando.systems.ld33.entities.mario.MarioAI;
+import lando.systems.ld33.utils.Assets;
+import lando.systems.ld33.utils.GameText;
+import lando.systems.ld33.utils.PayloadCallback;
+import lando.systems.ld33.utils.SoundManager;
+import lando.systems.ld33.utils.TweenHelper;
+
+/**
+ * The building blocks scripts are declared with.
+ *
+ * Everything is created when the script compiles, dialogue lines are looked up once,
+ * and tween callbacks find their world through the tween's user data, so playing a
+ * step never allocates anything of its own.
+ */
+public class Actions {
+
+    public static final Action FADE_OUT = new Action() {
+        @Override
+        public void run(World world) {
+            world.fadeOut();
+        }
+    };
+
+    public static final Action WOUNDED = new Action() {
+        @Override
+        public void run(World world) {
+            world.player.setWounded();
+        }
+    };
+
+    public static final Action SAD_MODE = new Action() {
+        @Override
+        public void run(World world) {
+            world.player.setSadMode();
+        }
+    };
+
+    public static final Action KILL_REPEATING_TWEEN = new Action() {
+        @Override
+        public void run(World world) {
+            world.repeatingTween.kill();
+        }
+    };
+
+    // Callbacks, their tween's user data is the world unless noted
+
+    public static final PayloadCallback<World> FADE_OUT_WHEN_DONE = new PayloadCallback<World>() {
+        @Override
+        protected void onEvent(World world) {
+            world.fadeOut();
+        }
+    };
+
+    public static final PayloadCallback<World> PHASE_DONE = new PayloadCallback<World>() {
+        @Override
+        protected void onEvent(World world) {
+            world.done = true;
+        }
+    };
+
+    public static final PayloadCallback<World> LOCK_CAMERA = new PayloadCallback<World>() {
+        @Override
+        protected void onEvent(World world) {
+            world.cameraLock = true;
+        }
+    };
+
+    public static final PayloadCallback<World> SIGNAL = new PayloadCallback<World>() {
+        @Override
+        protected void onEvent(World world) {
+            world.cutscene.signal();
+        }
+    };
+
+    // User data is the entity
+    public static final PayloadCallback<EntityBase> KILL_ENTITY = TweenHelper.KILL_ENTITY;
+
+    // -----------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Dialogue lines in the usual box, looked up from {@link GameText} now rather than when shown
+     */
+    public static Action say(String... keys) {
+        return new Say(lines(keys), true);
+    }
+
+    /**
+     * Dialogue the player can't close, for the last word
+     */
+    public static Action sayFinal(String... keys) {
+        return new Say(lines(keys), false);
+    }
+
+    /**
+     * A tween callback that opens dialogue in the usual box
+     */
+    public static TweenCallback sayWhenDone(String... keys) {
+        final Array<String> lines = lines(keys);
+        return new TweenCallback() {
+            @Override
+            public void onEvent(int type, BaseTween<?> source) {
+                ((World) source.getUserData()).dialogue.show(1, 10, 18, 4, lines);
+            }
+        };
+    }
+
+    public static Action thought(final String text) {
+        return new Action() {
+            @Override
+            public void run(World world) {
+                world.player.addThought(text);
+            }
+        };
+    }
+
+    public static Action placePlayer(final float x) {
+        return new Action() {
+            @Override
+            public void run(World world) {
+                world.player.getBounds().x = x;
+            }
+        };
+    }
+
+    public static Action placePlayer(final float x, final float y) {
+        return new Action() {
+            @Override
+            public void run(World world) {
+                world.player.getBounds().x = x;
+                world.player.getBounds().y = y;
+            }
+        };
+    }
+
+    public static Action moveDelay(final float seconds) {
+        return new Action() {
+            @Override
+            public void run(World world) {
+                world.player.moveDelay = seconds;
+            }
+        };
+    }
+
+    public static Action cameraLock(final boolean locked) {
+        return new Action() {
+            @Override
+            public void run(World world) {
+                world.cameraLock = locked;
+            }
+        };
+    }
+
+    /**
+     * Slide the player through a pipe to a spot on one axis
+     */
+    public static Action pipeTo(int axis, float target) {
+        return new Pipe(axis, target, false, null);
+    }
+
+    /**
+     * Slide the player through a pipe, relative to where they are when the step fires
+     */
+    public static Action pipeBy(int axis, float delta) {
+        return new Pipe(axis, delta, true, null);
+    }
+
+    public static Action pipeBy(int axis, float delta, TweenCallback whenDone) {
+        return new Pipe(axis, delta, true, whenDone);
+    }
+
+    public static Action pipeTo(int axis, float target, TweenCallback whenDone) {
+        return new Pipe(axis, target, false, whenDone);
+    }
+
+    /**
+     * Walk the player somewhere on one axis without the pipe noise
+     */
+    public static Action walkTo(final int axis, final float target, final float duration) {
+        return new Action() {
+            @Override
+            public void run(World world) {
+                Tween.to(world.player.getBounds(), axis, duration)
+                     .target(target)
+                     .ease(Linear.INOUT)
+                     .start(world.tweens);
+            }
+        };
+    }
+
+    public static Action walkBy(final int axis, final float delta, final float duration) {
+        return new Action() {
+            @Override
+            public void run(World world) {
+                float from = (axis == RectangleAccessor.X) ? world.player.getBounds().x : world.player.getBounds().y;
+                Tween.to(world.player.getBounds(), axis, duration)
+                     .target(from + delta)
+                     .ease(Linear.INOUT)
+                     .start(world.tweens);
+            }
+        };
+    }
+
+    /**
+     * Tween the screen cover's alpha, 1 is fully covered
+     */
+    public static Action cover(final float alpha, final float duration, final float delay) {
+        return new Action() {
+            @Override
+            public void run(World world) {
+                Tween.to(world.transitionColor, ColorAccessor.A, duration)
+                     .target(alpha)
+                     .delay(delay)
+                     .ease(Linear.INOUT)
+                     .start(world.tweens);
+            }
+        };
+    }
+
+    public static Action spawnMarioAI(float x, float y, final String track) {
+        final Vector2 spawn = new Vector2(x, y);
+        return new Action() {
+            @Override
+            public void run(World world) {
+                world.marioAI = new MarioAI(world, spawn, track);
+            }
+        };
+    }
+
+    public static Action music(final SoundManager.MusicOptions musicOption) {
+        return new Action() {
+            @Override
+            public void run(World world) {
+                Assets.soundManager.playMusic(musicOption);
+            }
+        };
+    }
+
+    public static Action sound(final SoundManager.SoundOptions soundOption) {
+        return new Action() {
+            @Override
+            public void run(World world) {
+                Assets.soundManager.playSound(soundOption);
+            }
+        };
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+
+    static Array<String> lines(String... keys) {
+        Array<String> lines = new Array<String>(keys.length);
+        for (String key : keys) {
+            lines.add(GameText.getText(key));
+        }
+        return lines;
+    }
+
+    private static class Say implements Action {
+        final Array<String> lines;
+        final boolean       closable;
+
+        Say(Array<String> lines, boolean closable) {
+            this.lines = lines;
+            this.closable = closable;
+        }
+
+        @Override
+        public void run(World world) {
+            if (closable) {
+                world.dialogue.show(1, 10, 18, 4, lines);
+            } else {
+                world.dialogue.show(8, 7, 4, 3, lines, false, 100, false);
+            }
+        }
+    }
+
+    private static class Pipe implements Action {
+        final int           axis;
+        final float         target;
+        final boolean       relative;
+        final TweenCallback whenDone;
+
+        Pipe(int axis, float target, boolean relative, TweenCallback whenDone) {
+            this.axis = axis;
+            this.target = target;
+            this.relative = relative;
+            this.whenDone = whenDone;
+        }
+
+        @Override
+        public void run(World world) {
+            float to = target;
+            if (relative) {
+                to += (axis == RectangleAccessor.X) ? world.player.getBounds().x : world.player.getBounds().y;
+            }
+            Tween tween = TweenHelper.tweenPipeTravel(world.player, axis, to);
+            if (whenDone != null) {
+                tween.setUserData(world).setCallback(whenDone);
+            }
+            tween.start(world.tweens);
+        }
+    }
+
+}
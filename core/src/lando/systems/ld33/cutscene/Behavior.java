@@ -0,0 +1,12 @@
+package lando.systems.ld33.cutscene;
+
+import lando.systems.ld33.World;
+
+/**
+ * Something a cutscene keeps doing every frame, either for the whole phase or while a step waits
+ */
+public interface Behavior {
+
+    void update(World world, float dt);
+
+}
@@ -0,0 +1,53 @@
+package lando.systems.ld33.cutscene;
+
+/**
+ * A phase script compiled down to flat arrays, shared by every world that plays it.
+ *
+ * Step i waits on triggers[i] (with its argument at args[i], or the trigger volume named
+ * volumes[i] on the map), then runs
+ * actions[firstAction[i]] up to actions[firstAction[i + 1]] and moves on to step i + 1.
+ * Built with a {@link Script}, played by a {@link CutscenePlayer}.
+ */
+public class Cutscene {
+
+    // Trigger types
+    static final int DIALOGUE_DONE = 0;
+    // The player is in a trigger volume placed on the map
+    static final int PLAYER_IN     = 1;
+    static final int MARIO_AI_DEAD = 2;
+    static final int PLAYER_RAGED  = 3;
+    // The player's move delay has run out
+    static final int PLAYER_READY  = 4;
+    // Something outside the script called CutscenePlayer.signal()
+    static final int SIGNALED      = 5;
+    // args[i] seconds since the step started
+    static final int AFTER         = 6;
+
+    final Action[]   setup;
+    final Behavior   every;
+    final int        steps;
+    final int[]      triggers;
+    final float[]    args;
+    final String[]   volumes;
+    final int[]      firstAction;
+    final Action[]   actions;
+    final Behavior[] during;
+
+    Cutscene(Action[] setup, Behavior every, int[] triggers, float[] args, String[] volumes,
+             int[] firstAction, Action[] actions, Behavior[] during) {
+        this.setup = setup;
+        this.every = every;
+        this.steps = triggers.length;
+        this.triggers = triggers;
+        this.args = args;
+        this.volumes = volumes;
+        this.firstAction = firstAction;
+        this.actions = actions;
+        this.during = during;
+    }
+
+    public int getStepCount() {
+        return steps;
+    }
+
+}
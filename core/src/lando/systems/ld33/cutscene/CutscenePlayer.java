@@ -0,0 +1,118 @@
+package lando.systems.ld33.cutscene;
+
+import lando.systems.ld33.World;
+import lando.systems.ld33.utils.TriggerVolumes;
+
+/**
+ * Plays a {@link Cutscene} for one world, only the current step's trigger is checked each frame.
+ * Steps waiting on the player to walk somewhere listen to the map's trigger volumes instead.
+ */
+public class CutscenePlayer implements TriggerVolumes.Listener {
+
+    private Cutscene  cutscene;
+    private int[]     volumeIds;
+    private boolean[] occupied;
+    private int       step;
+    private float     stepTime;
+    private boolean   signaled;
+
+    public CutscenePlayer() {
+        this.volumeIds = new int[0];
+        this.occupied = new boolean[0];
+    }
+
+    /**
+     * Switch to a phase's cutscene, run its setup and wait on the first step
+     */
+    public void start(World world, Cutscene cutscene) {
+        this.cutscene = cutscene;
+        if (volumeIds.length < cutscene.steps) volumeIds = new int[cutscene.steps];
+        step = 0;
+        stepTime = 0f;
+        signaled = false;
+        for (Action action : cutscene.setup) {
+            action.run(world);
+        }
+    }
+
+    /**
+     * Look up the volumes the steps wait on, call whenever the world loads a map.
+     * A step naming a volume this map doesn't have waits until one that does is loaded.
+     */
+    public void resolve(TriggerVolumes triggers) {
+        if (occupied.length < triggers.getCount()) occupied = new boolean[triggers.getCount()];
+        for (int i = 0; i < occupied.length; i++) occupied[i] = false;
+        for (int i = 0; i < cutscene.steps; i++) {
+            String volume = cutscene.volumes[i];
+            volumeIds[i] = (volume != null) ? triggers.indexOf(volume) : -1;
+        }
+    }
+
+    @Override
+    public void onEnter(int volume) {
+        occupied[volume] = true;
+    }
+
+    @Override
+    public void onExit(int volume) {
+        occupied[volume] = false;
+    }
+
+    public void update(World world, float dt) {
+        if (cutscene.every != null) cutscene.every.update(world, dt);
+        if (step >= cutscene.steps) return;
+
+        stepTime += dt;
+        Behavior during = cutscene.during[step];
+        if (during != null) during.update(world, dt);
+        if (!isTriggered(world)) return;
+
+        if (cutscene.triggers[step] == Cutscene.SIGNALED) signaled = false;
+        int first = cutscene.firstAction[step];
+        int last = cutscene.firstAction[step + 1];
+        step++;
+        stepTime = 0f;
+        for (int i = first; i < last; i++) {
+            cutscene.actions[i].run(world);
+        }
+    }
+
+    /**
+     * Let a step waiting on a signal go ahead, for things that finish inside a tween
+     */
+    public void signal() {
+        signaled = true;
+    }
+
+    public int getStep() {
+        return step;
+    }
+
+    public boolean isFinished() {
+        return step >= cutscene.steps;
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+
+    private boolean isTriggered(World world) {
+        switch (cutscene.triggers[step]) {
+            case Cutscene.DIALOGUE_DONE:
+                return !world.dialogue.isActive();
+            case Cutscene.PLAYER_IN:
+                return volumeIds[step] != -1 && occupied[volumeIds[step]];
+            case Cutscene.MARIO_AI_DEAD:
+                return world.marioAI != null && world.marioAI.dead;
+            case Cutscene.PLAYER_RAGED:
+                return world.player.raged;
+            case Cutscene.PLAYER_READY:
+                return world.player.moveDelay <= 0;
+            case Cutscene.SIGNALED:
+                return signaled;
+            case Cutscene.AFTER:
+                return stepTime > cutscene.args[step];
+            default:
+                return false;
+        }
+    }
+
+}
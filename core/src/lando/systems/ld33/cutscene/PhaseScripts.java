@@ -0,0 +1,861 @@
+package lando.systems.ld33.cutscene;
+
+import aurelienribon.tweenengine.BaseTween;
+import aurelienribon.tweenengine.Timeline;
+import aurelienribon.tweenengine.Tween;
+import aurelienribon.tweenengine.TweenCallback;
+import aurelienribon.tweenengine.equations.Circ;
+import aurelienribon.tweenengine.equations.Expo;
+import aurelienribon.tweenengine.equations.Linear;
+import aurelienribon.tweenengine.equations.Quad;
+import aurelienribon.tweenengine.equations.Sine;
+import aurelienribon.tweenengine.primitives.MutableFloat;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
+import lando.systems.ld33.Config;
+import lando.systems.ld33.World;
+import lando.systems.ld33.accessors.CameraAccessor;
+import lando.systems.ld33.accessors.ColorAccessor;
+import lando.systems.ld33.accessors.RectangleAccessor;
+import lando.systems.ld33.entities.*;
+import lando.systems.ld33.entities.mario.Mario;
+import lando.systems.ld33.entities.mario.MarioAI;
+import lando.systems.ld33.entities.mario.MarioDumb;
+import lando.systems.ld33.entities.mario.MarioSmart;
+import lando.systems.ld33.utils.Assets;
+import lando.systems.ld33.utils.Score;
+import lando.systems.ld33.utils.SoundManager;
+import lando.systems.ld33.utils.TweenHelper;
+
+/**
+ * The story, one script per phase of the world.
+ *
+ * Each script is compiled the first time its phase is played and reused from then on.
+ */
+public class PhaseScripts {
+
+    private static final ObjectMap<World.Phase, Cutscene> compiled = new ObjectMap<World.Phase, Cutscene>();
+
+    private static final int X = RectangleAccessor.X;
+    private static final int Y = RectangleAccessor.Y;
+
+    public static Cutscene get(World.Phase phase) {
+        Cutscene cutscene = compiled.get(phase);
+        if (cutscene == null) {
+            cutscene = declare(phase).compile();
+            compiled.put(phase, cutscene);
+        }
+        return cutscene;
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+
+    private static Script declare(World.Phase phase) {
+        switch (phase) {
+            case DAY_ONE:
+                return new Script()
+                        .setup(new Action() {
+                            @Override
+                            public void run(World world) {
+                                world.score = new Score("1-1");
+                                world.loadMap(world.phase.mapName);
+                                world.cameraLock = false;
+
+                                PlayerGoomba player = arriveAtWork(world);
+
+                                OrthographicCamera camera = world.camera;
+                                float initY = camera.position.y;
+                                float initZoom = camera.zoom;
+                                camera.position.x = player.getBounds().x + .5f;
+                                camera.position.y = player.getBounds().y + .5f;
+                                camera.zoom = .1f;
+                                camera.update();
+                                Tween.to(camera, CameraAccessor.XYZ, EntityBase.PIPEDELAY)
+                                     .target(world.cameraRightEdge, initY, initZoom)
+                                     .ease(Linear.INOUT)
+                                     .setUserData(world)
+                                     .setCallback(Actions.LOCK_CAMERA)
+                                     .start(world.tweens);
+                            }
+                        }, Actions.say("foremanLate"))
+                        .whenPlayerEnters("foreman-post").then(Actions.placePlayer(27), Actions.moveDelay(6), Actions.say("hereComesMario"))
+                        .whenDialogueDone().then(Actions.spawnMarioAI(10, 2, MarioAI.GRAB_MUSHROOM), Actions.moveDelay(6))
+                        // Just a bump on the head, released to go home for the day
+                        .whenMarioAIDead().then(Actions.say("headHome"), Actions.WOUNDED)
+                        .whenDialogueDone().then(Actions.thought("Good idea"))
+                        // Enter home pipe
+                        .whenPlayerEnters("home-pipe").then(Actions.FADE_OUT, Actions.pipeTo(X, 3.5f));
+
+            case HEADING_HOME:
+                return new Script()
+                        .setup(new Action() {
+                            @Override
+                            public void run(World world) {
+                                Gdx.gl.glClearColor(Assets.NIGHT_SKY_R, Assets.NIGHT_SKY_G, Assets.NIGHT_SKY_B, 1f);
+                                world.loadMap(world.phase.mapName);
+
+                                PlayerGoomba player = arrive(world, 17, 2);
+                                player.canJump = false;
+                                player.canRight = false;
+                                player.setWounded();
+                                TweenHelper.tweenPipeTravel(player, X, player.getBounds().x - 1f)
+                                           .start(world.tweens);
+                            }
+                        }, Actions.say("playerLate"))
+                        // Enter, stage right
+                        .whenPlayerEnters("walk-home").then(Actions.placePlayer(16))
+                        // Walking into the house
+                        .whenPlayerEnters("front-door").then(Actions.placePlayer(10), Actions.moveDelay(EntityBase.PIPEDELAY), Actions.FADE_OUT,
+                                                   Actions.walkTo(X, 8f, EntityBase.PIPEDELAY));
+
+            case MEET_THE_WIFE: {
+                final TweenCallback wakeUp = Actions.sayWhenDone("tooOld", "missMisty");
+                final TweenCallback sadMode = new TweenCallback() {
+                    @Override
+                    public void onEvent(int type, BaseTween<?> source) {
+                        ((World) source.getUserData()).player.setSadMode();
+                    }
+                };
+                return new Script()
+                        .setup(new Action() {
+                            @Override
+                            public void run(World world) {
+                                Gdx.gl.glClearColor(0f, 0f, 0f, 1f);
+                                world.loadMap(world.phase.mapName);
+
+                                PlayerGoomba player = arrive(world, 20, 2);
+                                player.canJump = false;
+                                player.canRight = false;
+                                player.setWounded();
+                                Tween.to(player.getBounds(), X, EntityBase.PIPEDELAY)
+                                     .target(player.getBounds().x - 1f)
+                                     .ease(Linear.INOUT)
+                                     .start(world.tweens);
+
+                                world.wife = new WifeGoomba(world, new Vector2(9, 2));
+                                world.wife.moveDelay = 1f;
+                                Tween.to(world.wife.getBounds(), Y, 0.2f)
+                                     .target(world.wife.getBounds().y + 0.5f)
+                                     .repeatYoyo(3, 0f)
+                                     .ease(Linear.INOUT)
+                                     .start(world.tweens);
+
+                                world.kids = new GoombaKids(world, new Vector2(15, 2));
+                                Tween.to(world.kids.getBounds(), X, 2f)
+                                     .target(18)
+                                     .ease(Linear.INOUT)
+                                     .start(world.tweens);
+                                world.kids.addThought("Daddy! Daddy!");
+                            }
+                        }, Actions.say("wifeBitching", "playerStammer"))
+                        .whenDialogueDone().then(Actions.moveDelay(2f), Actions.say("wrangleKids", "playerDontGo"), new Action() {
+                            @Override
+                            public void run(World world) {
+                                Tween.to(world.kids.getBounds(), X, 2f)
+                                     .target(world.wife.getBounds().x + 1f)
+                                     .delay(0.75f)
+                                     .ease(Linear.INOUT)
+                                     .start(world.tweens);
+                            }
+                        })
+                        // Wife storms out, takes the kids
+                        .whenDialogueDone().then(Actions.say("noTimeForThis"), new Action() {
+                            @Override
+                            public void run(World world) {
+                                leave(world, world.wife);
+                                leave(world, world.kids);
+                            }
+                        })
+                        // TODO: have a drink (or three)
+                        // Go to the bed
+                        .whenPlayerEnters("bedside").then(Actions.placePlayer(12))
+                        // Get into bed
+                        .whenPlayerEnters("bed").then(Actions.placePlayer(9.5f), Actions.moveDelay(1f), Actions.walkBy(Y, 1f, 1f))
+                        // Going to sleep
+                        .whenPlayerReady().then(Actions.moveDelay(2f), new Action() {
+                            @Override
+                            public void run(World world) {
+                                Tween.to(world.transitionColor, ColorAccessor.A, 1f)
+                                     .target(1)
+                                     .ease(Linear.INOUT)
+                                     .repeatYoyo(1, 0)
+                                     .setUserData(world)
+                                     .setCallback(wakeUp)
+                                     .start(world.tweens);
+                                Tween.call(sadMode)
+                                     .delay(1f)
+                                     .setUserData(world)
+                                     .start(world.tweens);
+                            }
+                        })
+                        .whenPlayerEnters("bedroom-door").then(Actions.moveDelay(EntityBase.PIPEDELAY), Actions.FADE_OUT,
+                                                  Actions.walkTo(X, -1f, EntityBase.PIPEDELAY),
+                                                  Actions.cover(0, EntityBase.PIPEDELAY, 0));
+            }
+
+            case LEAVING_HOME:
+                return new Script()
+                        .setup(new Action() {
+                            @Override
+                            public void run(World world) {
+                                Gdx.gl.glClearColor(Assets.BLUE_SKY_R, Assets.BLUE_SKY_G, Assets.BLUE_SKY_B, 1f);
+                                world.loadMap(world.phase.mapName);
+
+                                PlayerGoomba player = arrive(world, 11, 2);
+                                player.canJump = false;
+                                player.canRight = false;
+                                player.setSadMode();
+                                player.maxVelocity = 3f;
+                                Tween.to(player.getBounds(), X, EntityBase.PIPEDELAY)
+                                     .target(player.getBounds().x - 1f)
+                                     .ease(Linear.INOUT)
+                                     .start(world.tweens);
+                            }
+                        })
+                        // Enter, stage right
+                        .whenPlayerEnters("leave-home").then(Actions.placePlayer(10))
+                        // Walking into the pipe
+                        .whenPlayerEnters("work-pipe").then(Actions.placePlayer(3), Actions.moveDelay(EntityBase.PIPEDELAY), Actions.FADE_OUT,
+                                                     Actions.pipeBy(X, -1f));
+
+            case BACK_TO_WORK:
+                return new Script()
+                        .setup(new Action() {
+                            @Override
+                            public void run(World world) {
+                                Gdx.gl.glClearColor(Assets.BLUE_SKY_R, Assets.BLUE_SKY_G, Assets.BLUE_SKY_B, 1f);
+                                world.score = new Score("1-1");
+                                world.score.reset();
+                                world.loadMap(world.phase.mapName);
+
+                                arriveAtWork(world).setSadMode();
+                            }
+                        }, Actions.say("impressBoss"))
+                        .whenPlayerEnters("foreman-post").then(Actions.placePlayer(27), Actions.moveDelay(6), Actions.say("hereComesMario"))
+                        .whenDialogueDone().then(Actions.spawnMarioAI(10, 2, MarioAI.GRAB_MUSHROOM), Actions.moveDelay(6))
+                        .whenMarioAIDead().then(Actions.say("injuredAgain"), Actions.WOUNDED)
+                        .whenDialogueDone().then(Actions.thought("yeah ... family ..."))
+                        // Enter home pipe
+                        .whenPlayerEnters("home-pipe").then(Actions.FADE_OUT, Actions.pipeTo(X, 3.5f));
+
+            case HEADING_HOME_SAD:
+                return new Script()
+                        .setup(new Action() {
+                            @Override
+                            public void run(World world) {
+                                Gdx.gl.glClearColor(Assets.NIGHT_SKY_R, Assets.NIGHT_SKY_G, Assets.NIGHT_SKY_B, 1f);
+                                world.loadMap(world.phase.mapName);
+
+                                PlayerGoomba player = arrive(world, 17, 2);
+                                player.canJump = false;
+                                player.canRight = false;
+                                player.setWounded();
+                                TweenHelper.tweenPipeTravel(player, X, player.getBounds().x - 1f)
+                                           .start(world.tweens);
+                            }
+                        })
+                        // Enter, stage right
+                        .whenPlayerEnters("misty-hope").then(Actions.placePlayer(16.5f), Actions.say("mistyHope"))
+                        .whenDialogueDone().then(Actions.thought("Hopefully"))
+                        // Walking into the house
+                        .whenPlayerEnters("front-door").then(Actions.placePlayer(10), Actions.moveDelay(EntityBase.PIPEDELAY), Actions.FADE_OUT,
+                                                   Actions.pipeTo(X, 8f));
+
+            case EMPTY_HOUSE: {
+                final TweenCallback wakeUpAlone = new TweenCallback() {
+                    @Override
+                    public void onEvent(int type, BaseTween<?> source) {
+                        World world = (World) source.getUserData();
+                        Assets.soundManager.playMusic(SoundManager.MusicOptions.MARIO_MINOR);
+                        world.loadMap("maps/inhome-bedroom-sad.ldmap");
+                        world.player.setSadMode();
+                        world.player.addThought("* sigh *");
+                    }
+                };
+                return new Script()
+                        .setup(new Action() {
+                            @Override
+                            public void run(World world) {
+                                Gdx.gl.glClearColor(0f, 0f, 0f, 1f);
+                                world.loadMap(world.phase.mapName);
+
+                                PlayerGoomba player = arrive(world, 20, 2);
+                                player.canJump = false;
+                                player.canRight = false;
+                                player.setWounded();
+                                Tween.to(player.getBounds(), X, EntityBase.PIPEDELAY)
+                                     .target(player.getBounds().x - 1f)
+                                     .ease(Linear.INOUT)
+                                     .start(world.tweens);
+                            }
+                        }, Actions.say("ellipses", "notComingBack"))
+                        // Get into bed
+                        .whenPlayerEnters("bed").then(Actions.placePlayer(9.5f), Actions.moveDelay(1f), Actions.walkBy(Y, 1f, 1f))
+                        // Sleep... beautiful sleep
+                        .whenPlayerReady().then(Actions.moveDelay(2f), new Action() {
+                            @Override
+                            public void run(World world) {
+                                Tween.call(wakeUpAlone)
+                                     .delay(1.1f)
+                                     .setUserData(world)
+                                     .start(world.tweens);
+                            }
+                        }, Actions.cover(1, 1f, 0), Actions.cover(0, 1f, 1.5f))
+                        // Up and at-them
+                        .whenPlayerEnters("bedroom-door").then(Actions.moveDelay(EntityBase.PIPEDELAY), Actions.FADE_OUT,
+                                                  Actions.walkTo(X, -1f, EntityBase.PIPEDELAY),
+                                                  Actions.cover(0, EntityBase.PIPEDELAY, 0));
+            }
+
+            case GET_MUSHROOM: {
+                final TweenCallback grown = new TweenCallback() {
+                    @Override
+                    public void onEvent(int type, BaseTween<?> source) {
+                        PlayerGoomba player = ((World) source.getUserData()).player;
+                        player.smashedAnimation = Assets.goombaSmashedAnimation;
+                        player.setRageMode();
+                    }
+                };
+                return new Script()
+                        .setup(new Action() {
+                            @Override
+                            public void run(World world) {
+                                Gdx.gl.glClearColor(Assets.BLUE_SKY_R, Assets.BLUE_SKY_G, Assets.BLUE_SKY_B, 1);
+                                world.loadMap(world.phase.mapName);
+                                world.score = new Score("1-1");
+                                world.score.reset();
+
+                                arriveAtWork(world).setSadMode();
+                            }
+                        }, Actions.say("foremanLate"))
+                        .whenPlayerEnters("foreman-post").then(Actions.placePlayer(27), Actions.moveDelay(6), Actions.say("hereComesMario"))
+                        .whenDialogueDone().then(Actions.spawnMarioAI(10, 2, MarioAI.MISS_MUSHROOM), Actions.placePlayer(27), Actions.moveDelay(6))
+                        // Just picked up the Mushroom
+                        .whenPlayerRaged().then(Actions.sound(SoundManager.SoundOptions.GOOMBA_MUSHROOM_GET),
+                                                Actions.music(SoundManager.MusicOptions.MARIO_MAJOR_BK),
+                                                Actions.moveDelay(4f), Actions.cameraLock(false), new Action() {
+                            @Override
+                            public void run(World world) {
+                                PlayerGoomba player = world.player;
+                                player.smashedAnimation = player.standingAnimation = Assets.goombaGrowAnimation;
+                                player.stateTime = 0f;
+                                Timeline.createSequence()
+                                        .push(Tween.to(world.camera, CameraAccessor.XYZ, 2f)
+                                                   .target(player.getBounds().x + .5f, player.getBounds().y + .5f, .1f)
+                                                   .ease(Quad.OUT))
+                                        .pushPause(.5f)
+                                        .push(Tween.to(world.camera, CameraAccessor.XYZ, 1.5f)
+                                                   .target(world.cameraCenter.x, world.cameraCenter.y, 1)
+                                                   .ease(Quad.IN)
+                                                   .setUserData(world)
+                                                   .setCallback(grown))
+                                        .start(world.tweens);
+                            }
+                        })
+                        // Sparkle all the time until you can move again
+                        .whenPlayerReady().during(new Behavior() {
+                            @Override
+                            public void update(World world, float dt) {
+                                world.particles.addSparkles(world.player.getBounds());
+                            }
+                        }).then(Actions.cameraLock(true), Actions.say("gotMushroom1", "gotMushroom2", "gotMushroom3", "gotMushroom4"))
+                        .whenPlayerEnters("no-going-back").then(Actions.say("noGoingBack1", "noGoingBack2"))
+                        // Head to new world
+                        .whenPlayerEnters("world-pipe").then(Actions.placePlayer(1.7f), Actions.moveDelay(EntityBase.PIPEDELAY),
+                                                                Actions.pipeTo(Y, 3f, Actions.PHASE_DONE));
+            }
+
+            case INTO_THE_FACTORY: {
+                final Vector2 grinder = new Vector2(22.5f, 8.5f);
+                final TweenCallback grind = new TweenCallback() {
+                    @Override
+                    public void onEvent(int type, BaseTween<?> source) {
+                        World world = (World) source.getUserData();
+                        Rectangle bounds = world.fallingMario.getBounds();
+                        world.shake.shake(.5f);
+                        world.particles.addLargeBlood(grinder);
+                        Assets.soundManager.playSoundAt(SoundManager.SoundOptions.MARIO_RECLAIMATION,
+                                                        bounds.x, bounds.y);
+                    }
+                };
+                return new Script()
+                        .setup(new Action() {
+                            @Override
+                            public void run(World world) {
+                                Gdx.gl.glClearColor(0.25f, 0.25f, 0.25f, 1);
+                                world.score = new Score("F-B");
+                                world.loadMap(world.phase.mapName);
+                                Assets.soundManager.playMusic(SoundManager.MusicOptions.ZELDA_BK);
+
+                                PlayerGoomba player = arrive(world, 97, 2);
+                                player.setRageMode();
+                                TweenHelper.tweenPipeTravel(player, X, player.getBounds().x - 1f)
+                                           .start(world.tweens);
+
+                                world.fallingMario = new Mario(world, new Vector2(22.5f, 14));
+                                world.fallingMario.setDeadAnimations();
+                                world.fallingMario.moveDelay = 100000f;
+                                world.repeatingTween = Tween.to(world.fallingMario.getBounds(), Y, 2f)
+                                                            .target(7)
+                                                            .repeat(-1, 2)
+                                                            .ease(Expo.IN)
+                                                            .setUserData(world)
+                                                            .setCallback(grind)
+                                                            .setCallbackTriggers(TweenCallback.END)
+                                                            .start(world.tweens);
+                            }
+                        }, Actions.say("intoFactory", "factoryNoise"))
+                        .whenDialogueDone()
+                        .whenPlayerEnters("mario-screens").then(Actions.placePlayer(84f), Actions.say("marioScreenWTF"))
+                        .whenDialogueDone()
+                        .whenPlayerEnters("mario-tubes").then(Actions.placePlayer(45.5f), Actions.say("marioTubesWTF"))
+                        .whenDialogueDone()
+                        .whenPlayerEnters("grinder").then(Actions.placePlayer(22.5f), Actions.say("ellipses", "marioGrinderWTF"))
+                        .whenPlayerEnters("exit-pipe").then(Actions.placePlayer(2.5f, 4f), Actions.moveDelay(EntityBase.PIPEDELAY),
+                                                           Actions.KILL_REPEATING_TWEEN, Actions.FADE_OUT, Actions.pipeBy(Y, -1f));
+            }
+
+            case DEEP_FACTORY:
+                return new Script()
+                        .setup(new Action() {
+                            @Override
+                            public void run(World world) {
+                                Gdx.gl.glClearColor(0.25f, 0.25f, 0.25f, 1f);
+                                world.score = new Score("F-A");
+                                world.loadMap(world.phase.mapName);
+
+                                PlayerGoomba player = arrive(world, 97, 2);
+                                player.setRageMode();
+                                TweenHelper.tweenPipeTravel(player, X, player.getBounds().x - 1f)
+                                           .start(world.tweens);
+                            }
+                        })
+                        .whenPlayerEnters("exit-pipe").then(Actions.placePlayer(2.5f, 4f), Actions.moveDelay(EntityBase.PIPEDELAY),
+                                                           Actions.FADE_OUT, Actions.pipeBy(Y, -1f));
+
+            case CULT_ROOM:
+                return declareCultRoom();
+
+            case OVERWORLD_FIRST:
+                return new Script()
+                        .setup(new Action() {
+                            @Override
+                            public void run(World world) {
+                                Gdx.gl.glClearColor(Assets.BLUE_SKY_R - 0.1f, Assets.BLUE_SKY_G - 0.1f, Assets.BLUE_SKY_B - 0.1f, 1f);
+                                world.score = new Score("F-E");
+                                world.loadMap(world.phase.mapName);
+                                Assets.soundManager.playMusic(SoundManager.MusicOptions.MARIO_MAJOR_BK);
+
+                                new MarioSmart(world, new Vector2(75f, 3f));
+                                new MarioSmart(world, new Vector2(47f, 3f));
+                                new MarioSmart(world, new Vector2(17f, 10f));
+                                new MarioSmart(world, new Vector2(22, 3));
+                                new MarioSmart(world, new Vector2(3f, 3f));
+
+                                pipeIn(world, 97f, 2f, X, -1f, LEVEL_3_INTRO);
+                            }
+                        })
+                        .whenPlayerEnters("entrance").then(Actions.placePlayer(95.5f))
+                        // Pipe exit
+                        .whenPlayerEnters("exit-pipe").then(Actions.pipeBy(X, -1f, Actions.FADE_OUT_WHEN_DONE));
+
+            case UNDERWORLD:
+                return new Script()
+                        .setup(new Action() {
+                            @Override
+                            public void run(World world) {
+                                Gdx.gl.glClearColor(Assets.UNDERGROUND_R, Assets.UNDERGROUND_G, Assets.UNDERGROUND_B, 1f);
+                                world.score = new Score("F-F");
+                                world.loadMap(world.phase.mapName);
+                                Assets.soundManager.playMusic(SoundManager.MusicOptions.DNUORGREDNU);
+
+                                pipeIn(world, 97.5f, 7f, Y, -1f, LEVEL_2_INTRO);
+                            }
+                        })
+                        // Pipe exit
+                        .whenPlayerEnters("exit-pipe").then(Actions.pipeBy(X, -1f, Actions.FADE_OUT_WHEN_DONE));
+
+            case SHROOM_LAND:
+                return new Script()
+                        .setup(new Action() {
+                            @Override
+                            public void run(World world) {
+                                Gdx.gl.glClearColor(Assets.NIGHT_SKY_R + 0.2f, Assets.NIGHT_SKY_G + 0.2f, Assets.NIGHT_SKY_B + 0.2f, 1f);
+                                world.score = new Score("F-D");
+                                world.loadMap(world.phase.mapName);
+                                Assets.soundManager.playMusic(SoundManager.MusicOptions.MARIO_MAJOR_BK);
+
+                                new MarioSmart(world, new Vector2(72, 7));
+                                new MarioSmart(world, new Vector2(34, 10));
+                                new MarioSmart(world, new Vector2(4, 5));
+
+                                new MarioDumb(world, new Vector2(67, 6));
+                                new MarioDumb(world, new Vector2(43, 5));
+
+                                pipeIn(world, 97f, 2f, X, -1f, LEVEL_4_INTRO);
+                            }
+                        })
+                        .whenDialogueDone()
+                        .whenPlayerEnters("exit-pipe").then(Actions.moveDelay(EntityBase.PIPEDELAY), Actions.FADE_OUT, Actions.pipeBy(X, -1f));
+
+            case BRIDGES_TO_FACTORY:
+                return new Script()
+                        .setup(new Action() {
+                            @Override
+                            public void run(World world) {
+                                Gdx.gl.glClearColor(Assets.NIGHT_SKY_R, Assets.NIGHT_SKY_G, Assets.NIGHT_SKY_B, 1f);
+                                world.score = new Score("F-C");
+                                world.loadMap(world.phase.mapName);
+                                Assets.soundManager.playMusic(SoundManager.MusicOptions.ZELDA_BK);
+
+                                new MarioDumb(world, new Vector2(56, 5));
+                                new MarioDumb(world, new Vector2(35, 8));
+                                new MarioDumb(world, new Vector2(10, 2));
+
+                                new MarioSmart(world, new Vector2(76, 5));
+
+                                world.fireworkDelay = 0;
+                                pipeIn(world, 97f, 2f, X, -1f, LEVEL_5_INTRO);
+                            }
+                        })
+                        // Always be shooting fireworks
+                        .every(CASTLE_FIREWORKS)
+                        .whenDialogueDone()
+                        .whenPlayerEnters("castle").then(Actions.say("atCastle1", "atCastle2", "atCastle3"))
+                        .whenPlayerEnters("castle-door").then(Actions.moveDelay(EntityBase.PIPEDELAY), Actions.FADE_OUT,
+                                                           Actions.walkTo(X, 1f, EntityBase.PIPEDELAY));
+        }
+        throw new IllegalArgumentException("No script for " + phase);
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+
+    private static final TweenCallback LEVEL_2_INTRO = Actions.sayWhenDone("level2Intro");
+    private static final TweenCallback LEVEL_3_INTRO = Actions.sayWhenDone("level3Intro");
+    private static final TweenCallback LEVEL_4_INTRO = Actions.sayWhenDone("level4Intro");
+    private static final TweenCallback LEVEL_5_INTRO = Actions.sayWhenDone("level5Intro");
+
+    private static final Vector2[] FIREWORK_SPOTS  = {
+            new Vector2(4.1f, 11), new Vector2(2.1f, 11), new Vector2(5.1f, 9), new Vector2(6.1f, 7), new Vector2(4.1f, 7)
+    };
+    private static final float[]   FIREWORK_ANGLES = { 90, 90, 45, 30, 45 };
+
+    private static final Behavior CASTLE_FIREWORKS = new Behavior() {
+        @Override
+        public void update(World world, float dt) {
+            world.fireworkDelay -= dt;
+            if (world.fireworkDelay <= 0) {
+                world.fireworkDelay = .5f;
+                int rand = world.fx.random(FIREWORK_SPOTS.length - 1);
+                // The emitter moves the position it's given
+                world.particles.addFirework(FIREWORK_SPOTS[rand].cpy(), FIREWORK_ANGLES[rand]);
+            }
+        }
+    };
+
+    private static PlayerGoomba arrive(World world, float x, float y) {
+        world.player = new PlayerGoomba(world, new Vector2(x, y));
+        world.player.moveDelay = EntityBase.PIPEDELAY;
+        return world.player;
+    }
+
+    /**
+     * Up out of the pipe at the right end of level 1, facing left
+     */
+    private static PlayerGoomba arriveAtWork(World world) {
+        PlayerGoomba player = arrive(world, 33.5f, 3f);
+        player.canJump = false;
+        player.canRight = false;
+        TweenHelper.tweenPipeTravel(player, Y, player.getBounds().y + 1f)
+                   .start(world.tweens);
+        return player;
+    }
+
+    /**
+     * Enraged goomba comes out of a pipe and says his piece once he's out
+     */
+    private static void pipeIn(World world, float x, float y, int axis, float delta, TweenCallback intro) {
+        PlayerGoomba player = arrive(world, x, y);
+        player.setRageMode();
+        float from = (axis == X) ? x : y;
+        TweenHelper.tweenPipeTravel(player, axis, from + delta)
+                   .setUserData(world)
+                   .setCallback(intro)
+                   .start(world.tweens);
+    }
+
+    private static void leave(World world, EntityBase entity) {
+        Tween.to(entity.getBounds(), X, 4f)
+             .target(-1f)
+             .ease(Linear.INOUT)
+             .setUserData(entity)
+             .setCallback(Actions.KILL_ENTITY)
+             .start(world.tweens);
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+
+    private enum Cultist { GANON, KING_HIPPO, MOTHER_BRAIN, DRACULA, LUIGI, DR_WILY }
+
+    private static ChanterBase get(World world, Cultist cultist) {
+        switch (cultist) {
+            case GANON:        return world.ganon;
+            case KING_HIPPO:   return world.kingHippo;
+            case MOTHER_BRAIN: return world.motherBrain;
+            case DRACULA:      return world.dracula;
+            case LUIGI:        return world.luigi;
+            default:           return world.drWily;
+        }
+    }
+
+    /**
+     * Hand the chant over from one cultist to the next, null for nobody
+     */
+    private static Action passChant(final Cultist from, final Cultist to) {
+        return new Action() {
+            @Override
+            public void run(World world) {
+                if (from != null) get(world, from).chant(false);
+                if (to != null) get(world, to).chant(true);
+            }
+        };
+    }
+
+    private static void chantAll(World world, boolean withPlayer) {
+        for (Cultist cultist : Cultist.values()) {
+            get(world, cultist).addThought("LUDUM DARE");
+        }
+        if (withPlayer) world.player.addThought("LUDUM DARE");
+    }
+
+    private static final TweenCallback CULT_CHANT = new TweenCallback() {
+        @Override
+        public void onEvent(int type, BaseTween<?> source) {
+            chantAll((World) source.getUserData(), false);
+        }
+    };
+
+    private static final TweenCallback EVERYONE_CHANTS = new TweenCallback() {
+        @Override
+        public void onEvent(int type, BaseTween<?> source) {
+            chantAll((World) source.getUserData(), true);
+        }
+    };
+
+    private static final TweenCallback JOIN_THE_CHANT = new TweenCallback() {
+        @Override
+        public void onEvent(int type, BaseTween<?> source) {
+            World world = (World) source.getUserData();
+            chantAll(world, true);
+            world.repeatingTween = Tween.call(EVERYONE_CHANTS)
+                                        .delay(3.5f)
+                                        .repeat(-1, 3.5f)
+                                        .setUserData(world)
+                                        .start(world.tweens);
+        }
+    };
+
+    private static final TweenCallback CAPED = new TweenCallback() {
+        @Override
+        public void onEvent(int type, BaseTween<?> source) {
+            World world = (World) source.getUserData();
+            world.player.setCaped();
+            world.cape.dead = true;
+            world.player.getBounds().x = 0f;
+            world.player.getBounds().y = 2;
+            world.ganon.getBounds().x = 1.4f;
+            world.kingHippo.getBounds().x = 2.85f;
+            world.cameraLock = false;
+            world.camera.position.x = world.player.getBounds().x + 1.5f;
+            world.camera.position.y = world.player.getBounds().y + 1f;
+            world.camera.zoom = .1f;
+            world.cutscene.signal();
+        }
+    };
+
+    private static final TweenCallback CURTAIN_SETTLE = new TweenCallback() {
+        @Override
+        public void onEvent(int type, BaseTween<?> source) {
+            World world = (World) source.getUserData();
+            Tween.to(world.endCurtainFullY, -1, 0.35f)
+                 .target(8f)
+                 .ease(Sine.OUT)
+                 .setUserData(world)
+                 .setCallback(CURTAIN_DOWN)
+                 .start(world.tweens);
+        }
+    };
+
+    private static final TweenCallback CURTAIN_DOWN = new TweenCallback() {
+        @Override
+        public void onEvent(int type, BaseTween<?> source) {
+            World world = (World) source.getUserData();
+            world.endCurtainAnimationComplete = true;
+            world.cutscene.signal();
+        }
+    };
+
+    private static Script declareCultRoom() {
+        final TweenCallback cultEnter = Actions.sayWhenDone("cultFlavor", "cultEnter");
+        return new Script()
+                .setup(new Action() {
+                    @Override
+                    public void run(World world) {
+                        Gdx.gl.glClearColor(220f / 255f, 20f / 255f, 60f / 255f, 1f);
+                        Assets.soundManager.playMusic(SoundManager.MusicOptions.METRIOD_BK);
+                        world.loadMap(world.phase.mapName);
+
+                        // Spawn cultist members
+                        world.ganon       = new Ganon(world, new Vector2(0.5f, 2));
+                        world.kingHippo   = new KingHippo(world, new Vector2(2.5f, 2));
+                        world.motherBrain = new MotherBrain(world, new Vector2(6, 2));
+                        world.dracula     = new Dracula(world, new Vector2(13, 2));
+                        world.dracula.facesRight = true;
+                        world.luigi       = new Luigi(world, new Vector2(16, 2));
+                        world.luigi.facesRight = true;
+                        world.drWily      = new DrWily(world, new Vector2(18, 2));
+                        world.drWily.facesRight = true;
+                        world.cape        = new Cape(world, new Vector2(8, 2));
+
+                        world.capeFloatingTween = Tween.to(world.cape.getBounds(), Y, 1f)
+                                                       .target(4)
+                                                       .ease(Sine.INOUT)
+                                                       .repeatYoyo(-1, 0)
+                                                       .start(world.tweens);
+                        world.cape.moveDelay = 100000;
+
+                        chantAll(world, false);
+                        world.repeatingTween = Tween.call(CULT_CHANT)
+                                                    .delay(3.5f)
+                                                    .repeat(-1, 3.5f)
+                                                    .setUserData(world)
+                                                    .start(world.tweens);
+
+                        PlayerGoomba player = arrive(world, 17.5f, 7f);
+                        player.setRageMode();
+                        player.canJump = false;
+                        TweenHelper.tweenPipeTravel(player, Y, player.getBounds().y - 1f)
+                                   .setUserData(world)
+                                   .setCallback(cultEnter)
+                                   .start(world.tweens);
+                    }
+                })
+                .whenPlayerEnters("altar").then(new Action() {
+                    @Override
+                    public void run(World world) {
+                        world.kingHippo.chant(false);
+                        world.motherBrain.chant(false);
+                        world.dracula.chant(false);
+                        world.luigi.chant(false);
+                        world.drWily.chant(false);
+                        world.repeatingTween.kill();
+                    }
+                }, Actions.moveDelay(10000), Actions.say("cultCenter1"))
+                .whenDialogueDone().then(passChant(Cultist.GANON, Cultist.KING_HIPPO), Actions.say("cultCenter2"))
+                .whenDialogueDone().then(passChant(Cultist.KING_HIPPO, Cultist.MOTHER_BRAIN), Actions.say("cultCenter3"))
+                .whenDialogueDone().then(passChant(Cultist.MOTHER_BRAIN, Cultist.DRACULA), Actions.say("cultCenter4"))
+                .whenDialogueDone().then(passChant(Cultist.DRACULA, Cultist.LUIGI), Actions.say("cultCenter5"))
+                .whenDialogueDone().then(passChant(Cultist.LUIGI, Cultist.DR_WILY), Actions.say("cultCenter6"))
+                .whenDialogueDone().then(Actions.say("cultReflection1", "cultReflection2", "cultReflection3",
+                                             "cultReflection4", "cultReflection5", "cultReflection6"))
+                // Take up the cape
+                .whenDialogueDone().then(passChant(Cultist.DR_WILY, null), new Action() {
+                    @Override
+                    public void run(World world) {
+                        PlayerGoomba player = world.player;
+                        Cape cape = world.cape;
+                        cape.moveDelay = 10000;
+                        world.transitionColor.set(1, 1, 1, 0);
+                        world.capeFloatingTween.kill();
+                        Timeline.createSequence()
+                                .push(Tween.to(cape.getBounds(), Y, 1f)
+                                           .target(2))
+                                .beginParallel()
+                                    .push(Tween.to(player.getBounds(), Y, 2f)
+                                               .target(10))
+                                    .push(Tween.to(cape.getBounds(), Y, 2f)
+                                               .target(10))
+                                .end()
+                                .pushPause(.1f)
+                                .beginParallel()
+                                    .push(Tween.to(player.getBounds(), X, .5f)
+                                               .target(9)
+                                               .ease(Circ.INOUT)
+                                               .repeatYoyo(2, 0))
+                                    .push(Tween.to(cape.getBounds(), X, .5f)
+                                               .target(9)
+                                               .ease(Circ.INOUT)
+                                               .repeatYoyo(2, 0))
+                                .end()
+                                .beginParallel()
+                                    .push(Tween.to(player.getBounds(), X, .2f)
+                                               .target(10)
+                                               .ease(Circ.INOUT)
+                                               .repeatYoyo(10, 0))
+                                    .push(Tween.to(cape.getBounds(), X, .2f)
+                                               .target(8)
+                                               .ease(Circ.INOUT)
+                                               .repeatYoyo(10, 0))
+                                    .push(Tween.to(world.transitionColor, ColorAccessor.A, 2f)
+                                               .target(1))
+                                .end()
+                                .pushPause(.25f)
+                                .push(Tween.call(CAPED).setUserData(world))
+                                .pushPause(.5f)
+                                .push(Tween.to(world.transitionColor, ColorAccessor.A, 1f)
+                                           .target(0)
+                                           .ease(Linear.INOUT))
+                                .pushPause(.5f)
+                                .push(Tween.to(world.camera, CameraAccessor.XYZ, 2f)
+                                           .target(world.cameraCenter.x, world.cameraCenter.y, 1)
+                                           .ease(Linear.INOUT))
+                                .start(world.tweens);
+                    }
+                })
+                // Caped
+                .whenSignaled()
+                .after(5f).then(new Action() {
+                    @Override
+                    public void run(World world) {
+                        for (Cultist cultist : Cultist.values()) {
+                            get(world, cultist).chant(true);
+                        }
+                        Tween.call(JOIN_THE_CHANT)
+                             .delay(1.1f)
+                             .setUserData(world)
+                             .start(world.tweens);
+                    }
+                }, Actions.say("theEnd1"))
+                // Let's bring down the curtain
+                .after(2f).then(new Action() {
+                    @Override
+                    public void run(World world) {
+                        world.drawEndCurtain = true;
+                        world.endCurtainAnimationComplete = false;
+                        world.endCurtainBottomY = new MutableFloat(Config.height);
+                        world.endCurtainFullY = new MutableFloat(Config.height + 32f);
+
+                        // Tween both curtains down together, then bring the full one just a bit past the bottom
+                        Tween.to(world.endCurtainBottomY, -1, 3f)
+                             .target(-8f)
+                             .ease(Linear.INOUT)
+                             .start(world.tweens);
+                        Tween.to(world.endCurtainFullY, -1, 3f)
+                             .target(24f)
+                             .ease(Linear.INOUT)
+                             .setUserData(world)
+                             .setCallback(CURTAIN_SETTLE)
+                             .start(world.tweens);
+                    }
+                })
+                // Wait for the curtain to be fully done
+                .whenSignaled()
+                .whenDialogueDone().then(Actions.say("theEnd2"))
+                .whenDialogueDone().then(Actions.sayFinal("gameOver"));
+    }
+
+}
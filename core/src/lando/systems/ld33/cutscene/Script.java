@@ -0,0 +1,157 @@
+package lando.systems.ld33.cutscene;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+/**
+ * Declares a phase script as a list of steps, each a trigger followed by what to do when it fires:
+ *
+ * <pre>
+ * new Script()
+ *     .setup(arrive, Actions.say("foremanLate"))
+ *     .whenPlayerEnters("foreman-post").then(Actions.placePlayer(27), Actions.say("hereComesMario"))
+ *     .whenDialogueDone().then(spawnMario)
+ *     .compile();
+ * </pre>
+ */
+public class Script {
+
+    private static class Step {
+        final int    trigger;
+        final float  arg;
+        final String volume;
+        final Array<Action> actions = new Array<Action>();
+        Behavior during;
+
+        Step(int trigger, float arg, String volume) {
+            this.trigger = trigger;
+            this.arg = arg;
+            this.volume = volume;
+        }
+    }
+
+    private final Array<Step> steps;
+    private final Array<Action> setup;
+    private Behavior          every;
+
+    public Script() {
+        steps = new Array<Step>();
+        setup = new Array<Action>();
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Runs once when the phase starts, in order: map, entities, music, opening dialogue
+     */
+    public Script setup(Action... actions) {
+        for (Action action : actions) {
+            setup.add(action);
+        }
+        return this;
+    }
+
+    /**
+     * Runs every frame for the whole phase, before the current step is checked
+     */
+    public Script every(Behavior every) {
+        this.every = every;
+        return this;
+    }
+
+    public Script whenDialogueDone() {
+        return step(Cutscene.DIALOGUE_DONE, 0f, null);
+    }
+
+    /**
+     * Player is inside the trigger volume with this name on the phase's map,
+     * so it can be moved around in Tiled without touching the script
+     */
+    public Script whenPlayerEnters(String volume) {
+        return step(Cutscene.PLAYER_IN, 0f, volume);
+    }
+
+    public Script whenMarioAIDead() {
+        return step(Cutscene.MARIO_AI_DEAD, 0f, null);
+    }
+
+    public Script whenPlayerRaged() {
+        return step(Cutscene.PLAYER_RAGED, 0f, null);
+    }
+
+    public Script whenPlayerReady() {
+        return step(Cutscene.PLAYER_READY, 0f, null);
+    }
+
+    public Script whenSignaled() {
+        return step(Cutscene.SIGNALED, 0f, null);
+    }
+
+    public Script after(float seconds) {
+        return step(Cutscene.AFTER, seconds, null);
+    }
+
+    /**
+     * What the last declared step does when its trigger fires, in order
+     */
+    public Script then(Action... actions) {
+        Step step = last();
+        for (Action action : actions) {
+            step.actions.add(action);
+        }
+        return this;
+    }
+
+    /**
+     * Keep doing something every frame while the last declared step waits
+     */
+    public Script during(Behavior during) {
+        last().during = during;
+        return this;
+    }
+
+    public Cutscene compile() {
+        int count = steps.size;
+        int[] triggers = new int[count];
+        float[] args = new float[count];
+        String[] volumes = new String[count];
+        int[] firstAction = new int[count + 1];
+        Behavior[] during = new Behavior[count];
+
+        int actionCount = 0;
+        for (Step step : steps) {
+            actionCount += step.actions.size;
+        }
+        Action[] actions = new Action[actionCount];
+
+        int next = 0;
+        for (int i = 0; i < count; i++) {
+            Step step = steps.get(i);
+            triggers[i] = step.trigger;
+            args[i] = step.arg;
+            volumes[i] = step.volume;
+            during[i] = step.during;
+            firstAction[i] = next;
+            for (Action action : step.actions) {
+                actions[next++] = action;
+            }
+        }
+        firstAction[count] = next;
+
+        Action[] setupActions = setup.toArray(Action.class);
+        return new Cutscene(setupActions, every, triggers, args, volumes, firstAction, actions, during);
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+
+    private Script step(int trigger, float arg, String volume) {
+        steps.add(new Step(trigger, arg, volume));
+        return this;
+    }
+
+    private Step last() {
+        if (steps.size == 0) throw new GdxRuntimeException("Declare a trigger before what it does");
+        return steps.peek();
+    }
+
+}
@@ -3,13 +3,13 @@ package lando.systems.ld33.dialogue;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input;
 import com.badlogic.gdx.InputAdapter;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.GlyphLayout;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.utils.Array;
 import lando.systems.ld33.World;
 import lando.systems.ld33.utils.Assets;
+import lando.systems.ld33.utils.GameInput;
 
 /**
  * Author: Ian McNamara <ian.mcnamara@wisc.edu>
@@ -19,12 +19,12 @@ import lando.systems.ld33.utils.Assets;
 public class Dialogue extends InputAdapter {
 
     // FINAL
-    private static final Texture BLACK = new Texture("black.png");
     private static final float MARGIN = 32f;
     private static final float LINE_HEIGHT = 20f;
     private static final char SPACE = ' ';
     private static final float DEBOUNCE_TIME = .25f;
     private static final float BACKGROUND_ALPHA = 0.8f;
+    private static final String PRESS_ENTER = "PRESS ENTER...";
 
     // SETTINGS
     private static final boolean SHOW_PRESS_ENTER_DEFAULT = true;
@@ -58,7 +58,6 @@ public class Dialogue extends InputAdapter {
     private int currentMessageCharIndex;
     private Array<String> currentMessageLines;
     private GlyphLayout finalLayout = new GlyphLayout();
-    private static final GlyphLayout pressEnterLayout = new GlyphLayout(Assets.font8pt, "PRESS ENTER...");
     private GlyphLayout measuringLayout = new GlyphLayout();
 
     // Time Tracking
@@ -131,7 +130,7 @@ public class Dialogue extends InputAdapter {
         this.keyDeBounce = DEBOUNCE_TIME;
 
         // Measure out where the "press enter" will be placed
-        pressEnterX = fontDrawX + fontDrawWidth - pressEnterLayout.width;
+        pressEnterX = fontDrawX + fontDrawWidth - Assets.textCache.get(Assets.font8pt, PRESS_ENTER).width;
         pressEnterY = startY + MARGIN;
 
         // Times
@@ -167,38 +166,62 @@ public class Dialogue extends InputAdapter {
         this.isShown = false;
     }
 
+    /**
+     * Close whatever is showing without waiting on the player
+     */
+    public void clear() {
+        hide();
+        this.atEndOfMessage = false;
+        this.fastForward = false;
+    }
+
     public boolean isActive() {
         return (this.isShown && !this.isComplete);
     }
 
     // -----------------------------------------------------------------------------------------------------------------
 
+    /**
+     * Enter is the only key the box takes while it's up. The rest go on to the layers below,
+     * World.allowPolling keeps the goomba still meanwhile, and a direction held through the
+     * box still counts as held once it closes.
+     */
     @Override
     public boolean keyDown(int keycode) {
 
         // Don't block if we're hidden
-        if (!isShown) return false;
+        if (!isShown || keycode != Input.Keys.ENTER) return false;
+
+        GameInput.pressKey(keycode, GameInput.ADVANCE);
+        return true;
+
+    }
 
-        // Limit the rate at which we'll accept input, but still block
-        if (keyDeBounce > 0) return true;
+    @Override
+    public boolean keyUp(int keycode) {
+        if (keycode == Input.Keys.ENTER) GameInput.releaseKey(keycode);
+        return false;
+    }
+
+    /**
+     * Enter skips to the end of the message, or on to the next one once it's all out
+     */
+    private void advance() {
+
+        // Limit the rate at which we'll accept input
+        if (keyDeBounce > 0) return;
         // Reset the keyDeBounce timer
         keyDeBounce = DEBOUNCE_TIME;
 
-        // Listen for a specific key(s)
-        if (keycode == Input.Keys.ENTER) {
-            if (atEndOfMessage) {
-                if (!allowClose) return false;
-                // Get the next message going.
-                nextMessage();
-            } else {
-                // Fast forward to the end of the message.
-                this.fastForward = true;
-            }
+        if (atEndOfMessage) {
+            if (!allowClose) return;
+            // Get the next message going.
+            nextMessage();
+        } else {
+            // Fast forward to the end of the message.
+            this.fastForward = true;
         }
 
-        // Input handled.
-        return true;
-
     }
 
     // -----------------------------------------------------------------------------------------------------------------
@@ -296,15 +319,13 @@ public class Dialogue extends InputAdapter {
         if (this.isShown) {
 
             batch.setColor(1, 1, 1, BACKGROUND_ALPHA);
-            batch.draw(BLACK, this.startX, this.startY, this.width, this.height);
+            batch.draw(Assets.blackTexture, this.startX, this.startY, this.width, this.height);
             batch.setColor(1, 1, 1, 1);
 
             // If we're complete, show the "press enter"
             if (atEndOfMessage && showPressEnter) {
                 float pressEnterAlpha = Math.abs(MathUtils.sin(pressEnterTime * 2.5f));
-                Assets.font8pt.setColor(1, 1, 1, pressEnterAlpha);
-                Assets.font8pt.draw(batch, "PRESS ENTER...", pressEnterX, pressEnterY);
-                Assets.font8pt.setColor(1,1,1,1);
+                Assets.textCache.get(Assets.font8pt, PRESS_ENTER).draw(batch, pressEnterX, pressEnterY, pressEnterAlpha);
             }
 
             Assets.font.draw(batch, finalLayout, this.getFontDrawX(), this.getFontDrawY(0));
@@ -314,6 +335,7 @@ public class Dialogue extends InputAdapter {
     }
     public void update(float dt) {
 
+        if (isShown && GameInput.isPressed(GameInput.ADVANCE)) advance();
         keyDeBounce -= dt;
         if (atEndOfMessage) this.pressEnterTime += dt;
 
@@ -1,7 +1,5 @@
 package lando.systems.ld33.entities;
 
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.Input;
 import com.badlogic.gdx.math.Intersector;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
@@ -11,6 +9,7 @@ import lando.systems.ld33.entities.items.CoinItem;
 import lando.systems.ld33.entities.items.MushroomItem;
 import lando.systems.ld33.entities.mapobjects.ObjectBase;
 import lando.systems.ld33.utils.Assets;
+import lando.systems.ld33.utils.GameInput;
 import lando.systems.ld33.utils.GameText;
 import lando.systems.ld33.utils.SoundManager;
 
@@ -107,20 +106,20 @@ public class PlayerGoomba extends EntityBase {
 
         if (moveDelay <= 0 && world.allowPolling()) {
 
-            if ((Gdx.input.isKeyJustPressed(Input.Keys.SPACE) || Gdx.input.isKeyJustPressed(Input.Keys.W) || Gdx.input.isKeyJustPressed(Input.Keys.UP) )&& canJump && grounded) {
+            if (GameInput.isPressed(GameInput.JUMP) && canJump && grounded) {
                 velocity.y += jumpVelocity;
                 state = State.Jumping;
                 grounded = false;
                 Assets.soundManager.playSound(SoundManager.SoundOptions.GOOMBA_JUMP);
             }
 
-            if (Gdx.input.isKeyPressed(Input.Keys.LEFT) || Gdx.input.isKeyPressed(Input.Keys.A)) {
+            if (GameInput.isHeld(GameInput.LEFT)) {
                 velocity.x = -maxVelocity;
                 if (grounded) state = State.Walking;
                 facesRight = false;
             }
 
-            if ((Gdx.input.isKeyPressed(Input.Keys.RIGHT) || Gdx.input.isKeyPressed(Input.Keys.D)) && canRight) {
+            if (GameInput.isHeld(GameInput.RIGHT) && canRight) {
                 velocity.x = maxVelocity;
                 if (grounded) state = State.Walking;
                 facesRight = true;
@@ -140,7 +139,7 @@ public class PlayerGoomba extends EntityBase {
                 }
                 else if (entity instanceof CoinItem) {
                     if (!((CoinItem) entity).bouncer) {
-                        world.addCoin(-1, Vector2.Zero);
+                        world.addCoin(-1, bounds.x, bounds.y);
                         entity.dead = true;
                     }
                 }
@@ -1,15 +1,10 @@
 package lando.systems.ld33.entities.items;
 
-import aurelienribon.tweenengine.BaseTween;
-import aurelienribon.tweenengine.Tween;
-import aurelienribon.tweenengine.TweenCallback;
-import aurelienribon.tweenengine.equations.Linear;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import lando.systems.ld33.LudumDare33;
 import lando.systems.ld33.World;
-import lando.systems.ld33.accessors.RectangleAccessor;
 import lando.systems.ld33.utils.Assets;
 import lando.systems.ld33.utils.SoundManager;
+import lando.systems.ld33.utils.TweenHelper;
 
 /**
  * Brian Ploeckelman created on 8/22/2015.
@@ -32,17 +27,8 @@ public class CoinItem extends ItemEntity {
         if (bouncer) {
             drawOnTop = true;
             bounds.y += 1f;
-            Tween.to(bounds, RectangleAccessor.Y, 0.3f)
-                 .target(bounds.y + BOUNCE_HEIGHT)
-                 .repeatYoyo(1, 0f)
-                 .ease(Linear.INOUT)
-                 .setCallback(new TweenCallback() {
-                     @Override
-                     public void onEvent(int i, BaseTween<?> baseTween) {
-                         CoinItem.this.dead = true;
-                     }
-                 })
-                 .start(LudumDare33.tween);
+            TweenHelper.coinBounce(this, BOUNCE_HEIGHT)
+                       .start(world.tweens);
         }
     }
 
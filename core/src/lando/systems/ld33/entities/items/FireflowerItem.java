@@ -2,7 +2,6 @@ package lando.systems.ld33.entities.items;
 
 import aurelienribon.tweenengine.Tween;
 import aurelienribon.tweenengine.equations.Linear;
-import lando.systems.ld33.LudumDare33;
 import lando.systems.ld33.World;
 import lando.systems.ld33.accessors.RectangleAccessor;
 import lando.systems.ld33.utils.Assets;
@@ -22,7 +21,7 @@ public class FireflowerItem extends ItemEntity {
         Tween.to(bounds, RectangleAccessor.Y, 0.5f)
                 .target(py + 1f)
                 .ease(Linear.INOUT)
-                .start(LudumDare33.tween);
+                .start(world.tweens);
     }
 
     @Override
@@ -1,17 +1,12 @@
 package lando.systems.ld33.entities.mapobjects;
 
-import aurelienribon.tweenengine.BaseTween;
-import aurelienribon.tweenengine.Tween;
-import aurelienribon.tweenengine.TweenCallback;
-import aurelienribon.tweenengine.equations.Linear;
 import com.badlogic.gdx.graphics.g2d.Animation;
 import com.badlogic.gdx.math.Rectangle;
-import com.badlogic.gdx.math.Vector2;
-import lando.systems.ld33.LudumDare33;
 import lando.systems.ld33.World;
-import lando.systems.ld33.accessors.RectangleAccessor;
 import lando.systems.ld33.entities.items.*;
 import lando.systems.ld33.utils.Assets;
+import lando.systems.ld33.utils.PayloadCallback;
+import lando.systems.ld33.utils.TweenHelper;
 
 /**
  * Brian Ploeckelman created on 8/22/2015.
@@ -21,6 +16,14 @@ public class QuestionBlock extends ObjectBase {
     public static final float FRAME_DURATION = 0.105f;
     public static final float BOUNCE_OFFSET  = 0.4f;
 
+    // Change the keyframe to 'dead block' after the bounce finishes
+    private static final PayloadCallback<QuestionBlock> SPENT = new PayloadCallback<QuestionBlock>() {
+        @Override
+        protected void onEvent(QuestionBlock block) {
+            block.keyframe = Assets.deadQuestionBlockRegion;
+        }
+    };
+
     Animation           animation;
     float               stateTime;
     boolean             isUsed;
@@ -55,8 +58,7 @@ public class QuestionBlock extends ObjectBase {
         switch (spawnType) {
             default:
             case COIN:       item = new CoinItem(world, bounds.x, bounds.y);
-                             Vector2 dist = new Vector2(bounds.x - world.player.getBounds().x, bounds.y - world.player.getBounds().y);
-                             world.addCoin(1 * addScore, dist);
+                             world.addCoin(1 * addScore, bounds.x, bounds.y);
                         break;
             case MUSHROOM:   item = new MushroomItem(world, bounds.x, bounds.y); break;
             case FIREFLOWER: item = new FireflowerItem(world, bounds.x, bounds.y); break;
@@ -64,18 +66,10 @@ public class QuestionBlock extends ObjectBase {
         }
 
         // Bounce this question block
-        Tween.to(bounds, RectangleAccessor.XY, 0.175f)
-                 .target(bounds.x, bounds.y + BOUNCE_OFFSET)
-                .repeatYoyo(1, 0f)
-                .ease(Linear.INOUT)
-                .setCallback(new TweenCallback() {
-                    @Override
-                    public void onEvent(int i, BaseTween<?> baseTween) {
-                        // Change the keyframe to 'dead block' after tween finishes
-                        keyframe = Assets.deadQuestionBlockRegion;
-                    }
-                })
-                .start(LudumDare33.tween);
+        TweenHelper.blockBounce(bounds, BOUNCE_OFFSET)
+                .setUserData(this)
+                .setCallback(SPENT)
+                .start(world.tweens);
     }
 
 }
@@ -1,19 +1,16 @@
 package lando.systems.ld33.entities.mapobjects;
 
-import aurelienribon.tweenengine.BaseTween;
 import aurelienribon.tweenengine.Tween;
-import aurelienribon.tweenengine.TweenCallback;
 import com.badlogic.gdx.graphics.g2d.Animation;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
-import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
-import lando.systems.ld33.LudumDare33;
 import lando.systems.ld33.World;
 import lando.systems.ld33.entities.mario.MarioDumb;
 import lando.systems.ld33.entities.mario.MarioSmart;
 import lando.systems.ld33.utils.Assets;
+import lando.systems.ld33.utils.PayloadCallback;
 import lando.systems.ld33.utils.SoundManager;
 
 public class TubeObject extends ObjectBase {
@@ -44,6 +41,17 @@ public class TubeObject extends ObjectBase {
     boolean isBroken = false;
     boolean isExploding = false;
 
+    // Once the glass is done shattering, out comes Mario
+    private static final PayloadCallback<TubeObject> BREAK_OUT = new PayloadCallback<TubeObject>() {
+        @Override
+        protected void onEvent(TubeObject tube) {
+            tube.isExploding = false;
+
+            new MarioSmart(tube.world, new Vector2(tube.bounds.x + 1, tube.bounds.y),
+                 tube.contents == TubeContents.large);
+        }
+    };
+
     public TubeObject(World world, Rectangle bounds, TubeContents contents) {
         super(world, bounds);
         tubeAnimation = Assets.tubeEmptyAnimation;
@@ -54,7 +62,7 @@ public class TubeObject extends ObjectBase {
         } else {
             hasContents = false;
         }
-        stateTime = MathUtils.random(1f);
+        stateTime = world.fx.random(1f);
         touchDebounce = 0f;
     }
 
@@ -113,23 +121,16 @@ public class TubeObject extends ObjectBase {
         if(
             !isBroken &&
             (contents == TubeContents.small || contents == TubeContents.large) &&
-            MathUtils.random() >= .5f)
+            world.rng.random() >= .5f)
         {
             Assets.soundManager.playSound(SoundManager.SoundOptions.GLASS_JAR_BREAK);
             isExploding = true;
             stateTime = 0f;
             isBroken = true;
-            Tween.call(new TweenCallback() {
-                @Override
-                public void onEvent(int type, BaseTween<?> source) {
-                    isExploding = false;
-
-                    new MarioSmart(world, new Vector2(bounds.x + 1, bounds.y),
-                         contents == TubeContents.large);
-                }
-            })
-            .delay(.65f)
-            .start(LudumDare33.tween);
+            Tween.call(BREAK_OUT)
+                 .delay(.65f)
+                 .setUserData(this)
+                 .start(world.tweens);
         }
     }
 }
@@ -5,7 +5,6 @@ import aurelienribon.tweenengine.equations.Back;
 import com.badlogic.gdx.math.Intersector;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
-import lando.systems.ld33.LudumDare33;
 import lando.systems.ld33.World;
 import lando.systems.ld33.accessors.RectangleAccessor;
 import lando.systems.ld33.entities.EntityBase;
@@ -34,8 +33,7 @@ public class Mario extends EntityBase {
     public void jump(){
         if (!grounded) return;
         velocity.y = jumpVelocity;
-        Vector2 dist = new Vector2(bounds.x - world.player.getBounds().x, bounds.y - world.player.getBounds().y);
-        Assets.soundManager.playSound3D(SoundManager.SoundOptions.MARIO_JUMP, dist);
+        Assets.soundManager.playSoundAt(SoundManager.SoundOptions.MARIO_JUMP, bounds.x, bounds.y);
     }
 
     public void setDeadAnimations(){
@@ -83,8 +81,7 @@ public class Mario extends EntityBase {
                 }
                 else if (entity instanceof CoinItem) {
                     if (!((CoinItem) entity).bouncer) {
-                        Vector2 dist = new Vector2(bounds.x - world.player.getBounds().x, bounds.y - world.player.getBounds().y);
-                        world.addCoin(1, dist);
+                        world.addCoin(1, bounds.x, bounds.y);
                         entity.dead = true;
                     }
                 }
@@ -109,6 +106,6 @@ public class Mario extends EntityBase {
         Tween.to(bounds, RectangleAccessor.Y, 1f)
                 .target(-2)
                 .ease(Back.IN)
-                .start(LudumDare33.tween);
+                .start(world.tweens);
     }
 }
@@ -1,102 +1,110 @@
 package lando.systems.ld33.entities.mario;
 
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
 import com.badlogic.gdx.math.Vector2;
 import lando.systems.ld33.World;
+import lando.systems.ld33.utils.Assets;
+import lando.systems.ld33.utils.InputPlayback;
+import lando.systems.ld33.utils.InputRecorder;
+import lando.systems.ld33.utils.InputTrack;
 
 /**
  * Created by dsgraham on 8/22/15.
+ *
+ * Plays back a recorded run a tick at a time, pressing the same buttons a player
+ * would and leaving the rest to the usual physics.
  */
 public class MarioAI extends Mario {
 
+    public static final String GRAB_MUSHROOM = "tracks/grab-mushroom.track";
+    public static final String MISS_MUSHROOM = "tracks/miss-mushroom.track";
 
-    private int segment;
-    float delay;
+    // Physics steps at the track's rate, so a run plays out the same whatever the frame rate
+    public static final float TICK = 1f / InputTrack.TICK_RATE;
 
-    public MarioAI(World w, Vector2 pos) {
-        super(w, pos);
-        segment = 0;
-    }
+    // The next MarioAI is steered with J, L and I instead, and its run saved over its track when it dies
+    public static boolean recordNext;
 
-    public void update(float dt){
-        super.update(dt);
+    private final String        trackName;
+    private final InputPlayback playback;
+    private InputRecorder       recorder;
+    private boolean             waitingOnTrack;
+    private float               pendingTicks;
 
-        switch (world.phase){
-            case DAY_ONE:
-            case BACK_TO_WORK:
-                handleGrabMushroom(dt);
-                break;
-            case GET_MUSHROOM:
-                handleMissMushroom(dt);
-                break;
+    public MarioAI(World w, Vector2 pos, String trackName) {
+        super(w, pos);
+        this.trackName = trackName;
+        playback = new InputPlayback();
+        if (recordNext) {
+            recordNext = false;
+            // Steer from the track as it's recorded, so the run that's saved is the one that was played
+            recorder = new InputRecorder();
+            playback.start(recorder.getTrack());
+            Gdx.app.log("MarioAI", "Recording " + trackName);
+        } else {
+            startTrack();
         }
+    }
 
+    @Override
+    public void update(float dt) {
+        if (waitingOnTrack) startTrack();
+        if (recorder != null) recorder.record(readKeys(), dt);
+        pendingTicks += dt * InputTrack.TICK_RATE;
+        // Same slack as the recorder, so both count the same ticks in a frame
+        while (pendingTicks + 0.001f >= 1 && !dead) {
+            pendingTicks -= 1;
+            super.update(TICK);
+            playback.step();
+            press(playback.getHeld(), playback.getPressed());
+        }
+        if (dead && recorder != null) saveRecording();
+    }
 
+    public boolean isRecording() {
+        return recorder != null;
+    }
 
+    /**
+     * Write what's been recorded so far over the track, to be copied into the assets
+     */
+    public void saveRecording() {
+        if (recorder == null) return;
+        String text = "# Recorded at " + InputTrack.TICK_RATE + " ticks per second\n" + recorder.getTrack() + "\n";
+        Gdx.files.local(trackName).writeString(text, false, "UTF-8");
+        Gdx.app.log("MarioAI", "Saved " + recorder.getTrack().getLength() + " ticks to " + Gdx.files.local(trackName).path());
+        recorder = null;
     }
 
+    // -----------------------------------------------------------------------------------------------------------------
 
-    public void handleMissMushroom(float dt){
-        switch(segment) {
-            case 0:
-                if (bounds.x > 20 && bounds.x < 21) {
-                    jump();
-                }
-                if (bounds.x > 25.5f) {
-                    jump();
-                    segment++;
-                }
-                break;
-            case 1:
-                if (bounds.x > 31 && grounded){
-                    jump();
-                    segment++;
-                }
-        }
+    /**
+     * Tracks come in with the phase's manifest, one that's still queued leaves Mario
+     * standing until it's in rather than stalling the frame
+     */
+    private void startTrack() {
+        waitingOnTrack = !Assets.preloader.isLoaded(trackName, InputTrack.class);
+        if (!waitingOnTrack) playback.start(Assets.preloader.get(trackName, InputTrack.class));
     }
-    public void handleGrabMushroom(float dt){
-        switch(segment) {
-            case 0:
-                if (bounds.x > 20 && bounds.x < 21) {
-                    jump();
-                }
-                if (bounds.x > 25.5f) {
-                    jump();
-                    segment++;
-                }
-                break;
-            case 1:
-                if (bounds.x > 31 && grounded) {
-                    jump();
-                    dir = -1;
-                    segment++;
-                }
-                break;
-            case 2:
-                if (bounds.x < 27 && grounded){
-                    bounds.x = 27;
-                    segment++;
-                    dir = 0;
-                    jump();
-                    //delay = 1f;
-                }
-                break;
-            case 3:
-                if (grounded){
-                    delay -=dt;
-                    if (delay < 0) segment++;
-
-                }
-                break;
-            case 4:
-                if (grounded){
-                    dir = 1;
-                    if (bounds.x > 30){
-                        jump();
-                        segment++;
-                    }
-                }
-                break;
 
+    private void press(int held, int pressed) {
+        if ((held & InputTrack.RIGHT) != 0) {
+            dir = 1;
+        } else if ((held & InputTrack.LEFT) != 0) {
+            dir = -1;
+        } else {
+            dir = 0;
         }
+        if ((pressed & InputTrack.JUMP) != 0) jump();
     }
+
+    private static int readKeys() {
+        int bits = 0;
+        if (Gdx.input.isKeyPressed(Input.Keys.J)) bits |= InputTrack.LEFT;
+        if (Gdx.input.isKeyPressed(Input.Keys.L)) bits |= InputTrack.RIGHT;
+        if (Gdx.input.isKeyPressed(Input.Keys.I)) bits |= InputTrack.JUMP;
+        return bits;
+    }
+
 }
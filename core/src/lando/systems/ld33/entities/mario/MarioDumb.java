@@ -1,13 +1,14 @@
 package lando.systems.ld33.entities.mario;
 
-import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Vector2;
 import lando.systems.ld33.World;
+import lando.systems.ld33.utils.AIScheduler;
+import lando.systems.ld33.utils.NavGraph;
 
 /**
  * Created by dsgraham on 8/23/15.
  */
-public class MarioDumb extends Mario {
+public class MarioDumb extends Mario implements AIScheduler.Thinker {
 
     public MarioDumb(World w, Vector2 pos) {
         this(w, pos, false);
@@ -18,32 +19,17 @@ public class MarioDumb extends Mario {
         if(large) {
             growBig();
         }
+        w.ai.add(this);
     }
 
-    public void update(float dt){
-        super.update(dt);
-
+    @Override
+    public void think(float elapsed){
         //Lets keep it simple, only do smart things on the ground
         if (!grounded || moveDelay > 0) return;
 
-        // It's a pit
-        int startX = (int)(bounds.x +.5f);
-        int endX = (int)(bounds.x + .5f + dir);
-        int startY = (int)bounds.y -1;
-        int endY = startY + 2;
-        world.getTiles(startX, startY, endX, endY, tiles);
-        if (tiles.size == 0) {
+        // Pits, walls, anything but more floor
+        if (world.nav.edgeAhead(bounds.x, bounds.y, dir) != NavGraph.NONE) {
             dir *= -1;
-            return;
-        }
-
-        // It's a wall
-        startX = endX = (int)(bounds.x + .5f + (dir));
-        startY = (int)bounds.y;
-        endY = startY + 2;
-        world.getTiles(startX, startY, endX, endY, tiles);
-        if (tiles.size >= 1){
-                dir *= -1;
         }
     }
 }
@@ -1,16 +1,15 @@
 package lando.systems.ld33.entities.mario;
 
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.math.MathUtils;
-import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
 import lando.systems.ld33.World;
 import lando.systems.ld33.entities.PlayerGoomba;
+import lando.systems.ld33.utils.AIScheduler;
+import lando.systems.ld33.utils.NavGraph;
 
 /**
  * Created by dsgraham on 8/24/15.
  */
-public class MarioSmart extends Mario {
+public class MarioSmart extends Mario implements AIScheduler.Thinker {
     public MarioSmart(World w, Vector2 pos) {
         this(w, pos, false);
     }
@@ -21,50 +20,33 @@ public class MarioSmart extends Mario {
             growBig();
         }
         dir = .7f;
+        w.ai.add(this);
     }
 
-    public void update(float dt){
-        super.update(dt);
-
-        PlayerGoomba player = world.player;
-        Rectangle pRect = player.getBounds();
-
-
+    @Override
+    public void think(float elapsed){
         //Lets keep it simple, only do smart things on the ground
         if (!grounded || moveDelay > 0) return;
 
         // Kill the PLAYER!!
-        if (pRect.contains(new Vector2(bounds.x + .5f + (dir * 4) , bounds.y + .5f))){
+        PlayerGoomba player = world.player;
+        if (player != null && player.getBounds().contains(bounds.x + .5f + (dir * 4), bounds.y + .5f)) {
             jump();
+            return;
         }
 
-        // It's a pit
-        int startX = (int)(bounds.x +.5f);
-        int endX = (int)(bounds.x + .5f + dir);
-        int startY = (int)bounds.y -1;
-        int endY = startY + 2;
-        world.getTiles(startX, startY, endX, endY, tiles);
-        if (tiles.size == 0) {
-            if(MathUtils.random() < .7f){
-                dir *= -1;
-            } else {
+        switch (world.nav.edgeAhead(bounds.x, bounds.y, dir)) {
+            case NavGraph.STEP:
+            case NavGraph.GAP:
                 jump();
-            }
-        }
-
-
-        // It's a wall
-        startX = endX = (int)(bounds.x + .5f + (dir));
-        startY = (int)bounds.y;
-        endY = startY + 2;
-        world.getTiles(startX, startY, endX, endY, tiles);
-        if (tiles.size >= 1){
-            if(MathUtils.random() < .7f){
+                break;
+            case NavGraph.WALL:
+            case NavGraph.PIT:
                 dir *= -1;
-            } else {
-                jump();
-            }
+                break;
+            default:
+                // Floor, or a ledge that lands somewhere, keep walking
+                break;
         }
-
     }
 }
@@ -1,12 +1,10 @@
 package lando.systems.ld33.screens;
 
-import aurelienribon.tweenengine.BaseTween;
 import aurelienribon.tweenengine.Tween;
-import aurelienribon.tweenengine.TweenCallback;
+import aurelienribon.tweenengine.TweenManager;
 import aurelienribon.tweenengine.equations.Linear;
 import aurelienribon.tweenengine.equations.Sine;
 import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.Input;
 import com.badlogic.gdx.graphics.*;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.graphics.glutils.FrameBuffer;
@@ -14,7 +12,12 @@ import lando.systems.ld33.Config;
 import lando.systems.ld33.LudumDare33;
 import lando.systems.ld33.World;
 import lando.systems.ld33.accessors.ColorAccessor;
+import lando.systems.ld33.utils.AssetManifest;
 import lando.systems.ld33.utils.Assets;
+import lando.systems.ld33.utils.CachedText;
+import lando.systems.ld33.utils.FrameProfiler;
+import lando.systems.ld33.utils.GameInput;
+import lando.systems.ld33.utils.PayloadCallback;
 import lando.systems.ld33.utils.SoundManager;
 
 public class ChapterScreen extends LDScreen  {
@@ -27,6 +30,13 @@ public class ChapterScreen extends LDScreen  {
     private final static float TITLE_PAUSE = 4;
     private final static float FADE_OUT = 2;
 
+    private static final PayloadCallback<ChapterScreen> COMPLETE = new PayloadCallback<ChapterScreen>() {
+        @Override
+        protected void onEvent(ChapterScreen screen) {
+            screen.isComplete = true;
+        }
+    };
+
     private final static float TITLES_X = Config.width  * 0.25f;
     private final static float TITLES_W = Config.width  * 0.5f;
     private final static float TITLES_Y = Config.height * 0.25f;
@@ -44,7 +54,6 @@ public class ChapterScreen extends LDScreen  {
 
 //    private final static float CHAPTER_COVER_H = Config.height * 0.125f;
 
-    private static final Texture curtain = new Texture("chapters/chapter-curtains.png");
     private Texture titles;
 
     private static final OrthographicCamera uiCamera = new OrthographicCamera();
@@ -65,15 +74,19 @@ public class ChapterScreen extends LDScreen  {
     private Color coverAllColor;
     private Color promptPulse;
 
+    // Killed along with the screen, the prompt pulse never stops on its own
+    private TweenManager tweens;
+
     // -----------------------------------------------------------------------------------------------------------------
 
     public ChapterScreen(LudumDare33 game, int chapter) {
         super(game);
 
         this.chapter = chapter;
+        this.tweens = LudumDare33.tweens.get(this);
 
         uiCamera.setToOrtho(false, Config.width, Config.height);
-        sceneFrameBuffer = new FrameBuffer(Pixmap.Format.RGBA8888, Config.width, Config.height, false);
+        sceneFrameBuffer = Assets.resources.track(this, new FrameBuffer(Pixmap.Format.RGBA8888, Config.width, Config.height, false));
         sceneRegion = new TextureRegion(sceneFrameBuffer.getColorBufferTexture());
         sceneRegion.flip(false, true);
 
@@ -82,16 +95,16 @@ public class ChapterScreen extends LDScreen  {
         camera.update();
 
         if (chapter == 0) {
+            input.push(GameInput.menuBindings());
             Assets.soundManager.playMusic(SoundManager.MusicOptions.MARIO_MAJOR);
             titles = Assets.titleScreenTexture;
             promptPulse = new Color(1f, 0.6f, 0f, 1f);
             Tween.to(promptPulse, ColorAccessor.RGB, 0.33f)
                     .target(1f, 1f, 0f)
                     .repeatYoyo(-1, 0f)
-                    .start(LudumDare33.tween);
+                    .start(tweens);
         } else {
-            String titlesAsset = "chapters/chapter-" + String.valueOf(chapter) + ".png";
-            titles = new Texture(titlesAsset);
+            fetchTitles();
         }
 
         curtainAlpha = 0;
@@ -103,21 +116,21 @@ public class ChapterScreen extends LDScreen  {
                 .target(1f)
                 .ease(Linear.INOUT)
                 .delay(0f)
-                .start(LudumDare33.tween);
+                .start(tweens);
 
         chapterCoverColor = new Color(1, 1, 1, 1);
         Tween.to(chapterCoverColor, ColorAccessor.A, 1f)
                 .target(0f)
                 .ease(Sine.INOUT)
                 .delay(2f)
-                .start(LudumDare33.tween);
+                .start(tweens);
 
         titleCoverColor = new Color(1, 1, 1, 1);
         Tween.to(titleCoverColor, ColorAccessor.A, 2f)
                 .target(0f)
                 .ease(Sine.INOUT)
                 .delay(3f)
-                .start(LudumDare33.tween);
+                .start(tweens);
 
         if (chapter != 0) {
             coverAllColor = new Color(1, 1, 1, 0);
@@ -125,13 +138,9 @@ public class ChapterScreen extends LDScreen  {
                  .target(1f)
                  .ease(Sine.INOUT)
                  .delay(6f)
-                 .setCallback(new TweenCallback() {
-                     @Override
-                     public void onEvent(int i, BaseTween<?> baseTween) {
-                         isComplete = true;
-                     }
-                 })
-                 .start(LudumDare33.tween);
+                 .setUserData(this)
+                 .setCallback(COMPLETE)
+                 .start(tweens);
         }
 
         Gdx.gl.glClearColor(0f, 0f, 0f, 1f);
@@ -139,6 +148,17 @@ public class ChapterScreen extends LDScreen  {
 
     // -----------------------------------------------------------------------------------------------------------------
 
+    /**
+     * The story waits for the chapter's texture before showing it, but if it's still in the
+     * queue the curtain goes up without titles rather than stalling the frame
+     */
+    private void fetchTitles() {
+        String fileName = AssetManifest.chapterTexture(chapter);
+        if (Assets.preloader.isLoaded(fileName, Texture.class)) {
+            titles = Assets.preloader.get(fileName, Texture.class);
+        }
+    }
+
     private void renderChapter(float delta) {
         // Update the time
         time += delta;
@@ -148,25 +168,27 @@ public class ChapterScreen extends LDScreen  {
             batch.setColor(1f, 1f, 1f, 0.4f);
             batch.draw(Assets.blackTexture, 80f, 0, Gdx.graphics.getWidth() - 160f, 60f);
             batch.setColor(1f, 1f, 1f, 1f);
-            Assets.font.setColor(promptPulse);
-            Assets.font.draw(batch, "[WHITE]Press[] ENTER", 110f, 150f);
-            Assets.font.setColor(0f, 0f, 0f, 1f);
-            Assets.font.draw(batch, "Ludum Dare 33 - Jam Entry", 118f, 49f);
-            Assets.font.draw(batch, "  \"You are the monster\"", 118f, 23f);
-            Assets.font.setColor(1f, 1f, 1f, 1f);
-            Assets.font.draw(batch, "[WHITE]Ludum Dare 33[] - [YELLOW]Jam Entry[]", 115f, 53f);
-            Assets.font.draw(batch, "  [ORANGE]\"You are the monster\"[]", 115f, 25f);
-            Assets.font.setColor(1f, 1f, 1f, 1f);
+            // Only the ENTER part of the prompt pulses, so it gets tinted on its own
+            CachedText press = Assets.textCache.get(Assets.font, "[WHITE]Press[]");
+            press.draw(batch, 110f, 150f);
+            Assets.textCache.get(Assets.font, " ENTER").draw(batch, 110f + press.width, 150f, promptPulse);
+            Assets.textCache.get(Assets.font, "Ludum Dare 33 - Jam Entry", Color.BLACK).draw(batch, 118f, 49f);
+            Assets.textCache.get(Assets.font, "  \"You are the monster\"", Color.BLACK).draw(batch, 118f, 23f);
+            Assets.textCache.get(Assets.font, "[WHITE]Ludum Dare 33[] - [YELLOW]Jam Entry[]").draw(batch, 115f, 53f);
+            Assets.textCache.get(Assets.font, "  [ORANGE]\"You are the monster\"[]").draw(batch, 115f, 25f);
+            if (!Assets.isLoaded()) {
+                LoadingScreen.drawProgressBar(batch, Assets.getProgress(), 110f, 130f, Config.width - 220f, 4f);
+            }
             return;
         }
 
         // Draw the curtain
         batch.setColor(curtainColor);
-        batch.draw(curtain, 0, 0, Config.width, Config.height);
+        batch.draw(Assets.chapterCurtainTexture, 0, 0, Config.width, Config.height);
 
         // Draw the titles
         batch.setColor(1, 1, 1, 1);
-        batch.draw(titles, TITLES_X, TITLES_Y, TITLES_W, TITLES_H);
+        if (titles != null) batch.draw(titles, TITLES_X, TITLES_Y, TITLES_W, TITLES_H);
 
         // Draw the chapter cover
         batch.setColor(chapterCoverColor);
@@ -189,8 +211,8 @@ public class ChapterScreen extends LDScreen  {
     @Override
     public void update(float delta) {
         super.update(delta);
-        if (chapter == 0 &&
-            (Gdx.input.isKeyJustPressed(Input.Keys.ENTER) || Gdx.input.isKeyJustPressed(Input.Keys.SPACE))) {
+        if (titles == null) fetchTitles();
+        if (chapter == 0 && GameInput.isPressed(GameInput.START)) {
             isComplete = true;
         }
     }
@@ -204,14 +226,17 @@ public class ChapterScreen extends LDScreen  {
         {
             Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
             // Draw user interface stuff
+            FrameProfiler.begin(FrameProfiler.UI);
             batch.begin();
             batch.setProjectionMatrix(uiCamera.combined);
             renderChapter(delta);
             batch.end();
+            FrameProfiler.end(FrameProfiler.UI);
         }
         sceneFrameBuffer.end();
 
         // TODO: add default screen shader
+        FrameProfiler.begin(FrameProfiler.BLIT);
         batch.setShader(null);
         batch.begin();
         {
@@ -220,6 +245,7 @@ public class ChapterScreen extends LDScreen  {
             batch.draw(sceneRegion, 0, 0);
             batch.end();
         }
+        FrameProfiler.end(FrameProfiler.BLIT);
     }
 
     @Override
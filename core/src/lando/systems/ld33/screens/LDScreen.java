@@ -2,7 +2,6 @@ package lando.systems.ld33.screens;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input;
-import com.badlogic.gdx.InputMultiplexer;
 import com.badlogic.gdx.ScreenAdapter;
 import com.badlogic.gdx.graphics.Camera;
 import com.badlogic.gdx.graphics.OrthographicCamera;
@@ -11,6 +10,7 @@ import com.badlogic.gdx.math.Vector3;
 import lando.systems.ld33.Config;
 import lando.systems.ld33.LudumDare33;
 import lando.systems.ld33.utils.Assets;
+import lando.systems.ld33.utils.InputRouter;
 
 /**
  * Brian Ploeckelman created on 8/9/2015.
@@ -23,6 +23,8 @@ public abstract class LDScreen extends ScreenAdapter {
     protected Vector3            mouseScreenPos;
     protected Vector3            mouseWorldPos;
     protected OrthographicCamera camera;
+    // Subclasses push their layers once, it's installed whenever the screen is showing
+    protected final InputRouter  input;
 
     public LDScreen(LudumDare33 game) {
         this.game = game;
@@ -31,12 +33,17 @@ public abstract class LDScreen extends ScreenAdapter {
         mouseWorldPos = new Vector3();
         camera = new OrthographicCamera();
         camera.setToOrtho(false, Config.width, Config.height);
+        input = new InputRouter();
     }
 
     public void update(float delta) {
         if (Gdx.input.isKeyJustPressed(Input.Keys.ESCAPE)) {
             Gdx.app.exit();
         }
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F9)) {
+            Assets.resources.logReport(Assets.mgr);
+            LudumDare33.tweens.logReport();
+        }
         camera.update();
         updateMouseVectors(camera);
     }
@@ -52,6 +59,16 @@ public abstract class LDScreen extends ScreenAdapter {
 //        camera.update();
     }
 
+    @Override
+    public void show() {
+        enableInput();
+    }
+
+    @Override
+    public void hide() {
+        disableInput();
+    }
+
     @Override
     public void pause() {
         disableInput();
@@ -62,6 +79,16 @@ public abstract class LDScreen extends ScreenAdapter {
         enableInput();
     }
 
+    /**
+     * Releases everything the screen registered, subclasses call through after their own cleanup
+     */
+    @Override
+    public void dispose() {
+        disableInput();
+        Assets.resources.release(this);
+        LudumDare33.tweens.release(this);
+    }
+
     public abstract boolean isDone();
 
     public Vector3 getMouseWorldPos() {
@@ -85,13 +112,11 @@ public abstract class LDScreen extends ScreenAdapter {
     }
 
     protected void enableInput() {
-        final InputMultiplexer mux = new InputMultiplexer();
-        // TODO: add input processor(s) here
-        Gdx.input.setInputProcessor(mux);
+        input.install();
     }
 
     protected void disableInput() {
-        Gdx.input.setInputProcessor(null);
+        input.uninstall();
     }
 
 }
@@ -0,0 +1,57 @@
+package lando.systems.ld33.screens;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import lando.systems.ld33.Config;
+import lando.systems.ld33.LudumDare33;
+import lando.systems.ld33.utils.Assets;
+
+/**
+ * Bare bones progress bar, shown until the title screen assets are in
+ */
+public class LoadingScreen extends LDScreen {
+
+    private static final float BAR_W = Config.width * 0.5f;
+    private static final float BAR_H = 16f;
+    private static final float BAR_X = (Config.width - BAR_W) / 2f;
+    private static final float BAR_Y = (Config.height - BAR_H) / 2f;
+
+    public LoadingScreen(LudumDare33 game) {
+        super(game);
+        Gdx.gl.glClearColor(0f, 0f, 0f, 1f);
+    }
+
+    @Override
+    public void render(float delta) {
+        update(delta);
+
+        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+        batch.setProjectionMatrix(camera.combined);
+        batch.begin();
+        {
+            drawProgressBar(batch, Assets.getProgress(), BAR_X, BAR_Y, BAR_W, BAR_H);
+        }
+        batch.end();
+    }
+
+    @Override
+    public boolean isDone() {
+        return Assets.isTitleReady();
+    }
+
+    /**
+     * Outline plus fill, drawn with nothing but the white texture
+     */
+    static void drawProgressBar(SpriteBatch batch, float progress,
+                                float x, float y, float w, float h) {
+        batch.setColor(0.4f, 0.4f, 0.4f, 1f);
+        batch.draw(Assets.whiteTexture, x - 2, y - 2, w + 4, h + 4);
+        batch.setColor(0f, 0f, 0f, 1f);
+        batch.draw(Assets.whiteTexture, x, y, w, h);
+        batch.setColor(1f, 0.6f, 0f, 1f);
+        batch.draw(Assets.whiteTexture, x, y, w * progress, h);
+        batch.setColor(1f, 1f, 1f, 1f);
+    }
+
+}
@@ -1,7 +1,7 @@
 package lando.systems.ld33.screens;
 
 import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.InputMultiplexer;
+import com.badlogic.gdx.Input;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.Pixmap.Format;
@@ -10,7 +10,10 @@ import com.badlogic.gdx.graphics.glutils.FrameBuffer;
 import lando.systems.ld33.Config;
 import lando.systems.ld33.LudumDare33;
 import lando.systems.ld33.World;
+import lando.systems.ld33.entities.mario.MarioAI;
 import lando.systems.ld33.utils.Assets;
+import lando.systems.ld33.utils.FrameProfiler;
+import lando.systems.ld33.utils.GameInput;
 
 /**
  * Brian Ploeckelman created on 8/22/2015.
@@ -36,21 +39,47 @@ public class PrototypeScreen extends LDScreen {
         uiCamera = new OrthographicCamera();
         uiCamera.setToOrtho(false, Config.width, Config.height);
         uiCamera.update();
-        sceneFrameBuffer = new FrameBuffer(Format.RGBA8888, Config.width, Config.height, false);
+        sceneFrameBuffer = Assets.resources.track(this, new FrameBuffer(Format.RGBA8888, Config.width, Config.height, false));
         sceneRegion = new TextureRegion(sceneFrameBuffer.getColorBufferTexture());
         sceneRegion.flip(false, true);
 
+        // The dialogue box gets first say while it's up
+        input.push(GameInput.gameplayBindings());
+        input.push(world.dialogue);
+
 
 
 
 
+    }
+
+    /**
+     * Move on to another phase, keeping the world and the frame buffer from the last one
+     */
+    public void reset(World.Phase worldPhase) {
+        Gdx.gl.glClearColor(Assets.BLUE_SKY_R, Assets.BLUE_SKY_G, Assets.BLUE_SKY_B, 1f);
+        camera.setToOrtho(false, World.SCREEN_TILES_WIDE, World.SCREEN_TILES_HIGH);
+        camera.zoom = 1f;
+        camera.update();
+
+        world.reset(worldPhase);
     }
 
     @Override
     public void update(float delta) {
         world.update(delta);
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F9)) {
+            world.ai.logReport();
+        }
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F7)) {
+            if (world.marioAI != null && world.marioAI.isRecording()) {
+                world.marioAI.saveRecording();
+            } else {
+                MarioAI.recordNext = !MarioAI.recordNext;
+                Gdx.app.log("MarioAI", MarioAI.recordNext ? "Recording the next run" : "Not recording");
+            }
+        }
         super.update(delta);
-        enableInput();
     }
 
     @Override
@@ -65,16 +94,19 @@ public class PrototypeScreen extends LDScreen {
             world.render(batch);
 
             // Draw user interface stuff
+            FrameProfiler.begin(FrameProfiler.UI);
             batch.begin();
             batch.setProjectionMatrix(uiCamera.combined);
             world.renderUI(batch, uiCamera);
             // NOTE: we can fit 41 characters across the screen using the default 16pt font
 //            Assets.font.draw(batch, "This... is... GOOMBA!", 0, uiCamera.viewportHeight);
             batch.end();
+            FrameProfiler.end(FrameProfiler.UI);
         }
         sceneFrameBuffer.end();
 
         // TODO: add default screen shader
+        FrameProfiler.begin(FrameProfiler.BLIT);
         batch.setShader(null);
         batch.begin();
         {
@@ -84,32 +116,46 @@ public class PrototypeScreen extends LDScreen {
             batch.draw(sceneRegion, 0, 0);
             batch.end();
         }
+        FrameProfiler.end(FrameProfiler.BLIT);
     }
 
-    // ------------------------------------------------------------------------
-    // Accessors
-    // ------------------------------------------------------------------------
+    /**
+     * Leaving for a chapter, whatever the phase left running is of no use to the next one
+     */
+    @Override
+    public void hide() {
+        LudumDare33.tweens.kill(world);
+        super.hide();
+    }
 
     @Override
-    public boolean isDone() {
-        return world.done;
+    public void pause() {
+        super.pause();
+        LudumDare33.tweens.setPaused(world, true);
     }
 
-    // ------------------------------------------------------------------------
-    // Private Implementation
-    // ------------------------------------------------------------------------
+    @Override
+    public void resume() {
+        LudumDare33.tweens.setPaused(world, false);
+        super.resume();
+    }
 
     @Override
-    protected void enableInput() {
-        final InputMultiplexer mux = new InputMultiplexer();
-        // TODO: add any other input processors here as needed
-        mux.addProcessor(world.dialogue);
-        Gdx.input.setInputProcessor(mux);
+    public void dispose() {
+        world.dispose();
+        super.dispose();
     }
 
+    // ------------------------------------------------------------------------
+    // Accessors
+    // ------------------------------------------------------------------------
+
     @Override
-    protected void disableInput() {
-        Gdx.input.setInputProcessor(null);
+    public boolean isDone() {
+        return world.done;
     }
 
+    public World getWorld() {
+        return world;
+    }
 }
@@ -0,0 +1,137 @@
+package lando.systems.ld33.utils;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/**
+ * Runs AI decisions at their own rate, apart from the physics that carries them out.
+ *
+ * Entities keep moving every frame in update, but only change their minds when their
+ * think comes up. Thinks are staggered so a crowd spreads its decisions over the frames
+ * in between instead of all landing on the same one, and the time spent thinking is
+ * tracked per frame to size crowds against the frame budget.
+ */
+public class AIScheduler {
+
+    public interface Thinker {
+        /**
+         * @param elapsed seconds since this thinker last thought
+         */
+        void think(float elapsed);
+    }
+
+    // Decisions per second, fast enough that nothing walks a tile past a ledge before reacting
+    public static final float DEFAULT_RATE = 10f;
+    // For scripted AI that has to react on exactly the frame it reaches a spot
+    public static final float EVERY_TICK   = 0f;
+
+    // Fractional part of the golden ratio, consecutive multiples of it stay evenly spread over [0, 1)
+    private static final float STAGGER = 0.618034f;
+
+    public static class Stats {
+        public int   thinkers;
+        public int   thinksLastFrame;
+        public long  nanosLastFrame;
+        public long  peakNanos;
+        public long  thinksTotal;
+    }
+
+    public final Stats stats;
+
+    private final Array<Thinker> thinkers;
+    private final FloatArray     periods;
+    // Seconds until each thinker's next think, and since its last one
+    private final FloatArray     timers;
+    private final FloatArray     elapsed;
+    private int                  added;
+
+    public AIScheduler() {
+        stats = new Stats();
+        thinkers = new Array<Thinker>();
+        periods = new FloatArray();
+        timers = new FloatArray();
+        elapsed = new FloatArray();
+        added = 0;
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+
+    public void add(Thinker thinker) {
+        add(thinker, DEFAULT_RATE);
+    }
+
+    /**
+     * Start thinking a number of times per second, or every tick for {@link #EVERY_TICK}
+     */
+    public void add(Thinker thinker, float rate) {
+        float period = (rate <= 0) ? 0 : 1f / rate;
+        thinkers.add(thinker);
+        periods.add(period);
+        timers.add(period * ((added++ * STAGGER) % 1f));
+        elapsed.add(0);
+        stats.thinkers = thinkers.size;
+    }
+
+    public void remove(Thinker thinker) {
+        int i = thinkers.indexOf(thinker, true);
+        if (i == -1) return;
+        thinkers.removeIndex(i);
+        periods.removeIndex(i);
+        timers.removeIndex(i);
+        elapsed.removeIndex(i);
+        stats.thinkers = thinkers.size;
+    }
+
+    public void clear() {
+        thinkers.clear();
+        periods.clear();
+        timers.clear();
+        elapsed.clear();
+        added = 0;
+        stats.thinkers = 0;
+    }
+
+    /**
+     * Let whoever is due think, call once per frame after entities update
+     */
+    public void update(float dt) {
+        long start = TimeUtils.nanoTime();
+        int thinks = 0;
+        for (int i = 0; i < thinkers.size; i++) {
+            float timer = timers.get(i) - dt;
+            float since = elapsed.get(i) + dt;
+            if (timer <= 0) {
+                thinkers.get(i).think(since);
+                since = 0;
+                thinks++;
+                // A long frame doesn't build up a backlog of thinks
+                timer = Math.max(timer + periods.get(i), 0);
+            }
+            timers.set(i, timer);
+            elapsed.set(i, since);
+        }
+        long nanos = TimeUtils.nanoTime() - start;
+
+        stats.thinksLastFrame = thinks;
+        stats.nanosLastFrame = nanos;
+        stats.peakNanos = Math.max(stats.peakNanos, nanos);
+        stats.thinksTotal += thinks;
+    }
+
+    public float getLastFrameMillis() {
+        return stats.nanosLastFrame / 1000000f;
+    }
+
+    public String getReport() {
+        return "AI: " + stats.thinkers + " thinkers, " + stats.thinksLastFrame + " thought last frame in "
+             + getLastFrameMillis() + "ms (peak " + (stats.peakNanos / 1000000f) + "ms, "
+             + stats.thinksTotal + " total)";
+    }
+
+    public void logReport() {
+        Gdx.app.log("AI", getReport());
+    }
+
+}
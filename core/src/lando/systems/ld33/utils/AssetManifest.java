@@ -0,0 +1,148 @@
+package lando.systems.ld33.utils;
+
+import com.badlogic.gdx.utils.Array;
+import lando.systems.ld33.World;
+import lando.systems.ld33.entities.mario.MarioAI;
+
+/**
+ * Everything one step of the story needs loaded before it starts
+ */
+public class AssetManifest {
+
+    public final Array<String>                    maps;
+    public final Array<String>                    textures;
+    public final Array<SoundManager.MusicOptions> music;
+    // Effects worth having decoded before the step starts, anything else loads on first play
+    public final Array<SoundManager.SoundOptions> sounds;
+    public final Array<String>                    tracks;
+
+    public AssetManifest() {
+        maps = new Array<String>();
+        textures = new Array<String>();
+        music = new Array<SoundManager.MusicOptions>();
+        sounds = new Array<SoundManager.SoundOptions>();
+        tracks = new Array<String>();
+    }
+
+    public AssetManifest map(String fileName) {
+        maps.add(fileName);
+        return this;
+    }
+
+    public AssetManifest texture(String fileName) {
+        textures.add(fileName);
+        return this;
+    }
+
+    public AssetManifest music(SoundManager.MusicOptions musicOption) {
+        music.add(musicOption);
+        return this;
+    }
+
+    public AssetManifest sound(SoundManager.SoundOptions soundOption) {
+        if (!sounds.contains(soundOption, true)) sounds.add(soundOption);
+        return this;
+    }
+
+    public AssetManifest track(String fileName) {
+        tracks.add(fileName);
+        return this;
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+
+    public static String chapterTexture(int chapter) {
+        return "chapters/chapter-" + String.valueOf(chapter) + ".png";
+    }
+
+    public static AssetManifest forChapter(int chapter) {
+        AssetManifest manifest = new AssetManifest();
+        if (chapter == 0) {
+            // Title screen, its assets are loaded up front and never let go
+            return manifest;
+        }
+        return manifest.texture(chapterTexture(chapter));
+    }
+
+    public static AssetManifest forPhase(World.Phase phase) {
+        AssetManifest manifest = new AssetManifest().map(phase.mapName);
+        switch (phase) {
+            case DAY_ONE:
+            case BACK_TO_WORK:
+                manifest.track(MarioAI.GRAB_MUSHROOM);
+                break;
+            case EMPTY_HOUSE:
+                manifest.map("maps/inhome-bedroom-sad.ldmap")
+                        .music(SoundManager.MusicOptions.MARIO_MINOR);
+                break;
+            case GET_MUSHROOM:
+                manifest.track(MarioAI.MISS_MUSHROOM)
+                        .music(SoundManager.MusicOptions.MARIO_MAJOR_BK);
+                break;
+            case OVERWORLD_FIRST:
+            case SHROOM_LAND:
+                manifest.music(SoundManager.MusicOptions.MARIO_MAJOR_BK);
+                break;
+            case UNDERWORLD:
+                manifest.music(SoundManager.MusicOptions.DNUORGREDNU);
+                break;
+            case BRIDGES_TO_FACTORY:
+            case INTO_THE_FACTORY:
+                manifest.music(SoundManager.MusicOptions.ZELDA_BK);
+                break;
+            case CULT_ROOM:
+                manifest.music(SoundManager.MusicOptions.METRIOD_BK);
+                break;
+        }
+        addSoundHints(phase, manifest);
+        return manifest;
+    }
+
+    /**
+     * The effects each phase is known to play
+     */
+    private static void addSoundHints(World.Phase phase, AssetManifest manifest) {
+        // The player can always jump
+        manifest.sound(SoundManager.SoundOptions.GOOMBA_JUMP);
+        switch (phase) {
+            case DAY_ONE:
+            case BACK_TO_WORK:
+            case GET_MUSHROOM:
+            case OVERWORLD_FIRST:
+            case UNDERWORLD:
+            case SHROOM_LAND:
+            case BRIDGES_TO_FACTORY:
+                manifest.sound(SoundManager.SoundOptions.GOOMBA_SQUASH)
+                        .sound(SoundManager.SoundOptions.GOOMBA_2ND_CHANCE)
+                        .sound(SoundManager.SoundOptions.PIPE_TRAVEL)
+                        .sound(SoundManager.SoundOptions.COIN_GET)
+                        .sound(SoundManager.SoundOptions.MARIO_JUMP)
+                        .sound(SoundManager.SoundOptions.MARIO_DEATH);
+                break;
+            case INTO_THE_FACTORY:
+                manifest.sound(SoundManager.SoundOptions.PIPE_TRAVEL)
+                        .sound(SoundManager.SoundOptions.MARIO_RECLAIMATION);
+                break;
+            case DEEP_FACTORY:
+                manifest.sound(SoundManager.SoundOptions.SPIKE_STAB)
+                        .sound(SoundManager.SoundOptions.GLASS_JAR_BREAK)
+                        .sound(SoundManager.SoundOptions.GOOMBA_2ND_CHANCE);
+                break;
+        }
+        switch (phase) {
+            case GET_MUSHROOM:
+                manifest.sound(SoundManager.SoundOptions.MUSHROOM_REVEAL)
+                        .sound(SoundManager.SoundOptions.MUSHROOM_GET)
+                        .sound(SoundManager.SoundOptions.GOOMBA_MUSHROOM_GET);
+                break;
+            case OVERWORLD_FIRST:
+            case UNDERWORLD:
+            case SHROOM_LAND:
+            case BRIDGES_TO_FACTORY:
+                manifest.sound(SoundManager.SoundOptions.MUSHROOM_REVEAL)
+                        .sound(SoundManager.SoundOptions.MUSHROOM_GET);
+                break;
+        }
+    }
+
+}
@@ -0,0 +1,129 @@
+package lando.systems.ld33.utils;
+
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.audio.Music;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/**
+ * Keeps the assets for the current and upcoming story steps loaded, and nothing else.
+ *
+ * Each pinned file holds exactly one reference in the asset manager, so assets that
+ * are also loaded globally (or pinned for both steps) are only released once nobody
+ * needs them anymore.
+ */
+public class AssetPreloader {
+
+    private final AssetManager     assetManager;
+    private final SoundManager     soundManager;
+    private ObjectMap<String, Class<?>> pinned;
+    private ObjectMap<String, Class<?>> wanted;
+    private final Array<SoundManager.SoundOptions> hints;
+
+    public AssetPreloader(AssetManager assetManager, SoundManager soundManager) {
+        this.assetManager = assetManager;
+        this.soundManager = soundManager;
+        this.pinned = new ObjectMap<String, Class<?>>();
+        this.wanted = new ObjectMap<String, Class<?>>();
+        this.hints = new Array<SoundManager.SoundOptions>();
+    }
+
+    /**
+     * Start loading anything the current or next step needs, let go of everything else
+     */
+    public void prepare(AssetManifest current, AssetManifest next) {
+        wanted.clear();
+        hints.clear();
+        want(current);
+        want(next);
+        // Never pull the rug out from under music that can still be heard
+        for (SoundManager.MusicOptions playing : soundManager.getAudibleMusic()) {
+            for (String fileName : soundManager.getMusicFiles(playing)) {
+                wanted.put(fileName, Music.class);
+            }
+        }
+
+        for (ObjectMap.Entry<String, Class<?>> entry : wanted.entries()) {
+            if (!pinned.containsKey(entry.key)) {
+                assetManager.load(entry.key, entry.value);
+            }
+        }
+        for (ObjectMap.Entry<String, Class<?>> entry : pinned.entries()) {
+            if (!wanted.containsKey(entry.key)) {
+                assetManager.unload(entry.key);
+            }
+        }
+
+        // Effects are owned by the sound manager's cache, it only needs to know what's coming
+        soundManager.prewarmEffects(hints);
+
+        ObjectMap<String, Class<?>> swap = pinned;
+        pinned = wanted;
+        wanted = swap;
+    }
+
+    /**
+     * Make sure an asset is on its way, in case the look-ahead didn't ask for it
+     * @return true once it can be fetched with get
+     */
+    public boolean isLoaded(String fileName, Class<?> type) {
+        pin(fileName, type);
+        return assetManager.isLoaded(fileName, type);
+    }
+
+    /**
+     * Fetch an asset, check isLoaded first, this never waits on the loading queue
+     */
+    public <T> T get(String fileName, Class<T> type) {
+        pin(fileName, type);
+        return assetManager.get(fileName, type);
+    }
+
+    public boolean isReady(AssetManifest manifest) {
+        for (String fileName : manifest.maps) {
+            if (!assetManager.isLoaded(fileName)) return false;
+        }
+        for (String fileName : manifest.textures) {
+            if (!assetManager.isLoaded(fileName)) return false;
+        }
+        for (String fileName : manifest.tracks) {
+            if (!assetManager.isLoaded(fileName)) return false;
+        }
+        for (SoundManager.MusicOptions musicOption : manifest.music) {
+            if (!soundManager.isMusicLoaded(musicOption)) return false;
+        }
+        for (SoundManager.SoundOptions soundOption : manifest.sounds) {
+            if (!soundManager.isSoundLoaded(soundOption)) return false;
+        }
+        return true;
+    }
+
+    private void pin(String fileName, Class<?> type) {
+        if (pinned.containsKey(fileName)) return;
+        pinned.put(fileName, type);
+        assetManager.load(fileName, type);
+    }
+
+    private void want(AssetManifest manifest) {
+        for (String fileName : manifest.maps) {
+            wanted.put(fileName, TiledMap.class);
+        }
+        for (String fileName : manifest.textures) {
+            wanted.put(fileName, Texture.class);
+        }
+        for (String fileName : manifest.tracks) {
+            wanted.put(fileName, InputTrack.class);
+        }
+        for (SoundManager.MusicOptions musicOption : manifest.music) {
+            for (String fileName : soundManager.getMusicFiles(musicOption)) {
+                wanted.put(fileName, Music.class);
+            }
+        }
+        for (SoundManager.SoundOptions soundOption : manifest.sounds) {
+            if (!hints.contains(soundOption, true)) hints.add(soundOption);
+        }
+    }
+
+}
@@ -1,10 +1,14 @@
 package lando.systems.ld33.utils;
 
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
 import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.*;
 import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.GdxRuntimeException;
 import lando.systems.ld33.entities.mapobjects.QuestionBlock;
 
@@ -13,9 +17,15 @@ import lando.systems.ld33.entities.mapobjects.QuestionBlock;
  */
 public class Assets {
 
+    public static AssetManager mgr;
     public static SoundManager soundManager;
+    public static AssetPreloader preloader;
+    public static MapCache       mapCache;
+    public static PhaseStager    stager;
+    public static ResourceRegistry resources;
     public static SpriteBatch  batch;
     public static TextureAtlas atlas;
+    public static TextCache    textCache;
 
     public static BitmapFont font;
     public static BitmapFont font8pt;
@@ -27,6 +37,7 @@ public class Assets {
     public static Texture whiteTexture;
     public static Texture marioTilesetTexture;
     public static Texture titleScreenTexture;
+    public static Texture chapterCurtainTexture;
 
     public static TextureRegion sparkleTexture;
 
@@ -83,6 +94,10 @@ public class Assets {
     public static Animation luigiAnimation;
     public static Animation drWilyAnimation;
 
+    private static final Array<String> titleGroup = new Array<String>();
+    private static boolean titleReady;
+    private static boolean loaded;
+
     public static final float BLUE_SKY_R = 107f / 255f;
     public static final float BLUE_SKY_G = 140f / 255f;
     public static final float BLUE_SKY_B = 255f / 255f;
@@ -96,28 +111,122 @@ public class Assets {
     public static final float UNDERGROUND_B = 120f / 255f;
 
     public static void load() {
-        batch = new SpriteBatch();
+        resources = new ResourceRegistry();
+        // 1000 sprites of 20 vertex floats, plus 6 short indices each
+        batch = resources.track(ResourceRegistry.GLOBAL, new SpriteBatch(), "SpriteBatch", 1000 * 20 * 4 + 6000 * 2);
         GameText.load();
-        atlas = new TextureAtlas(Gdx.files.internal("sprites.atlas"));
 
-        font8pt = new BitmapFont(Gdx.files.internal("fonts/emulogic-8pt.fnt"));
-        font16pt = new BitmapFont(Gdx.files.internal("fonts/emulogic-16pt.fnt"));
-        font32pt = new BitmapFont(Gdx.files.internal("fonts/emulogic-32pt.fnt"));
+        mgr = new AssetManager();
+        mgr.setLoader(TiledMap.class, CompiledMapLoader.SUFFIX, new CompiledMapLoader(new InternalFileHandleResolver()));
+        mgr.setLoader(InputTrack.class, new InputTrackLoader(new InternalFileHandleResolver()));
+        soundManager = new SoundManager(mgr);
+        preloader = new AssetPreloader(mgr, soundManager);
+        mapCache = new MapCache(mgr, preloader);
+        stager = new PhaseStager(mgr, mapCache);
+
+        // The loading screen draws with this one, so it can't wait in line
+        mgr.load("white.png", Texture.class);
+        mgr.finishLoadingAsset("white.png");
+        whiteTexture = mgr.get("white.png", Texture.class);
+
+        // Everything the title screen needs goes in the queue first...
+        titleGroup.clear();
+        queueTitle("fonts/emulogic-8pt.fnt", BitmapFont.class);
+        queueTitle("fonts/emulogic-16pt.fnt", BitmapFont.class);
+        queueTitle("fonts/emulogic-32pt.fnt", BitmapFont.class);
+        queueTitle("black.png", Texture.class);
+        queueTitle("title-screen.png", Texture.class);
+        soundManager.queueMusic(SoundManager.MusicOptions.MARIO_MAJOR);
+
+        // ...and the rest finishes in the background while it is up
+        mgr.load("sprites.atlas", TextureAtlas.class);
+        mgr.load("badlogic.jpg", Texture.class);
+        mgr.load("maps/mario-tileset.png", Texture.class);
+        mgr.load("end-curtain-full.png", Texture.class);
+        mgr.load("end-curtain-bottom.png", Texture.class);
+        mgr.load("chapters/chapter-curtains.png", Texture.class);
+
+        titleReady = false;
+        loaded = false;
+    }
+
+    /**
+     * Pump the asset manager, call once per frame.
+     * @return true once every startup asset is loaded and set up
+     */
+    public static boolean update() {
+        // Keep pumping after the initial load, the preloader queues up more as the story goes
+        boolean done = mgr.update();
+        if (loaded) return true;
+
+        if (!titleReady && (done || isTitleGroupLoaded())) {
+            finishTitleGroup();
+        }
+        if (done) {
+            finishBackgroundGroup();
+        }
+        return loaded;
+    }
+
+    /**
+     * Block until everything queued so far is in, for when waiting a frame at a time won't do
+     */
+    public static void finishLoading() {
+        mgr.finishLoading();
+        update();
+    }
+
+    public static boolean isTitleReady() {
+        return titleReady;
+    }
+
+    public static boolean isLoaded() {
+        return loaded;
+    }
+
+    public static float getProgress() {
+        return mgr.getProgress();
+    }
+
+    private static void queueTitle(String fileName, Class<?> type) {
+        mgr.load(fileName, type);
+        titleGroup.add(fileName);
+    }
+
+    private static boolean isTitleGroupLoaded() {
+        for (int i = 0; i < titleGroup.size; i++) {
+            if (!mgr.isLoaded(titleGroup.get(i))) return false;
+        }
+        return soundManager.isMusicLoaded(SoundManager.MusicOptions.MARIO_MAJOR);
+    }
+
+    private static void finishTitleGroup() {
+        font8pt = mgr.get("fonts/emulogic-8pt.fnt", BitmapFont.class);
+        font16pt = mgr.get("fonts/emulogic-16pt.fnt", BitmapFont.class);
+        font32pt = mgr.get("fonts/emulogic-32pt.fnt", BitmapFont.class);
         font8pt.getData().markupEnabled = true;
         font16pt.getData().markupEnabled = true;
         font32pt.getData().markupEnabled = true;
 
         // Set the default font
         font = font16pt;
+        textCache = new TextCache();
 
-        testTexture = new Texture("badlogic.jpg");
-        blackTexture = new Texture("black.png");
-        whiteTexture = new Texture("white.png");
+        blackTexture = mgr.get("black.png", Texture.class);
+        titleScreenTexture = mgr.get("title-screen.png", Texture.class);
+
+        titleReady = true;
+    }
+
+    private static void finishBackgroundGroup() {
+        atlas = mgr.get("sprites.atlas", TextureAtlas.class);
+
+        testTexture = mgr.get("badlogic.jpg", Texture.class);
         testTextureRegion = new TextureRegion(testTexture, testTexture.getWidth(), testTexture.getHeight());
-        marioTilesetTexture = new Texture("maps/mario-tileset.png");
-        titleScreenTexture = new Texture("title-screen.png");
-        endCurtainFullTexture = new Texture("end-curtain-full.png");
-        endCurtainBottomTexture = new Texture("end-curtain-bottom.png");
+        marioTilesetTexture = mgr.get("maps/mario-tileset.png", Texture.class);
+        endCurtainFullTexture = mgr.get("end-curtain-full.png", Texture.class);
+        endCurtainBottomTexture = mgr.get("end-curtain-bottom.png", Texture.class);
+        chapterCurtainTexture = mgr.get("chapters/chapter-curtains.png", Texture.class);
 
         sparkleTexture = atlas.findRegion("sparkle");
 
@@ -288,21 +397,17 @@ public class Assets {
         drWilyAnimation      = new Animation(chantSpeed, drWilyRegion);
         drWilyAnimation.setPlayMode(Animation.PlayMode.LOOP);
 
-
-        soundManager = new SoundManager();
-
+        loaded = true;
     }
 
     public static void dispose() {
-        batch.dispose();
-        font8pt.dispose();
-        font16pt.dispose();
-        font32pt.dispose();
-        testTexture.dispose();
-        marioTilesetTexture.dispose();
-        titleScreenTexture.dispose();
-        atlas.dispose();
+        resources.releaseAll();
+        if (textCache != null) textCache.clear();
+        if (stager != null) stager.dispose();
+        if (mapCache != null) mapCache.clear();
         soundManager.dispose();
+        // Releases every texture, font, atlas and sound it loaded
+        mgr.dispose();
     }
 
     private static ShaderProgram compileShaderProgram(FileHandle vertSource, FileHandle fragSource) {
@@ -0,0 +1,69 @@
+package lando.systems.ld33.utils;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.BitmapFontCache;
+import com.badlogic.gdx.graphics.g2d.GlyphLayout;
+import com.badlogic.gdx.utils.Align;
+
+/**
+ * A piece of text that has already been laid out and turned into glyph vertices.
+ * Handed out by {@link TextCache}, callers only get to measure and draw it.
+ */
+public class CachedText {
+
+    private static final float WHITE_BITS = Color.WHITE.toFloatBits();
+    private static final Color tmp = new Color();
+
+    public final float width;
+    public final float height;
+    public final int   glyphCount;
+
+    private final BitmapFontCache fontCache;
+    private float tintBits;
+
+    CachedText(BitmapFont font, String text, Color color, float targetWidth) {
+        GlyphLayout layout = new GlyphLayout(font, text, color, targetWidth, Align.left, targetWidth > 0f);
+        fontCache = new BitmapFontCache(font, font.usesIntegerPositions());
+        fontCache.setText(layout, 0f, 0f);
+
+        int glyphs = 0;
+        for (int i = 0; i < layout.runs.size; i++) {
+            glyphs += layout.runs.get(i).glyphs.size;
+        }
+
+        this.width = layout.width;
+        this.height = layout.height;
+        this.glyphCount = glyphs;
+        this.tintBits = WHITE_BITS;
+    }
+
+    public void draw(Batch batch, float x, float y) {
+        draw(batch, x, y, 1f);
+    }
+
+    /**
+     * Fade through the tint rather than BitmapFontCache.draw(batch, alpha), that one leaves
+     * every glyph the cache's own color afterwards, losing the base and markup colors for
+     * everyone sharing this text
+     */
+    public void draw(Batch batch, float x, float y, float alpha) {
+        draw(batch, x, y, tmp.set(1f, 1f, 1f, alpha));
+    }
+
+    /**
+     * Draw with every glyph color multiplied by the tint, markup colors included.
+     * The colors are worked out again from the layout, so they all survive any tint.
+     */
+    public void draw(Batch batch, float x, float y, Color tint) {
+        float bits = tint.toFloatBits();
+        if (bits != tintBits) {
+            fontCache.tint(tint);
+            tintBits = bits;
+        }
+        fontCache.setPosition(x, y);
+        fontCache.draw(batch);
+    }
+
+}
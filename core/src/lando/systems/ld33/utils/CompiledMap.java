@@ -0,0 +1,23 @@
+package lando.systems.ld33.utils;
+
+import com.badlogic.gdx.maps.tiled.TiledMap;
+
+/**
+ * A map loaded from the binary format written by the desktop map compiler.
+ * Renders like any other tiled map, and carries the data the world would
+ * otherwise have to dig out of its layers.
+ */
+public class CompiledMap extends TiledMap {
+
+    public final MapCollision   collision;
+    public final MapObjectTable objects;
+    // Built along with the rest of the map, so it's off the render thread while loading
+    public final NavGraph       nav;
+
+    public CompiledMap(MapCollision collision, MapObjectTable objects) {
+        this.collision = collision;
+        this.objects = objects;
+        this.nav = new NavGraph(collision);
+    }
+
+}
@@ -0,0 +1,337 @@
+package lando.systems.ld33.utils;
+
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.AssetLoaderParameters;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.AsynchronousAssetLoader;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.assets.loaders.TextureLoader;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.TiledMapTileSet;
+import com.badlogic.gdx.maps.tiled.tiles.AnimatedTiledMapTile;
+import com.badlogic.gdx.maps.tiled.tiles.StaticTiledMapTile;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+
+/**
+ * Loads maps written by the desktop map compiler.
+ *
+ * File layout, big endian:
+ *   header     magic, version, width, height, tile width, tile height (ints)
+ *   strings    count (short), then each as a short byte length and UTF-8 bytes
+ *   tilesets   count (short), then per tileset: name, image (string indices),
+ *              first gid (int), tile width, tile height, spacing, margin (shorts),
+ *              animated tile count (short), then per animated tile: local id (int),
+ *              frame count (short), frames as local tile id and duration in ms (ints)
+ *   layers     count (short), then per layer: name (string index), visible (byte),
+ *              opacity (float), width, height (shorts), one gid per cell (ints),
+ *              rows top to bottom as Tiled stores them, flip flags in the top bits
+ *   collision  solid foreground cells as a bitset, word count (int) then words
+ *   objects    count (int), then per object: type code (byte), x, y, width,
+ *              height (floats), param (string index or -1)
+ *
+ * Version 2 added trigger objects, older files would leave story scripts waiting forever.
+ */
+public class CompiledMapLoader extends AsynchronousAssetLoader<TiledMap, CompiledMapLoader.Parameters> {
+
+    public static final int    MAGIC   = 0x4C444D50; // "LDMP"
+    public static final int    VERSION = 2;
+    public static final String SUFFIX  = ".ldmap";
+
+    // Flip flags Tiled packs into the top bits of a gid
+    public static final int FLIP_HORIZONTALLY = 0x80000000;
+    public static final int FLIP_VERTICALLY   = 0x40000000;
+    public static final int FLIP_DIAGONALLY   = 0x20000000;
+    public static final int MASK_CLEAR        = 0xE0000000;
+
+    public static class Parameters extends AssetLoaderParameters<TiledMap> {
+    }
+
+    /**
+     * How a map file gets into memory. The default reads it into a byte array,
+     * platforms that can map files straight into memory swap in their own.
+     */
+    public interface BufferSource {
+        ByteBuffer open(FileHandle file);
+    }
+
+    public static BufferSource bufferSource = new BufferSource() {
+        @Override
+        public ByteBuffer open(FileHandle file) {
+            return ByteBuffer.wrap(file.readBytes());
+        }
+    };
+
+    private ByteBuffer  buffer;
+    private FileHandle  directory;
+    private String[]    strings;
+    private int         tilesetsStart;
+    private CompiledMap map;
+
+    public CompiledMapLoader(FileHandleResolver resolver) {
+        super(resolver);
+    }
+
+    @Override
+    public Array<AssetDescriptor> getDependencies(String fileName, FileHandle file, Parameters parameter) {
+        buffer = bufferSource.open(file);
+        directory = file.parent();
+
+        if (buffer.getInt() != MAGIC) {
+            throw new GdxRuntimeException("Not a compiled map: " + fileName);
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new GdxRuntimeException("Compiled map " + fileName + " is version " + version
+                                        + ", expected " + VERSION + ", rerun the map compiler");
+        }
+        // Header sizes are read again when the map gets built
+        buffer.position(buffer.position() + 4 * 4);
+
+        strings = new String[buffer.getShort()];
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = readString();
+        }
+
+        // Only the images are needed now, the tilesets get read for real once they're loaded
+        tilesetsStart = buffer.position();
+        TextureLoader.TextureParameter textureParameter = new TextureLoader.TextureParameter();
+        textureParameter.minFilter = Texture.TextureFilter.Nearest;
+        textureParameter.magFilter = Texture.TextureFilter.Nearest;
+
+        Array<AssetDescriptor> dependencies = new Array<AssetDescriptor>();
+        int tilesetCount = buffer.getShort();
+        for (int i = 0; i < tilesetCount; i++) {
+            buffer.getShort();
+            FileHandle image = directory.child(strings[buffer.getShort()]);
+            dependencies.add(new AssetDescriptor<Texture>(image, Texture.class, textureParameter));
+            skipTilesetBody();
+        }
+        return dependencies;
+    }
+
+    @Override
+    public void loadAsync(AssetManager manager, String fileName, FileHandle file, Parameters parameter) {
+        buffer.position(8);
+        int width = buffer.getInt();
+        int height = buffer.getInt();
+        int tileWidth = buffer.getInt();
+        int tileHeight = buffer.getInt();
+
+        buffer.position(tilesetsStart);
+        int tilesetCount = buffer.getShort();
+        Array<Tileset> tilesets = new Array<Tileset>(tilesetCount);
+        for (int i = 0; i < tilesetCount; i++) {
+            tilesets.add(readTileset(manager));
+        }
+
+        int layerCount = buffer.getShort();
+        Array<TiledMapTileLayer> layers = new Array<TiledMapTileLayer>(layerCount);
+        for (int i = 0; i < layerCount; i++) {
+            layers.add(readLayer(tilesets, tileWidth, tileHeight));
+        }
+
+        int[] words = new int[buffer.getInt()];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = buffer.getInt();
+        }
+        MapCollision collision = new MapCollision(width, height, words);
+
+        MapObjectTable objects = new MapObjectTable(buffer.getInt());
+        for (int i = 0; i < objects.size; i++) {
+            MapObjectType type = MapObjectType.fromCode(buffer.get());
+            float x = buffer.getFloat();
+            float y = buffer.getFloat();
+            float w = buffer.getFloat();
+            float h = buffer.getFloat();
+            int param = buffer.getShort();
+            objects.set(i, type, x, y, w, h, (param >= 0) ? strings[param] : null);
+        }
+
+        map = new CompiledMap(collision, objects);
+        for (Tileset tileset : tilesets) {
+            map.getTileSets().addTileSet(tileset.tiles);
+        }
+        for (TiledMapTileLayer layer : layers) {
+            map.getLayers().add(layer);
+        }
+    }
+
+    @Override
+    public TiledMap loadSync(AssetManager manager, String fileName, FileHandle file, Parameters parameter) {
+        TiledMap loaded = map;
+        map = null;
+        buffer = null;
+        strings = null;
+        directory = null;
+        return loaded;
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+
+    private Tileset readTileset(AssetManager manager) {
+        Tileset tileset = new Tileset();
+        tileset.tiles.setName(strings[buffer.getShort()]);
+        tileset.texture = manager.get(directory.child(strings[buffer.getShort()]).path(), Texture.class);
+        tileset.firstGid = buffer.getInt();
+        tileset.tileWidth = buffer.getShort();
+        tileset.tileHeight = buffer.getShort();
+        tileset.spacing = buffer.getShort();
+        tileset.margin = buffer.getShort();
+        tileset.cut();
+        tileset.tiles.getProperties().put("firstgid", tileset.firstGid);
+
+        int animatedCount = buffer.getShort();
+        for (int i = 0; i < animatedCount; i++) {
+            int tileId = tileset.firstGid + buffer.getInt();
+            int frameCount = buffer.getShort();
+            IntArray intervals = new IntArray(frameCount);
+            Array<StaticTiledMapTile> frames = new Array<StaticTiledMapTile>(frameCount);
+            for (int f = 0; f < frameCount; f++) {
+                frames.add(tileset.getStaticTile(tileset.firstGid + buffer.getInt()));
+                intervals.add(buffer.getInt());
+            }
+            AnimatedTiledMapTile animatedTile = new AnimatedTiledMapTile(intervals, frames);
+            animatedTile.setId(tileId);
+            tileset.tiles.putTile(tileId, animatedTile);
+        }
+        return tileset;
+    }
+
+    private TiledMapTileLayer readLayer(Array<Tileset> tilesets, int tileWidth, int tileHeight) {
+        String name = strings[buffer.getShort()];
+        boolean visible = buffer.get() != 0;
+        float opacity = buffer.getFloat();
+        int width = buffer.getShort();
+        int height = buffer.getShort();
+
+        TiledMapTileLayer layer = new TiledMapTileLayer(width, height, tileWidth, tileHeight);
+        layer.setName(name);
+        layer.setVisible(visible);
+        layer.setOpacity(opacity);
+        for (int row = 0; row < height; row++) {
+            for (int x = 0; x < width; x++) {
+                int gid = buffer.getInt();
+                if (gid == 0) continue;
+                TiledMapTile tile = getTile(tilesets, gid & ~MASK_CLEAR);
+                if (tile == null) continue;
+                TiledMapTileLayer.Cell cell = createCell((gid & FLIP_HORIZONTALLY) != 0,
+                                                         (gid & FLIP_VERTICALLY) != 0,
+                                                         (gid & FLIP_DIAGONALLY) != 0);
+                cell.setTile(tile);
+                layer.setCell(x, height - 1 - row, cell);
+            }
+        }
+        return layer;
+    }
+
+    private TiledMapTile getTile(Array<Tileset> tilesets, int gid) {
+        for (int i = tilesets.size - 1; i >= 0; i--) {
+            Tileset tileset = tilesets.get(i);
+            if (gid < tileset.firstGid) continue;
+            TiledMapTile tile = tileset.tiles.getTile(gid);
+            if (tile == null) {
+                tile = tileset.getStaticTile(gid);
+                if (tile != null) tileset.tiles.putTile(gid, tile);
+            }
+            return tile;
+        }
+        return null;
+    }
+
+    /**
+     * Same mapping from Tiled's flip flags to cell flips and rotations as the TMX loader
+     */
+    private TiledMapTileLayer.Cell createCell(boolean flipHorizontally, boolean flipVertically, boolean flipDiagonally) {
+        TiledMapTileLayer.Cell cell = new TiledMapTileLayer.Cell();
+        if (flipDiagonally) {
+            if (flipHorizontally && flipVertically) {
+                cell.setFlipHorizontally(true);
+                cell.setRotation(TiledMapTileLayer.Cell.ROTATE_270);
+            } else if (flipHorizontally) {
+                cell.setRotation(TiledMapTileLayer.Cell.ROTATE_270);
+            } else if (flipVertically) {
+                cell.setRotation(TiledMapTileLayer.Cell.ROTATE_90);
+            } else {
+                cell.setFlipVertically(true);
+                cell.setRotation(TiledMapTileLayer.Cell.ROTATE_270);
+            }
+        } else {
+            cell.setFlipHorizontally(flipHorizontally);
+            cell.setFlipVertically(flipVertically);
+        }
+        return cell;
+    }
+
+    private void skipTilesetBody() {
+        // first gid, tile width, tile height, spacing, margin
+        buffer.position(buffer.position() + 4 + 2 * 4);
+        int animatedCount = buffer.getShort();
+        for (int i = 0; i < animatedCount; i++) {
+            buffer.getInt();
+            int frameCount = buffer.getShort();
+            buffer.position(buffer.position() + frameCount * 8);
+        }
+    }
+
+    private String readString() {
+        byte[] bytes = new byte[buffer.getShort()];
+        buffer.get(bytes);
+        try {
+            return new String(bytes, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new GdxRuntimeException(e);
+        }
+    }
+
+    /**
+     * A tileset whose tiles only get cut out of the image once a layer or animation uses them,
+     * most maps touch a small part of a big sheet
+     */
+    private static class Tileset {
+        final TiledMapTileSet tiles = new TiledMapTileSet();
+        Texture texture;
+        int firstGid;
+        int tileWidth;
+        int tileHeight;
+        int spacing;
+        int margin;
+        int columns;
+        StaticTiledMapTile[] staticTiles;
+
+        /**
+         * Work out the grid the same way the TMX loader walks the image
+         */
+        void cut() {
+            int stopWidth = texture.getWidth() - tileWidth;
+            int stopHeight = texture.getHeight() - tileHeight;
+            columns = (stopWidth < margin) ? 0 : (stopWidth - margin) / (tileWidth + spacing) + 1;
+            int rows = (stopHeight < margin) ? 0 : (stopHeight - margin) / (tileHeight + spacing) + 1;
+            staticTiles = new StaticTiledMapTile[columns * rows];
+        }
+
+        StaticTiledMapTile getStaticTile(int gid) {
+            int local = gid - firstGid;
+            if (local < 0 || local >= staticTiles.length) return null;
+            StaticTiledMapTile tile = staticTiles[local];
+            if (tile == null) {
+                int x = margin + (local % columns) * (tileWidth + spacing);
+                int y = margin + (local / columns) * (tileHeight + spacing);
+                tile = new StaticTiledMapTile(new TextureRegion(texture, x, y, tileWidth, tileHeight));
+                tile.setId(gid);
+                staticTiles[local] = tile;
+            }
+            return tile;
+        }
+    }
+
+}
@@ -0,0 +1,274 @@
+package lando.systems.ld33.utils;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.StringBuilder;
+import com.badlogic.gdx.utils.TimeUtils;
+import lando.systems.ld33.Config;
+
+/**
+ * Times the stages of a frame and keeps the last few seconds of them, for the overlay
+ * (F3) and to write out as CSV on exit.
+ *
+ * Stages nest, a stage's time includes the ones inside it. Render stages time handing
+ * sprites to the batch, which only draws on a flush, so they say where the CPU goes
+ * rather than the GPU. Switched off, begin and end return straight away.
+ */
+public class FrameProfiler {
+
+    public static final int STORY          = 0;
+    public static final int TWEENS         = 1;
+    public static final int SCREEN         = 2;
+    public static final int WORLD_UPDATE   = 3;
+    public static final int DIALOGUE       = 4;
+    public static final int PARTICLES      = 5;
+    public static final int SCORE          = 6;
+    public static final int ENTITIES       = 7;
+    public static final int AI             = 8;
+    public static final int MAP_OBJECTS    = 9;
+    public static final int SCRIPTS        = 10;
+    public static final int CAMERA         = 11;
+    public static final int WORLD_RENDER   = 12;
+    public static final int BACKGROUND     = 13;
+    public static final int DRAW_ENTITIES  = 14;
+    public static final int DRAW_OBJECTS   = 15;
+    public static final int DRAW_PARTICLES = 16;
+    public static final int FOREGROUND     = 17;
+    public static final int ON_TOP         = 18;
+    public static final int UI             = 19;
+    public static final int BLIT           = 20;
+    public static final int SOUND          = 21;
+    public static final int STAGES         = 22;
+
+    private static final String[] NAMES = {
+        "story", "tweens", "screen", "world update", "dialogue", "particles", "score", "entities", "ai",
+        "map objects", "scripts", "camera", "world render", "background", "entities", "objects", "particles",
+        "foreground", "on top", "ui", "blit", "sound"
+    };
+    private static final int[] PARENTS = {
+        -1, -1, -1, SCREEN, WORLD_UPDATE, WORLD_UPDATE, WORLD_UPDATE, WORLD_UPDATE, WORLD_UPDATE, WORLD_UPDATE,
+        WORLD_UPDATE, WORLD_UPDATE, SCREEN, WORLD_RENDER, WORLD_RENDER, WORLD_RENDER, WORLD_RENDER, WORLD_RENDER,
+        WORLD_RENDER, SCREEN, SCREEN, -1
+    };
+
+    // Stacked in the graph, together they cover the frame without counting anything twice
+    private static final int[]   GRAPHED = { STORY, TWEENS, WORLD_UPDATE, WORLD_RENDER, UI, BLIT, SOUND };
+    private static final Color[] COLORS  = {
+        new Color(0.9f, 0.3f, 0.9f, 1f), new Color(0.3f, 0.9f, 0.9f, 1f), new Color(0.3f, 0.9f, 0.3f, 1f),
+        new Color(0.3f, 0.5f, 1f, 1f), new Color(1f, 0.9f, 0.3f, 1f), new Color(1f, 0.5f, 0.2f, 1f),
+        new Color(1f, 0.3f, 0.3f, 1f)
+    };
+
+    // 10 seconds at 60 frames a second
+    public static final int HISTORY = 600;
+
+    public static boolean overlay;
+
+    private static boolean enabled;
+    // F3 lands mid frame, flipping the overlay waits for the next one to start
+    private static boolean toggleRequested;
+
+    private static final long[]    starts  = new long[STAGES];
+    private static final long[]    nanos   = new long[STAGES];
+    private static final float[][] history = new float[STAGES][HISTORY];
+    private static final float[]   frames  = new float[HISTORY];
+    private static int             head;
+    private static int             count;
+    private static long            frameStart;
+
+    private static final Matrix4       projection = new Matrix4();
+    private static final StringBuilder text       = new StringBuilder();
+
+    // -----------------------------------------------------------------------------------------------------------------
+
+    public static void begin(int stage) {
+        if (!enabled) return;
+        starts[stage] = TimeUtils.nanoTime();
+    }
+
+    public static void end(int stage) {
+        if (!enabled) return;
+        nanos[stage] += TimeUtils.nanoTime() - starts[stage];
+    }
+
+    public static void beginFrame() {
+        if (toggleRequested) {
+            toggleRequested = false;
+            overlay = !overlay;
+            setEnabled(overlay || Config.profileOutput != null);
+        }
+        if (!enabled) return;
+        frameStart = TimeUtils.nanoTime();
+    }
+
+    /**
+     * Push this frame's times into the history, a stage that didn't run this frame counts as 0
+     */
+    public static void endFrame() {
+        if (!enabled) return;
+        frames[head] = (TimeUtils.nanoTime() - frameStart) / 1e6f;
+        for (int i = 0; i < STAGES; i++) {
+            history[i][head] = nanos[i] / 1e6f;
+            nanos[i] = 0;
+        }
+        head = (head + 1) % HISTORY;
+        if (count < HISTORY) count++;
+    }
+
+    /**
+     * Show or hide the overlay from the next frame on, the profiler runs as long as the overlay is up
+     */
+    public static void toggleOverlay() {
+        toggleRequested = true;
+    }
+
+    /**
+     * Switching on starts from an empty history, nothing left over from the last time it ran
+     */
+    public static void setEnabled(boolean on) {
+        if (on && !enabled) {
+            for (int i = 0; i < STAGES; i++) {
+                starts[i] = 0;
+                nanos[i] = 0;
+                for (int f = 0; f < HISTORY; f++) history[i][f] = 0;
+            }
+            for (int f = 0; f < HISTORY; f++) frames[f] = 0;
+            head = 0;
+            count = 0;
+            frameStart = TimeUtils.nanoTime();
+        }
+        enabled = on;
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Per stage averages and maxes over the history, and a graph of the frames in it, most
+     * recent on the right. The line across the graph is a 60 fps frame.
+     */
+    public static void render(SpriteBatch batch) {
+        if (!overlay) return;
+        float graphX = 8f;
+        float graphY = 8f;
+        float graphH = 120f;
+        float scale = graphH / (1000f / 30f);
+
+        projection.setToOrtho2D(0, 0, Config.width, Config.height);
+        batch.setProjectionMatrix(projection);
+        batch.begin();
+        batch.setColor(0f, 0f, 0f, 0.6f);
+        batch.draw(Assets.whiteTexture, 0, 0, Config.width, graphY + graphH + 4f + (STAGES + 1) * 10f + 4f);
+
+        for (int f = 0; f < count; f++) {
+            int index = (head - count + f + HISTORY) % HISTORY;
+            float x = graphX + f * (Config.width - 2 * graphX) / HISTORY;
+            float w = Math.max(1f, (Config.width - 2 * graphX) / HISTORY);
+            batch.setColor(0.4f, 0.4f, 0.4f, 1f);
+            batch.draw(Assets.whiteTexture, x, graphY, w, Math.min(graphH, frames[index] * scale));
+            float y = graphY;
+            for (int g = 0; g < GRAPHED.length; g++) {
+                float h = Math.min(graphY + graphH - y, history[GRAPHED[g]][index] * scale);
+                if (h <= 0) break;
+                batch.setColor(COLORS[g]);
+                batch.draw(Assets.whiteTexture, x, y, w, h);
+                y += h;
+            }
+        }
+        batch.setColor(1f, 1f, 1f, 0.5f);
+        batch.draw(Assets.whiteTexture, graphX, graphY + (1000f / 60f) * scale, Config.width - 2 * graphX, 1f);
+        batch.setColor(Color.WHITE);
+
+        float y = graphY + graphH + 4f + (STAGES + 1) * 10f;
+        text.setLength(0);
+        text.append("frame  avg ");
+        appendMillis(average(frames));
+        text.append("  max ");
+        appendMillis(max(frames));
+        Assets.font8pt.draw(batch, text, graphX, y);
+        for (int i = 0; i < STAGES; i++) {
+            y -= 10f;
+            text.setLength(0);
+            for (int p = PARENTS[i]; p != -1; p = PARENTS[p]) {
+                text.append("  ");
+            }
+            text.append(NAMES[i]).append("  avg ");
+            appendMillis(average(history[i]));
+            text.append("  max ");
+            appendMillis(max(history[i]));
+            for (int g = 0; g < GRAPHED.length; g++) {
+                if (GRAPHED[g] == i) Assets.font8pt.setColor(COLORS[g]);
+            }
+            Assets.font8pt.draw(batch, text, graphX, y);
+            Assets.font8pt.setColor(Color.WHITE);
+        }
+        batch.end();
+    }
+
+    /**
+     * Write the history out as CSV, oldest frame first, in milliseconds
+     */
+    public static void export(FileHandle file) {
+        StringBuilder csv = new StringBuilder();
+        csv.append("frame");
+        for (int i = 0; i < STAGES; i++) {
+            csv.append(',');
+            appendPath(csv, i);
+        }
+        csv.append('\n');
+        for (int f = 0; f < count; f++) {
+            int index = (head - count + f + HISTORY) % HISTORY;
+            csv.append(frames[index]);
+            for (int i = 0; i < STAGES; i++) {
+                csv.append(',').append(history[i][index]);
+            }
+            csv.append('\n');
+        }
+        file.writeString(csv.toString(), false);
+        Gdx.app.log("FrameProfiler", "Wrote " + count + " frames to " + file.path());
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+
+    private static float average(float[] values) {
+        if (count == 0) return 0;
+        float total = 0;
+        for (int f = 0; f < count; f++) {
+            total += values[(head - count + f + HISTORY) % HISTORY];
+        }
+        return total / count;
+    }
+
+    private static float max(float[] values) {
+        float max = 0;
+        for (int f = 0; f < count; f++) {
+            max = Math.max(max, values[(head - count + f + HISTORY) % HISTORY]);
+        }
+        return max;
+    }
+
+    /**
+     * The stage's name under its parents', screen/world_update/ai
+     */
+    private static void appendPath(StringBuilder csv, int stage) {
+        if (PARENTS[stage] != -1) {
+            appendPath(csv, PARENTS[stage]);
+            csv.append('/');
+        }
+        csv.append(NAMES[stage].replace(' ', '_'));
+    }
+
+    /**
+     * Milliseconds to two places, without going through String.format
+     */
+    private static void appendMillis(float millis) {
+        int hundredths = Math.round(millis * 100f);
+        text.append(hundredths / 100).append('.');
+        int fraction = hundredths % 100;
+        if (fraction < 10) text.append('0');
+        text.append(fraction);
+    }
+
+}
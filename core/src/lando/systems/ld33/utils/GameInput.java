@@ -0,0 +1,248 @@
+package lando.systems.ld33.utils;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.InputAdapter;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.IntIntMap;
+import lando.systems.ld33.Config;
+
+/**
+ * The game's input for the current tick, taken once at the top of the frame so
+ * everything sees the same thing, and so a session can be recorded and played back.
+ *
+ * Key events come in through the screen's {@link InputRouter}, where {@link Bindings}
+ * layers turn them into actions and buffer them up for the next tick. A press that
+ * comes and goes within one frame still counts. Gameplay asks after actions instead
+ * of keys. Debug keys (escape, F7, F9) and the keys that steer a recording MarioAI
+ * are still read straight off Gdx.input.
+ *
+ * Waits on loading are recorded too, a replay holds for exactly the frames the
+ * recorded session held for, however fast this machine loads.
+ */
+public class GameInput {
+
+    // Actions
+    public static final int LEFT    = 1;
+    public static final int RIGHT   = 1 << 1;
+    public static final int JUMP    = 1 << 2;
+    public static final int ADVANCE = 1 << 3;
+    public static final int START   = 1 << 4;
+
+    // Flags
+    public static final int HOLD = 1;
+
+    private static final int ACTIONS = 5;
+
+    private static int held;
+    private static int pressed;
+    private static int flags;
+    private static int waits;
+
+    // Buffered from key events between ticks, a count per action since more than one key can hold it
+    private static final int[] down = new int[ACTIONS];
+    private static int         pending;
+    // The action each key that's down was counted for, a key up only lets go of what its own key down pressed
+    private static final IntIntMap keys = new IntIntMap();
+
+    private static InputSession.Recorder recorder;
+    private static InputSession.Replayer replayer;
+
+    // -----------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Start a new tick, from the keyboard or the session being replayed
+     * @return the frame delta to run the tick with, the recorded one on a replay
+     */
+    public static float update(float delta) {
+        flags = 0;
+        waits = 0;
+        if (replayer != null) {
+            if (replayer.next()) {
+                int state = replayer.getState();
+                held = InputSession.held(state);
+                pressed = InputSession.pressed(state);
+                pending = 0;
+                return replayer.getDelta();
+            }
+            Gdx.app.log("GameInput", "Replay finished after " + replayer.getTick() + " ticks, back to the keyboard");
+            replayer = null;
+            pending = 0;
+        }
+        held = 0;
+        for (int i = 0; i < ACTIONS; i++) {
+            if (down[i] > 0) held |= 1 << i;
+        }
+        pressed = pending;
+        pending = 0;
+        return delta;
+    }
+
+    /**
+     * Finish the tick, recording it if there's a recording going
+     */
+    public static void endTick(float delta) {
+        if (recorder != null) recorder.record(InputSession.pack(held, pressed, flags), delta);
+    }
+
+    public static boolean isHeld(int action) {
+        return (held & action) != 0;
+    }
+
+    public static boolean isPressed(int action) {
+        return (pressed & action) != 0;
+    }
+
+    /**
+     * Wait on something that takes however long it takes, loading mostly. A replay
+     * holds when the recording did, there can only be one of these a tick.
+     * @return true to hold this tick
+     */
+    public static boolean waitOn(boolean ready) {
+        if (waits++ > 0) throw new IllegalStateException("Only one wait a tick can be replayed");
+        boolean hold = !ready;
+        if (replayer != null) {
+            hold = (InputSession.flags(replayer.getState()) & HOLD) != 0;
+        }
+        if (hold) flags |= HOLD;
+        return hold;
+    }
+
+    /**
+     * Whether this tick is holding on a wait, until the next tick starts
+     */
+    public static boolean isHolding() {
+        return (flags & HOLD) != 0;
+    }
+
+    public static boolean isReplaying() {
+        return replayer != null;
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Record from here on, along with the seed the session's worlds are using
+     */
+    public static void record(FileHandle file) {
+        stop();
+        recorder = new InputSession.Recorder(file, Config.seed);
+        Gdx.app.log("GameInput", "Recording input to " + file.path());
+    }
+
+    /**
+     * Play a session back, taking its seed over for any world made after this
+     */
+    public static void replay(FileHandle file) {
+        stop();
+        replayer = new InputSession.Replayer(file);
+        Config.seed = replayer.getSeed();
+        Gdx.app.log("GameInput", "Replaying input from " + file.path() + " with seed " + Config.seed);
+    }
+
+    /**
+     * Stop recording or replaying, whatever's been recorded is written out
+     */
+    public static void stop() {
+        if (recorder != null) {
+            recorder.flush();
+            Gdx.app.log("GameInput", "Recorded " + recorder.getTicks() + " ticks");
+            recorder = null;
+        }
+        replayer = null;
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+
+    /**
+     * An action went down, it's pressed on the next tick and held until it's released
+     */
+    public static void press(int action) {
+        for (int i = 0; i < ACTIONS; i++) {
+            if ((action & (1 << i)) != 0) down[i]++;
+        }
+        pending |= action;
+    }
+
+    public static void release(int action) {
+        for (int i = 0; i < ACTIONS; i++) {
+            if ((action & (1 << i)) != 0 && down[i] > 0) down[i]--;
+        }
+    }
+
+    /**
+     * A key went down for an action, remembered so only its own key up releases it
+     */
+    public static void pressKey(int keycode, int action) {
+        if (keys.containsKey(keycode)) return;
+        keys.put(keycode, action);
+        press(action);
+    }
+
+    /**
+     * A key came up, releasing whatever its key down pressed, if anything heard that
+     */
+    public static void releaseKey(int keycode) {
+        if (!keys.containsKey(keycode)) return;
+        release(keys.remove(keycode, 0));
+    }
+
+    /**
+     * Forget every key that's down, for when key ups might not make it here
+     */
+    public static void releaseAll() {
+        for (int i = 0; i < ACTIONS; i++) {
+            down[i] = 0;
+        }
+        keys.clear();
+        pending = 0;
+    }
+
+    public static Bindings gameplayBindings() {
+        return new Bindings()
+            .bind(Input.Keys.LEFT,  LEFT)
+            .bind(Input.Keys.A,     LEFT)
+            .bind(Input.Keys.RIGHT, RIGHT)
+            .bind(Input.Keys.D,     RIGHT)
+            .bind(Input.Keys.SPACE, JUMP)
+            .bind(Input.Keys.W,     JUMP)
+            .bind(Input.Keys.UP,    JUMP);
+    }
+
+    public static Bindings menuBindings() {
+        return new Bindings()
+            .bind(Input.Keys.ENTER, START)
+            .bind(Input.Keys.SPACE, START);
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+
+    /**
+     * A router layer turning keys into actions, keys it doesn't know go on to the layers below
+     */
+    public static class Bindings extends InputAdapter {
+        private final IntIntMap actions = new IntIntMap();
+
+        public Bindings bind(int keycode, int action) {
+            actions.put(keycode, actions.get(keycode, 0) | action);
+            return this;
+        }
+
+        @Override
+        public boolean keyDown(int keycode) {
+            int action = actions.get(keycode, 0);
+            if (action == 0) return false;
+            pressKey(keycode, action);
+            return true;
+        }
+
+        @Override
+        public boolean keyUp(int keycode) {
+            int action = actions.get(keycode, 0);
+            if (action == 0) return false;
+            releaseKey(keycode);
+            return true;
+        }
+    }
+
+}
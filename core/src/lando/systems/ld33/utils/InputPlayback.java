@@ -0,0 +1,94 @@
+package lando.systems.ld33.utils;
+
+/**
+ * Plays an input track back, a tick at a time for things that step at the track's
+ * rate, or against real frame times.
+ *
+ * A frame covers however many ticks of the track fit in its delta, and inputs that went
+ * down on any of them count as pressed, so a one tick jump isn't skipped over by a long
+ * frame. Once the track runs out, the last input stays held. The track can still be
+ * growing while it plays, playback just waits on ticks that aren't there yet.
+ */
+public class InputPlayback {
+
+    private InputTrack track;
+    private int        run;
+    private int        tickInRun;
+    private int        played;
+    private float      elapsedTicks;
+    private int        held;
+    private int        pressed;
+
+    public InputPlayback() {
+        start(null);
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+
+    public void start(InputTrack track) {
+        this.track = track;
+        run = 0;
+        tickInRun = 0;
+        played = 0;
+        elapsedTicks = 0;
+        held = 0;
+        pressed = 0;
+    }
+
+    /**
+     * Move the track on by one tick
+     */
+    public void step() {
+        pressed = 0;
+        if (track != null && played < track.getLength()) play();
+    }
+
+    /**
+     * Move the track on by a frame
+     */
+    public void advance(float dt) {
+        pressed = 0;
+        if (track == null) return;
+        elapsedTicks += dt * InputTrack.TICK_RATE;
+        // A hair of slack so a run of exact 1/60 frames never lands a hair short of the next tick
+        int target = Math.min((int) (elapsedTicks + 0.001f), track.getLength());
+        while (played < target) {
+            play();
+        }
+    }
+
+    /**
+     * @return inputs held as of the latest tick played
+     */
+    public int getHeld() {
+        return held;
+    }
+
+    /**
+     * @return inputs that went down during the last frame
+     */
+    public int getPressed() {
+        return pressed;
+    }
+
+    public boolean isDone() {
+        return track == null || played == track.getLength();
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+
+    private void play() {
+        // Only move on to the next run once there's a tick to play from it, a growing track
+        // may still be adding to the last one
+        if (tickInRun == track.getRunTicks(run)) {
+            run++;
+            tickInRun = 0;
+        }
+        int bits = track.getRunBits(run);
+        pressed |= bits & ~held;
+        held = bits;
+        tickInRun++;
+        played++;
+    }
+
+}
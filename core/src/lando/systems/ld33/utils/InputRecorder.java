@@ -0,0 +1,46 @@
+package lando.systems.ld33.utils;
+
+/**
+ * Records input into a track at its tick rate from real frame times, the other half of
+ * {@link InputPlayback}. A press that comes and goes between two ticks still makes it in
+ * on the next one.
+ */
+public class InputRecorder {
+
+    private final InputTrack track;
+    private float            elapsedTicks;
+    private int              missed;
+
+    public InputRecorder() {
+        track = new InputTrack();
+        start();
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+
+    public void start() {
+        track.clear();
+        elapsedTicks = 0;
+        missed = 0;
+    }
+
+    /**
+     * Record a frame's worth of input held
+     */
+    public void record(int bits, float dt) {
+        elapsedTicks += dt * InputTrack.TICK_RATE;
+        int target = (int) (elapsedTicks + 0.001f);
+        if (track.getLength() == target) {
+            missed |= bits;
+            return;
+        }
+        track.add(bits | missed);
+        missed = 0;
+        track.add(bits, target - track.getLength());
+    }
+
+    public InputTrack getTrack() {
+        return track;
+    }
+
+}
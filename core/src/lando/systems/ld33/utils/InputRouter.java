@@ -0,0 +1,129 @@
+package lando.systems.ld33.utils;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.InputProcessor;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * A screen's input processors as a stack, set up once and installed while the screen shows.
+ *
+ * Events go to the top of the stack first and on down until something handles them,
+ * so a menu or a dialogue box pushed over gameplay gets first say. Key ups are the
+ * exception, every layer hears those so nothing is left held down when a layer that
+ * was pushed in the meantime would otherwise swallow them. A key up only lets go of
+ * what its own key down pressed, see {@link GameInput#pressKey(int, int)}.
+ */
+public class InputRouter implements InputProcessor {
+
+    private final Array<InputProcessor> layers;
+
+    public InputRouter() {
+        layers = new Array<InputProcessor>(true, 4, InputProcessor.class);
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+
+    public void push(InputProcessor layer) {
+        layers.add(layer);
+    }
+
+    public InputProcessor pop() {
+        return layers.pop();
+    }
+
+    public boolean remove(InputProcessor layer) {
+        return layers.removeValue(layer, true);
+    }
+
+    public InputProcessor peek() {
+        return layers.size == 0 ? null : layers.peek();
+    }
+
+    public void clear() {
+        layers.clear();
+    }
+
+    /**
+     * Start getting events, anything still counted as held from before starts over
+     */
+    public void install() {
+        if (Gdx.input.getInputProcessor() == this) return;
+        GameInput.releaseAll();
+        Gdx.input.setInputProcessor(this);
+    }
+
+    public void uninstall() {
+        if (Gdx.input.getInputProcessor() != this) return;
+        Gdx.input.setInputProcessor(null);
+        GameInput.releaseAll();
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+
+    @Override
+    public boolean keyDown(int keycode) {
+        // Walking down by index, a layer can pop itself or push another while handling an event
+        for (int i = layers.size - 1; i >= 0; i--) {
+            if (i < layers.size && layers.items[i].keyDown(keycode)) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean keyUp(int keycode) {
+        boolean handled = false;
+        for (int i = layers.size - 1; i >= 0; i--) {
+            if (i < layers.size && layers.items[i].keyUp(keycode)) handled = true;
+        }
+        return handled;
+    }
+
+    @Override
+    public boolean keyTyped(char character) {
+        for (int i = layers.size - 1; i >= 0; i--) {
+            if (i < layers.size && layers.items[i].keyTyped(character)) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean touchDown(int screenX, int screenY, int pointer, int button) {
+        for (int i = layers.size - 1; i >= 0; i--) {
+            if (i < layers.size && layers.items[i].touchDown(screenX, screenY, pointer, button)) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean touchUp(int screenX, int screenY, int pointer, int button) {
+        for (int i = layers.size - 1; i >= 0; i--) {
+            if (i < layers.size && layers.items[i].touchUp(screenX, screenY, pointer, button)) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean touchDragged(int screenX, int screenY, int pointer) {
+        for (int i = layers.size - 1; i >= 0; i--) {
+            if (i < layers.size && layers.items[i].touchDragged(screenX, screenY, pointer)) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean mouseMoved(int screenX, int screenY) {
+        for (int i = layers.size - 1; i >= 0; i--) {
+            if (i < layers.size && layers.items[i].mouseMoved(screenX, screenY)) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean scrolled(int amount) {
+        for (int i = layers.size - 1; i >= 0; i--) {
+            if (i < layers.size && layers.items[i].scrolled(amount)) return true;
+        }
+        return false;
+    }
+
+}
@@ -0,0 +1,193 @@
+package lando.systems.ld33.utils;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.NumberUtils;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A whole play session's input, one entry per tick, for replaying it exactly.
+ *
+ * File layout, big endian:
+ *   header  magic, version (ints), the session's random seed (long)
+ *   runs    until the end of the file, each the tick's state (varint), its frame
+ *           delta (float), and how many ticks in a row had both (varint)
+ *
+ * A tick's state packs the actions held, the actions pressed that tick, and the
+ * {@link GameInput} flags, see {@link #pack(int, int, int)}. Holding still with a
+ * steady frame rate costs a handful of bytes however long it lasts.
+ */
+public class InputSession {
+
+    public static final int MAGIC   = 0x4C44494E; // "LDIN"
+    public static final int VERSION = 2;
+
+    public static int pack(int held, int pressed, int flags) {
+        return (held & 0xFF) | ((pressed & 0xFF) << 8) | ((flags & 0xFF) << 16);
+    }
+
+    public static int held(int state)    { return state & 0xFF; }
+    public static int pressed(int state) { return (state >>> 8) & 0xFF; }
+    public static int flags(int state)   { return (state >>> 16) & 0xFF; }
+
+    // -----------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Appends ticks to a session file as they happen, a run is written once it ends
+     */
+    public static class Recorder {
+        // Written out whenever this much has piled up, so a crash loses a second or so at most
+        private static final int FLUSH_BYTES = 256;
+
+        private final FileHandle file;
+        private final byte[]     buffer;
+        private int              size;
+        private int              runState;
+        private float            runDelta;
+        private int              runTicks;
+        private int              ticks;
+
+        public Recorder(FileHandle file, long seed) {
+            this.file = file;
+            this.buffer = new byte[FLUSH_BYTES + 16];
+            size = 0;
+            writeInt(MAGIC);
+            writeInt(VERSION);
+            writeInt((int) (seed >>> 32));
+            writeInt((int) seed);
+            file.writeBytes(buffer, 0, size, false);
+            size = 0;
+            runTicks = 0;
+            ticks = 0;
+        }
+
+        public void record(int state, float delta) {
+            ticks++;
+            if (runTicks > 0 && state == runState && NumberUtils.floatToIntBits(delta) == NumberUtils.floatToIntBits(runDelta)) {
+                runTicks++;
+                return;
+            }
+            endRun();
+            runState = state;
+            runDelta = delta;
+            runTicks = 1;
+        }
+
+        /**
+         * Write out everything recorded so far, the session can keep going after
+         */
+        public void flush() {
+            endRun();
+            runTicks = 0;
+            writeBuffer();
+        }
+
+        public int getTicks() {
+            return ticks;
+        }
+
+        private void endRun() {
+            if (runTicks == 0) return;
+            writeVarInt(runState);
+            writeInt(NumberUtils.floatToIntBits(runDelta));
+            writeVarInt(runTicks);
+            if (size >= FLUSH_BYTES) writeBuffer();
+        }
+
+        private void writeBuffer() {
+            if (size == 0) return;
+            file.writeBytes(buffer, 0, size, true);
+            size = 0;
+        }
+
+        private void writeInt(int value) {
+            buffer[size++] = (byte) (value >>> 24);
+            buffer[size++] = (byte) (value >>> 16);
+            buffer[size++] = (byte) (value >>> 8);
+            buffer[size++] = (byte) value;
+        }
+
+        private void writeVarInt(int value) {
+            while ((value & ~0x7F) != 0) {
+                buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[size++] = (byte) value;
+        }
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Reads a session back a tick at a time
+     */
+    public static class Replayer {
+        private final ByteBuffer buffer;
+        private final long       seed;
+        private int              state;
+        private float            delta;
+        private int              runLeft;
+        private int              tick;
+
+        public Replayer(FileHandle file) {
+            buffer = ByteBuffer.wrap(file.readBytes());
+            if (buffer.remaining() < 8 || buffer.getInt() != MAGIC) {
+                throw new GdxRuntimeException(file.path() + " isn't a recorded input session");
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new GdxRuntimeException("Input session " + file.path() + " is version " + version
+                                            + ", expected " + VERSION);
+            }
+            seed = buffer.getLong();
+            runLeft = 0;
+            tick = 0;
+        }
+
+        /**
+         * Move on to the next tick
+         * @return false once the session has run out
+         */
+        public boolean next() {
+            if (runLeft == 0) {
+                if (!buffer.hasRemaining()) return false;
+                state = readVarInt();
+                delta = NumberUtils.intBitsToFloat(buffer.getInt());
+                runLeft = readVarInt();
+            }
+            runLeft--;
+            tick++;
+            return true;
+        }
+
+        public long getSeed() {
+            return seed;
+        }
+
+        public int getState() {
+            return state;
+        }
+
+        public float getDelta() {
+            return delta;
+        }
+
+        public int getTick() {
+            return tick;
+        }
+
+        private int readVarInt() {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = buffer.get();
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+    }
+
+}
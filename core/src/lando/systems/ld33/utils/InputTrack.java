@@ -0,0 +1,117 @@
+package lando.systems.ld33.utils;
+
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * Input held on each tick of a recording, at {@link #TICK_RATE} ticks per second.
+ *
+ * Stored as runs of the same input, and written out as text so recordings can be read
+ * and nudged by hand: a run is the letters of the inputs held, or '-' for none, then how
+ * many ticks it lasts. "R77 RJ1 R40" is 77 ticks of right, one of right and jump, then
+ * 40 more of right. Anything after a '#' on a line is a comment.
+ */
+public class InputTrack {
+
+    public static final int TICK_RATE = 60;
+
+    public static final int LEFT  = 1;
+    public static final int RIGHT = 1 << 1;
+    public static final int JUMP  = 1 << 2;
+
+    // Letter for each input bit, in bit order
+    private static final String LETTERS = "LRJ";
+
+    // Input then length, per run
+    private final IntArray runs;
+    private int            length;
+
+    public InputTrack() {
+        runs = new IntArray();
+        length = 0;
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Add one tick of input to the end
+     */
+    public void add(int bits) {
+        add(bits, 1);
+    }
+
+    public void add(int bits, int ticks) {
+        if (ticks <= 0) return;
+        int last = runs.size - 2;
+        if (last >= 0 && runs.get(last) == bits) {
+            runs.incr(last + 1, ticks);
+        } else {
+            runs.add(bits);
+            runs.add(ticks);
+        }
+        length += ticks;
+    }
+
+    public void clear() {
+        runs.clear();
+        length = 0;
+    }
+
+    /**
+     * @return how many ticks long the track is
+     */
+    public int getLength() {
+        return length;
+    }
+
+    public int getRunCount() {
+        return runs.size / 2;
+    }
+
+    public int getRunBits(int run) {
+        return runs.get(run * 2);
+    }
+
+    public int getRunTicks(int run) {
+        return runs.get(run * 2 + 1);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < runs.size; i += 2) {
+            if (i > 0) text.append(' ');
+            int bits = runs.get(i);
+            if (bits == 0) text.append('-');
+            for (int b = 0; b < LETTERS.length(); b++) {
+                if ((bits & (1 << b)) != 0) text.append(LETTERS.charAt(b));
+            }
+            text.append(runs.get(i + 1));
+        }
+        return text.toString();
+    }
+
+    public static InputTrack parse(String text) {
+        InputTrack track = new InputTrack();
+        for (String line : text.split("\n")) {
+            int comment = line.indexOf('#');
+            if (comment != -1) line = line.substring(0, comment);
+            for (String run : line.trim().split("\\s+")) {
+                if (run.length() == 0) continue;
+                int bits = 0;
+                int i = 0;
+                while (i < run.length() && !Character.isDigit(run.charAt(i))) {
+                    char c = run.charAt(i++);
+                    if (c == '-') continue;
+                    int b = LETTERS.indexOf(c);
+                    if (b == -1) throw new GdxRuntimeException("Unknown input '" + c + "' in track run " + run);
+                    bits |= 1 << b;
+                }
+                if (i == run.length()) throw new GdxRuntimeException("Track run " + run + " is missing its length");
+                track.add(bits, Integer.parseInt(run.substring(i)));
+            }
+        }
+        return track;
+    }
+
+}
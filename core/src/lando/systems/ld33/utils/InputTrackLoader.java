@@ -0,0 +1,33 @@
+package lando.systems.ld33.utils;
+
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.AssetLoaderParameters;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.assets.loaders.SynchronousAssetLoader;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Loads recorded input tracks, small enough to parse on the spot
+ */
+public class InputTrackLoader extends SynchronousAssetLoader<InputTrack, InputTrackLoader.Parameters> {
+
+    public static class Parameters extends AssetLoaderParameters<InputTrack> {
+    }
+
+    public InputTrackLoader(FileHandleResolver resolver) {
+        super(resolver);
+    }
+
+    @Override
+    public InputTrack load(AssetManager assetManager, String fileName, FileHandle file, Parameters parameter) {
+        return InputTrack.parse(file.readString("UTF-8"));
+    }
+
+    @Override
+    public Array<AssetDescriptor> getDependencies(String fileName, FileHandle file, Parameters parameter) {
+        return null;
+    }
+
+}
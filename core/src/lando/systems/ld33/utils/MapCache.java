@@ -0,0 +1,160 @@
+package lando.systems.ld33.utils;
+
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.maps.MapLayer;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/**
+ * Parsed maps and their collision data, shared by every world that uses them.
+ *
+ * Maps stay alive while a world holds a reference. Once released they are kept
+ * around so revisiting them skips parsing, until the least recently released
+ * ones have to go to stay under the memory budget.
+ */
+public class MapCache {
+
+    public static final int DEFAULT_BUDGET_BYTES = 1024 * 1024;
+
+    // Rough cost of a tile layer: a reference per slot plus a cell object per tile
+    private static final int BYTES_PER_SLOT = 4;
+    private static final int BYTES_PER_CELL = 24;
+
+    public static class Entry {
+        public final String       fileName;
+        public final CompiledMap  map;
+        public final MapCollision collision;
+
+        final int bytes;
+        int       refs;
+
+        Entry(String fileName, CompiledMap map) {
+            this.fileName = fileName;
+            this.map = map;
+            this.collision = map.collision;
+            this.bytes = sizeOf(map) + collision.getSizeBytes() + map.nav.getSizeBytes();
+            this.refs = 0;
+        }
+    }
+
+    private final AssetManager             assetManager;
+    private final AssetPreloader           preloader;
+    private final ObjectMap<String, Entry> entries;
+    private final Array<Entry>             idle;
+    private final int                      budgetBytes;
+    private int                            usedBytes;
+
+    public int hits;
+    public int misses;
+    public int evictions;
+
+    public MapCache(AssetManager assetManager, AssetPreloader preloader) {
+        this(assetManager, preloader, DEFAULT_BUDGET_BYTES);
+    }
+
+    public MapCache(AssetManager assetManager, AssetPreloader preloader, int budgetBytes) {
+        this.assetManager = assetManager;
+        this.preloader = preloader;
+        this.budgetBytes = budgetBytes;
+        this.entries = new ObjectMap<String, Entry>();
+        this.idle = new Array<Entry>();
+        this.usedBytes = 0;
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Get a map, parsing it only if it isn't cached. An uncached map has to be loaded already,
+     * check AssetPreloader.isLoaded. Every acquire needs a matching release.
+     */
+    public Entry acquire(String fileName) {
+        Entry entry = entries.get(fileName);
+        if (entry != null) {
+            hits++;
+            idle.removeValue(entry, true);
+        } else {
+            misses++;
+            if (!preloader.isLoaded(fileName, TiledMap.class)) {
+                throw new GdxRuntimeException("Map isn't loaded yet, wait on the preloader before acquiring: " + fileName);
+            }
+            TiledMap map = preloader.get(fileName, TiledMap.class);
+            if (!(map instanceof CompiledMap)) {
+                throw new GdxRuntimeException("Not a compiled map, run the desktop:maps task: " + fileName);
+            }
+            // Hold our own reference so the preloader letting go doesn't unload it
+            assetManager.load(fileName, TiledMap.class);
+            entry = new Entry(fileName, (CompiledMap) map);
+            entries.put(fileName, entry);
+            usedBytes += entry.bytes;
+        }
+        entry.refs++;
+        evict();
+        return entry;
+    }
+
+    public void release(Entry entry) {
+        if (entry.refs <= 0) return;
+        if (--entry.refs == 0) {
+            idle.add(entry);
+            evict();
+        }
+    }
+
+    /**
+     * Drop every map nobody holds anymore
+     */
+    public void clear() {
+        while (idle.size > 0) {
+            remove(idle.removeIndex(0));
+        }
+    }
+
+    public int size() {
+        return entries.size;
+    }
+
+    public int getUsedBytes() {
+        return usedBytes;
+    }
+
+    public int getBudgetBytes() {
+        return budgetBytes;
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+
+    private void evict() {
+        while (usedBytes > budgetBytes && idle.size > 0) {
+            remove(idle.removeIndex(0));
+            evictions++;
+        }
+    }
+
+    private void remove(Entry entry) {
+        entries.remove(entry.fileName);
+        usedBytes -= entry.bytes;
+        assetManager.unload(entry.fileName);
+    }
+
+    private static int sizeOf(TiledMap map) {
+        // Tileset textures are shared through the asset manager and not counted here
+        int bytes = 0;
+        for (MapLayer layer : map.getLayers()) {
+            if (!(layer instanceof TiledMapTileLayer)) continue;
+            TiledMapTileLayer tileLayer = (TiledMapTileLayer) layer;
+            int w = tileLayer.getWidth();
+            int h = tileLayer.getHeight();
+            bytes += w * h * BYTES_PER_SLOT;
+            for (int y = 0; y < h; y++) {
+                for (int x = 0; x < w; x++) {
+                    if (tileLayer.getCell(x, y) != null) bytes += BYTES_PER_CELL;
+                }
+            }
+        }
+        return bytes;
+    }
+
+}
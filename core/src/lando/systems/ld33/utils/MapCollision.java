@@ -0,0 +1,48 @@
+package lando.systems.ld33.utils;
+
+/**
+ * Which cells of a map are solid, worked out once from the foreground layer
+ * so collision checks don't have to go through the layer's cells.
+ *
+ * Rows run bottom to top, the same way tile layer cells are indexed.
+ */
+public class MapCollision {
+
+    public final int width;
+    public final int height;
+
+    private final int[] solid;
+
+    public MapCollision(int width, int height) {
+        this(width, height, new int[(width * height + 31) / 32]);
+    }
+
+    public MapCollision(int width, int height, int[] solid) {
+        this.width = width;
+        this.height = height;
+        this.solid = solid;
+    }
+
+    /**
+     * @return true if there is a foreground tile at the cell, anything off the map is open
+     */
+    public boolean isSolid(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) return false;
+        int i = y * width + x;
+        return (solid[i >>> 5] & (1 << (i & 31))) != 0;
+    }
+
+    public void setSolid(int x, int y) {
+        int i = y * width + x;
+        solid[i >>> 5] |= 1 << (i & 31);
+    }
+
+    public int[] getWords() {
+        return solid;
+    }
+
+    public int getSizeBytes() {
+        return solid.length * 4;
+    }
+
+}
@@ -0,0 +1,47 @@
+package lando.systems.ld33.utils;
+
+/**
+ * The objects of a compiled map, one row per object.
+ *
+ * Positions follow the same conventions the TMX loader uses for object
+ * properties, in pixels with y pointing up. The param is the one extra
+ * property an object type cares about (what a block drops, what a tube holds).
+ */
+public class MapObjectTable {
+
+    public final int size;
+
+    private final byte[]   types;
+    private final float[]  x;
+    private final float[]  y;
+    private final float[]  width;
+    private final float[]  height;
+    private final String[] params;
+
+    public MapObjectTable(int size) {
+        this.size = size;
+        this.types = new byte[size];
+        this.x = new float[size];
+        this.y = new float[size];
+        this.width = new float[size];
+        this.height = new float[size];
+        this.params = new String[size];
+    }
+
+    public void set(int i, MapObjectType type, float x, float y, float width, float height, String param) {
+        this.types[i] = type.code;
+        this.x[i] = x;
+        this.y[i] = y;
+        this.width[i] = width;
+        this.height[i] = height;
+        this.params[i] = param;
+    }
+
+    public MapObjectType getType(int i) { return MapObjectType.fromCode(types[i]); }
+    public float getX(int i)            { return x[i]; }
+    public float getY(int i)            { return y[i]; }
+    public float getWidth(int i)        { return width[i]; }
+    public float getHeight(int i)       { return height[i]; }
+    public String getParam(int i)       { return params[i]; }
+
+}
@@ -0,0 +1,45 @@
+package lando.systems.ld33.utils;
+
+/**
+ * The kinds of objects placed on a map's object layer.
+ *
+ * Codes are written into compiled map files, so existing ones must never change.
+ */
+public enum MapObjectType {
+    QBLOCK       (1, "qblock"),
+    SPIKE        (2, "spike"),
+    TUBE         (3, "tube"),
+    MARIO_SCREEN (4, "marioscreen"),
+    COIN         (5, "coin"),
+    // Named area that story scripts wait on the player to walk into
+    TRIGGER      (6, "trigger");
+
+    public final byte   code;
+    public final String tmxName;
+
+    MapObjectType(int code, String tmxName) {
+        this.code = (byte) code;
+        this.tmxName = tmxName;
+    }
+
+    private static final MapObjectType[] byCode = new MapObjectType[7];
+    static {
+        for (MapObjectType type : values()) {
+            byCode[type.code] = type;
+        }
+    }
+
+    public static MapObjectType fromCode(byte code) {
+        return (code > 0 && code < byCode.length) ? byCode[code] : null;
+    }
+
+    /**
+     * @return the type for an object's type attribute in Tiled, or null if it isn't one we know
+     */
+    public static MapObjectType fromTmxName(String name) {
+        for (MapObjectType type : values()) {
+            if (type.tmxName.equals(name)) return type;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,171 @@
+package lando.systems.ld33.utils;
+
+import com.badlogic.gdx.audio.Music;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Plays streamed music, handing intros off to their loops and crossfading between tracks.
+ *
+ * Everything runs off {@link #update(float)} and the music's own playback position,
+ * so handoffs don't drift with frame rate or paused tweens.
+ */
+public class MusicPlayer {
+
+    public static final float CROSSFADE_TIME = 1f;
+
+    private static class Track {
+        SoundManager.MusicOptions option;
+        Music   intro;
+        Music   loop;
+        float   handoffAt;
+        float   fade;
+        float   fadeSpeed;
+        boolean looping;
+
+        void setVolume(float masterVolume) {
+            float volume = fade * masterVolume;
+            if (intro != null) intro.setVolume(volume);
+            loop.setVolume(volume);
+        }
+
+        void stop() {
+            if (intro != null) intro.stop();
+            loop.stop();
+        }
+    }
+
+    private Track                                  current;
+    private final Array<Track>                     fadingOut;
+    private final Array<SoundManager.MusicOptions> audible;
+    private float                                  masterVolume;
+
+    public MusicPlayer() {
+        fadingOut = new Array<Track>();
+        audible = new Array<SoundManager.MusicOptions>();
+        masterVolume = 1f;
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Start a track, fading out whatever is playing now
+     *
+     * @param intro Played once before the loop, or null to go straight into the loop
+     * @param handoffAt Intro position in seconds where the loop takes over
+     */
+    public void play(SoundManager.MusicOptions option, Music intro, Music loop, float handoffAt) {
+        if (current != null && current.option == option) return;
+
+        // Coming back to something that is still fading out, just turn it around
+        Track track = null;
+        for (int i = 0; i < fadingOut.size; i++) {
+            if (fadingOut.get(i).option == option) {
+                track = fadingOut.removeIndex(i);
+                break;
+            }
+        }
+        boolean crossfade = fadeOutCurrent();
+
+        if (track == null) {
+            track = new Track();
+            track.option = option;
+            track.intro = intro;
+            track.loop = loop;
+            track.handoffAt = handoffAt;
+            track.looping = (intro == null);
+            // Only fade in when there's something to cross over from, intros should hit at full volume
+            track.fade = crossfade ? 0f : 1f;
+            track.setVolume(masterVolume);
+
+            loop.setLooping(true);
+            if (intro != null) {
+                intro.setLooping(false);
+                intro.play();
+            } else {
+                loop.play();
+            }
+        }
+        track.fadeSpeed = 1f / CROSSFADE_TIME;
+        current = track;
+    }
+
+    public void stop() {
+        fadeOutCurrent();
+    }
+
+    public void update(float dt) {
+        if (current != null) {
+            Track track = current;
+            if (!track.looping) {
+                // Start the loop on the frame that lands closest to the handoff point
+                float remaining = track.handoffAt - track.intro.getPosition();
+                if (remaining <= dt / 2f || !track.intro.isPlaying()) {
+                    track.loop.play();
+                    track.looping = true;
+                }
+            }
+            if (track.fade < 1f) {
+                track.fade = Math.min(1f, track.fade + track.fadeSpeed * dt);
+                track.setVolume(masterVolume);
+            }
+        }
+
+        for (int i = fadingOut.size - 1; i >= 0; i--) {
+            Track track = fadingOut.get(i);
+            track.fade -= track.fadeSpeed * dt;
+            if (track.fade <= 0f) {
+                track.stop();
+                fadingOut.removeIndex(i);
+            } else {
+                track.setVolume(masterVolume);
+            }
+        }
+    }
+
+    public void setVolume(float volume) {
+        masterVolume = volume;
+        if (current != null) current.setVolume(masterVolume);
+        for (Track track : fadingOut) {
+            track.setVolume(masterVolume);
+        }
+    }
+
+    public SoundManager.MusicOptions getCurrent() {
+        return (current != null) ? current.option : null;
+    }
+
+    /**
+     * @return every option that can still be heard, including ones fading out; don't hold on to it
+     */
+    public Array<SoundManager.MusicOptions> getAudible() {
+        audible.clear();
+        if (current != null) audible.add(current.option);
+        for (Track track : fadingOut) {
+            audible.add(track.option);
+        }
+        return audible;
+    }
+
+    public void dispose() {
+        if (current != null) current.stop();
+        for (Track track : fadingOut) {
+            track.stop();
+        }
+        current = null;
+        fadingOut.clear();
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+
+    /**
+     * @return true if there was something playing to fade out
+     */
+    private boolean fadeOutCurrent() {
+        if (current == null) return false;
+        current.fadeSpeed = 1f / CROSSFADE_TIME;
+        fadingOut.add(current);
+        current = null;
+        return true;
+    }
+
+}
@@ -0,0 +1,187 @@
+package lando.systems.ld33.utils;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * Where things can walk on a map, worked out once from its collision data.
+ *
+ * Every run of open cells with solid ground under it is a segment. Each end of a
+ * segment knows what's past it: a wall, a step low enough to jump onto, a gap that
+ * can be jumped, a ledge to drop off, or a fall off the map. AI asks what's ahead
+ * with a cell lookup instead of probing tiles every frame.
+ */
+public class NavGraph {
+
+    // What's past the end of a segment
+    public static final int NONE = 0;
+    public static final int WALL = 1;
+    public static final int STEP = 2;
+    public static final int GAP  = 3;
+    public static final int DROP = 4;
+    public static final int PIT  = 5;
+
+    // Tiles, kept a little under what a Mario jump actually clears
+    public static final int JUMP_HEIGHT   = 4;
+    public static final int JUMP_DISTANCE = 3;
+
+    public final int width;
+    public final int height;
+
+    private final MapCollision collision;
+    // Segment standing in each cell, or -1
+    private final int[]        cells;
+    private final IntArray     segX0;
+    private final IntArray     segX1;
+    private final IntArray     segY;
+    // Per segment end, left then right
+    private final IntArray     edges;
+    private final IntArray     links;
+
+    public NavGraph(MapCollision collision) {
+        this.collision = collision;
+        this.width = collision.width;
+        this.height = collision.height;
+        this.cells = new int[width * height];
+        this.segX0 = new IntArray();
+        this.segX1 = new IntArray();
+        this.segY = new IntArray();
+        this.edges = new IntArray();
+        this.links = new IntArray();
+        build();
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+
+    /**
+     * @return the segment something standing in the cell is on, or -1 if it isn't standing on the map
+     */
+    public int segmentAt(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) return -1;
+        return cells[y * width + x];
+    }
+
+    /**
+     * What is coming up for something standing at x, y (its bottom left corner, like entity bounds)
+     * and looking ahead tiles to the left or right. NONE while there's floor, or if it isn't standing
+     * on the map at all, like on top of a block.
+     */
+    public int edgeAhead(float x, float y, float ahead) {
+        int segment = segmentAt(MathUtils.floor(x + .5f), MathUtils.floor(y));
+        if (segment == -1) return NONE;
+        int lookX = MathUtils.floor(x + .5f + ahead);
+        if (lookX < segX0.get(segment)) return edges.get(segment * 2);
+        if (lookX > segX1.get(segment)) return edges.get(segment * 2 + 1);
+        return NONE;
+    }
+
+    /**
+     * @return the segment a step, gap or drop at this end leads to, or -1
+     */
+    public int getLink(int segment, boolean right) {
+        return links.get(segment * 2 + (right ? 1 : 0));
+    }
+
+    public int getSegmentCount() {
+        return segY.size;
+    }
+
+    public int getStartX(int segment) { return segX0.get(segment); }
+    public int getEndX(int segment)   { return segX1.get(segment); }
+    public int getY(int segment)      { return segY.get(segment); }
+
+    public int getSizeBytes() {
+        return (cells.length + segY.size * 7) * 4;
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+
+    private boolean isFloor(int x, int y) {
+        return y > 0 && !collision.isSolid(x, y) && collision.isSolid(x, y - 1);
+    }
+
+    private void build() {
+        for (int i = 0; i < cells.length; i++) cells[i] = -1;
+
+        // Segments first, links need to look them up
+        for (int y = 1; y < height; y++) {
+            int x = 0;
+            while (x < width) {
+                if (!isFloor(x, y)) {
+                    x++;
+                    continue;
+                }
+                int segment = segY.size;
+                int start = x;
+                while (x < width && isFloor(x, y)) {
+                    cells[y * width + x] = segment;
+                    x++;
+                }
+                segX0.add(start);
+                segX1.add(x - 1);
+                segY.add(y);
+            }
+        }
+
+        for (int segment = 0; segment < segY.size; segment++) {
+            link(segment, segX0.get(segment) - 1, -1);
+            link(segment, segX1.get(segment) + 1, 1);
+        }
+    }
+
+    /**
+     * Work out what's at column x, just past one end of the segment
+     */
+    private void link(int segment, int x, int dir) {
+        int y = segY.get(segment);
+        int edge;
+        int link = -1;
+        if (x < 0 || x >= width) {
+            edge = PIT;
+        } else if (collision.isSolid(x, y)) {
+            // A wall, see if there's a top to it within reach
+            edge = WALL;
+            for (int h = 1; h <= JUMP_HEIGHT; h++) {
+                if (collision.isSolid(x, y + h)) continue;
+                if (isFloor(x, y + h)) {
+                    edge = STEP;
+                    link = segmentAt(x, y + h);
+                }
+                break;
+            }
+        } else {
+            // Open air, a short hop down is walked off, otherwise look for floor across before falling
+            int below = -1;
+            for (int r = y - 1; r > 0; r--) {
+                if (collision.isSolid(x, r)) break;
+                if (isFloor(x, r)) {
+                    below = r;
+                    break;
+                }
+            }
+            edge = PIT;
+            if (below != -1 && y - below <= 2) {
+                edge = DROP;
+                link = segmentAt(x, below);
+            }
+            for (int across = 1; across <= JUMP_DISTANCE && edge == PIT; across++) {
+                int gx = x + across * dir;
+                for (int dy = 2; dy >= -2; dy--) {
+                    int target = segmentAt(gx, y + dy);
+                    if (target != -1) {
+                        edge = GAP;
+                        link = target;
+                        break;
+                    }
+                }
+            }
+            if (edge == PIT && below != -1) {
+                edge = DROP;
+                link = segmentAt(x, below);
+            }
+        }
+        edges.add(edge);
+        links.add(link);
+    }
+
+}
@@ -28,28 +28,30 @@ public class ParticleManager {
         }
     };
 
-    public ParticleManager(){
+    private final Rng random;
 
+    public ParticleManager(Rng random){
+        this.random = random;
     }
 
     public void addLargeBlood(Vector2 pos){
         for (int i = 0; i < 500; i ++){
             Particle part = particlePool.obtain();
-            float speed = 1 + MathUtils.random() * 4;
-            float dir = MathUtils.random(45f, 135f);
-            float x = pos.x + .3f + (MathUtils.random()/3f);
+            float speed = 1 + random.random() * 4;
+            float dir = random.random(45f, 135f);
+            float x = pos.x + .3f + (random.random()/3f);
             part.init(new Vector2(x, pos.y), new Vector2(MathUtils.cosDeg(dir) * speed, MathUtils.sinDeg(dir) * speed ), new Vector2(0,-2f),
-                    new Color(1,0,0,1), new Color(1,0,0,.1f), .02f + (MathUtils.random() / 20f), 2);
+                    new Color(1,0,0,1), new Color(1,0,0,.1f), .02f + (random.random() / 20f), 2);
             activeParticles.add(part);
         }
     }
 
     public void addSparkles(Rectangle rect) {
         for (int i = 0; i < 30; i++){
-            Color c = new Color(1, MathUtils.random(), 0, 1);
+            Color c = new Color(1, random.random(), 0, 1);
             Particle part = particlePool.obtain();
-            float speed = MathUtils.random();
-            float dir = MathUtils.random(360);
+            float speed = random.random();
+            float dir = random.random(360);
             float vX = MathUtils.cosDeg(dir);
             float vY = MathUtils.sinDeg(dir);
             part.init(new Vector2(rect.x + rect.width/2 + vX/2 - (1/16f), rect.y + rect.height/2 + vY/2), new Vector2(vX * speed, vY * speed), new Vector2(0,0),
@@ -59,17 +61,17 @@ public class ParticleManager {
     }
 
     public void addFirework(Vector2 pos, float angleDeg){
-        angleDeg += MathUtils.random(-20, 20);
+        angleDeg += random.random(-20, 20);
         Vector2 v = new Vector2(MathUtils.sinDeg(angleDeg) * 3, MathUtils.cos(angleDeg) * 3);
-        activeFireworks.add(new FireworkEmitter(this, pos, new Vector2(MathUtils.random(-.8f,.8f), 3)));
+        activeFireworks.add(new FireworkEmitter(this, pos, new Vector2(random.random(-.8f,.8f), 3)));
     }
 
     public void addFireworkExplotion(Vector2 pos){
-        Color c = new Color(MathUtils.random(), MathUtils.random(), MathUtils.random(), 1);
+        Color c = new Color(random.random(), random.random(), random.random(), 1);
         for (int i = 0; i < 500; i ++){
             Particle part = particlePool.obtain();
-            float speed = MathUtils.random() * 2f;
-            float dir = MathUtils.random(360);
+            float speed = random.random() * 2f;
+            float dir = random.random(360);
             part.init(pos.cpy(), new Vector2(MathUtils.cosDeg(dir) * speed, MathUtils.sinDeg(dir) * speed ), new Vector2(0,-1f),
                     c, new Color(c.r,c.g,c.b,.4f), .05f, 1);
             activeParticles.add(part);
@@ -85,15 +87,28 @@ public class ParticleManager {
     public void addBlood(Vector2 pos){
         for (int i = 0; i < 50; i ++){
             Particle part = particlePool.obtain();
-            float speed = MathUtils.random() * 2;
-            float dir = MathUtils.random(360f);
-            float x = pos.x + .3f + (MathUtils.random()/3f);
+            float speed = random.random() * 2;
+            float dir = random.random(360f);
+            float x = pos.x + .3f + (random.random()/3f);
             part.init(new Vector2(x, pos.y), new Vector2(MathUtils.sinDeg(dir) * speed, MathUtils.cosDeg(dir) * speed ), new Vector2(0,-2f),
                     new Color(1,0,0,1), new Color(1,0,0,0), .05f, 2);
             activeParticles.add(part);
         }
     }
 
+    public int getActiveCount(){
+        return activeParticles.size;
+    }
+
+    /**
+     * Drop everything in flight, the particles go back to the pool
+     */
+    public void clear(){
+        particlePool.freeAll(activeParticles);
+        activeParticles.clear();
+        activeFireworks.clear();
+    }
+
     public void update(float dt){
         Iterator<FireworkEmitter> iterator = activeFireworks.iterator();
         while (iterator.hasNext()) {
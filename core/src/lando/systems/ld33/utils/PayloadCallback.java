@@ -0,0 +1,23 @@
+package lando.systems.ld33.utils;
+
+import aurelienribon.tweenengine.BaseTween;
+import aurelienribon.tweenengine.TweenCallback;
+
+/**
+ * A tween callback that acts on whatever its tween carries as user data.
+ *
+ * One instance serves every tween that uses it and the payload rides along on the
+ * tween, which the engine already pools, so firing one allocates nothing. Declare
+ * them as constants and hand the payload over with {@code setUserData}.
+ */
+public abstract class PayloadCallback<T> implements TweenCallback {
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public final void onEvent(int type, BaseTween<?> source) {
+        onEvent((T) source.getUserData());
+    }
+
+    protected abstract void onEvent(T payload);
+
+}
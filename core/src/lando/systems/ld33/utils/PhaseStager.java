@@ -0,0 +1,197 @@
+package lando.systems.ld33.utils;
+
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.async.AsyncExecutor;
+import com.badlogic.gdx.utils.async.AsyncResult;
+import com.badlogic.gdx.utils.async.AsyncTask;
+
+/**
+ * Gets the next phase's map ready while the current screen plays out.
+ *
+ * The asset manager parses the map in the background, then a worker thread works out
+ * where its objects spawn and indexes its trigger volumes. All the world has left to do
+ * on the render thread is create the objects and point the renderer at the map.
+ * Everything is handed over in one piece by {@link #take(String)}, on web the work
+ * just runs on the spot.
+ */
+public class PhaseStager implements Disposable {
+
+    /**
+     * A map object with its bounds in tiles, ready to be turned into an entity
+     */
+    public static class Spawn {
+        public final MapObjectType type;
+        public final Rectangle     bounds;
+        public final String        param;
+
+        Spawn(MapObjectType type, Rectangle bounds, String param) {
+            this.type = type;
+            this.bounds = bounds;
+            this.param = param;
+        }
+    }
+
+    /**
+     * Everything a world needs from a map that doesn't touch GL
+     */
+    public static class Staged {
+        public final MapCache.Entry map;
+        public final Array<Spawn>   spawns;
+        public final TriggerVolumes triggers;
+
+        Staged(MapCache.Entry map) {
+            this.map = map;
+            this.spawns = new Array<Spawn>();
+            this.triggers = new TriggerVolumes();
+        }
+    }
+
+    private static class PrepareTask implements AsyncTask<Staged> {
+        private final MapCache.Entry map;
+
+        PrepareTask(MapCache.Entry map) {
+            this.map = map;
+        }
+
+        @Override
+        public Staged call() throws Exception {
+            return prepare(map);
+        }
+    }
+
+    private final AssetManager  assetManager;
+    private final MapCache      mapCache;
+    private final AsyncExecutor executor;
+
+    private String              stagedName;
+    private MapCache.Entry      stagedMap;
+    private AsyncResult<Staged> pending;
+
+    // Maps handed over ready to go, and ones the world had to wait on
+    public int staged;
+    public int cold;
+
+    public PhaseStager(AssetManager assetManager, MapCache mapCache) {
+        this.assetManager = assetManager;
+        this.mapCache = mapCache;
+        this.executor = new AsyncExecutor(1);
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Start getting a map ready, replacing whatever was being staged before
+     */
+    public void stage(String fileName) {
+        if (fileName.equals(stagedName)) return;
+        discard();
+        stagedName = fileName;
+    }
+
+    /**
+     * Hand the map to the worker once the asset manager has it, call once per frame
+     */
+    public void update() {
+        if (stagedName == null || stagedMap != null) return;
+        if (!assetManager.isLoaded(stagedName)) return;
+        stagedMap = mapCache.acquire(stagedName);
+        pending = executor.submit(new PrepareTask(stagedMap));
+    }
+
+    /**
+     * @return false while the staged map is still loading or being worked on
+     */
+    public boolean isReady() {
+        return stagedName == null || (pending != null && pending.isDone());
+    }
+
+    /**
+     * Take the map for a world, waiting on the worker if it isn't quite done, or doing
+     * all the work now if nothing was staged for it. The map comes already acquired from
+     * the cache, the world releases it like any other.
+     */
+    public Staged take(String fileName) {
+        if (!fileName.equals(stagedName)) {
+            cold++;
+            return prepare(mapCache.acquire(fileName));
+        }
+        if (pending != null && pending.isDone()) {
+            staged++;
+        } else {
+            cold++;
+            update();
+            if (pending == null) {
+                // Still in the asset manager's queue, which the story waits out before a transition
+                stagedMap = mapCache.acquire(stagedName);
+                pending = executor.submit(new PrepareTask(stagedMap));
+            }
+        }
+        Staged result = pending.get();
+        stagedName = null;
+        stagedMap = null;
+        pending = null;
+        return result;
+    }
+
+    @Override
+    public void dispose() {
+        discard();
+        executor.dispose();
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+
+    private void discard() {
+        if (pending != null) pending.get();
+        if (stagedMap != null) mapCache.release(stagedMap);
+        stagedName = null;
+        stagedMap = null;
+        pending = null;
+    }
+
+    /**
+     * Read only access to the map, safe to run off the render thread
+     */
+    private static Staged prepare(MapCache.Entry map) {
+        Staged staged = new Staged(map);
+        MapObjectTable objects = map.map.objects;
+        staged.triggers.clear(map.collision.width, map.collision.height);
+        for (int i = 0; i < objects.size; i++) {
+            MapObjectType type = objects.getType(i);
+            if (type == null) continue;
+            float w = objects.getWidth(i);
+            float h = objects.getHeight(i);
+            float x = objects.getX(i);
+            float y = objects.getY(i); // NOTE: god dammit... off by 1
+
+            Rectangle bounds;
+            switch (type) {
+                case QBLOCK:
+                case SPIKE:
+                    bounds = new Rectangle(x / w, (y / h) + 1, 1, 1);
+                    break;
+                case TUBE:
+                    bounds = new Rectangle(x / w, (y / 16) + 2, 1, 2);
+                    break;
+                case MARIO_SCREEN:
+                    bounds = new Rectangle(x / 16, (y / 16) + 2, 2, 2);
+                    break;
+                case COIN:
+                    bounds = new Rectangle(x / 16, (y / 16) + 1, 1, 1);
+                    break;
+                case TRIGGER:
+                    staged.triggers.add(objects.getParam(i), x / 16, y / 16, w / 16, h / 16);
+                    continue;
+                default:
+                    continue;
+            }
+            staged.spawns.add(new Spawn(type, bounds, objects.getParam(i)));
+        }
+        staged.triggers.build();
+        return staged;
+    }
+
+}
@@ -0,0 +1,185 @@
+package lando.systems.ld33.utils;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.reflect.ClassReflection;
+
+/**
+ * Keeps track of every native resource that isn't loaded through the asset manager,
+ * along with who owns it: a screen, a world, or {@link #GLOBAL} for the whole game.
+ *
+ * When an owner ends it calls {@link #release(Object)} and everything it still holds
+ * gets disposed. The report lists whatever is alive right now, so anything that keeps
+ * growing across story transitions is a leak.
+ */
+public class ResourceRegistry {
+
+    public static final Object GLOBAL = new Object() {
+        @Override
+        public String toString() {
+            return "global";
+        }
+    };
+
+    private static class Entry {
+        final Disposable resource;
+        final String     label;
+        final int        bytes;
+
+        Entry(Disposable resource, String label, int bytes) {
+            this.resource = resource;
+            this.label = label;
+            this.bytes = bytes;
+        }
+    }
+
+    private final ObjectMap<Object, Array<Entry>> owners;
+
+    public int tracked;
+    public int released;
+
+    public ResourceRegistry() {
+        owners = new ObjectMap<Object, Array<Entry>>();
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+
+    public FrameBuffer track(Object owner, FrameBuffer frameBuffer) {
+        // Color buffer plus a 16 bit depth buffer if it has one
+        int bytes = frameBuffer.getWidth() * frameBuffer.getHeight() * 4;
+        if (frameBuffer.getDepthBufferHandle() != 0) bytes += frameBuffer.getWidth() * frameBuffer.getHeight() * 2;
+        return track(owner, frameBuffer, "FrameBuffer", bytes);
+    }
+
+    public Texture track(Object owner, Texture texture) {
+        return track(owner, texture, "Texture", sizeOf(texture));
+    }
+
+    /**
+     * @param owner Whoever is responsible for the resource, released along with it
+     * @param resource The resource to dispose once the owner ends
+     * @param label What to call it in the report
+     * @param bytes Best guess of the native memory it holds
+     * @return the resource, for chaining on construction
+     */
+    public <T extends Disposable> T track(Object owner, T resource, String label, int bytes) {
+        Array<Entry> entries = owners.get(owner);
+        if (entries == null) {
+            entries = new Array<Entry>();
+            owners.put(owner, entries);
+        }
+        entries.add(new Entry(resource, label, bytes));
+        tracked++;
+        return resource;
+    }
+
+    /**
+     * Dispose a single resource before its owner ends, like a world swapping maps
+     */
+    public void dispose(Object owner, Disposable resource) {
+        Array<Entry> entries = owners.get(owner);
+        if (entries != null) {
+            for (int i = 0; i < entries.size; i++) {
+                if (entries.get(i).resource == resource) {
+                    entries.removeIndex(i);
+                    released++;
+                    break;
+                }
+            }
+        }
+        resource.dispose();
+    }
+
+    /**
+     * The owner is done, dispose everything it still holds
+     */
+    public void release(Object owner) {
+        Array<Entry> entries = owners.remove(owner);
+        if (entries == null) return;
+        for (int i = entries.size - 1; i >= 0; i--) {
+            entries.get(i).resource.dispose();
+            released++;
+        }
+    }
+
+    public void releaseAll() {
+        Array<Object> all = owners.keys().toArray();
+        for (Object owner : all) {
+            release(owner);
+        }
+    }
+
+    public int getLiveCount() {
+        int count = 0;
+        for (Array<Entry> entries : owners.values()) {
+            count += entries.size;
+        }
+        return count;
+    }
+
+    public int getLiveBytes() {
+        int bytes = 0;
+        for (Array<Entry> entries : owners.values()) {
+            for (Entry entry : entries) {
+                bytes += entry.bytes;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Everything alive right now, per owner, plus what the asset manager is holding
+     */
+    public String getReport(AssetManager assetManager) {
+        StringBuilder report = new StringBuilder();
+        report.append("Live resources: ").append(getLiveCount())
+              .append(" (").append(getLiveBytes() / 1024).append(" KB), ")
+              .append(tracked).append(" tracked, ").append(released).append(" released\n");
+
+        for (ObjectMap.Entry<Object, Array<Entry>> owner : owners.entries()) {
+            int bytes = 0;
+            for (Entry entry : owner.value) {
+                bytes += entry.bytes;
+            }
+            report.append("  ").append(describe(owner.key)).append(": ").append(owner.value.size)
+                  .append(" (").append(bytes / 1024).append(" KB)");
+            for (Entry entry : owner.value) {
+                report.append(' ').append(entry.label);
+            }
+            report.append('\n');
+        }
+
+        if (assetManager != null) {
+            int textureBytes = 0;
+            for (String fileName : assetManager.getAssetNames()) {
+                if (assetManager.getAssetType(fileName) == Texture.class) {
+                    textureBytes += sizeOf(assetManager.get(fileName, Texture.class));
+                }
+            }
+            report.append("  asset manager: ").append(assetManager.getLoadedAssets())
+                  .append(" assets (").append(textureBytes / 1024).append(" KB of textures)\n");
+        }
+        return report.toString();
+    }
+
+    public void logReport(AssetManager assetManager) {
+        Gdx.app.log("Resources", getReport(assetManager));
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+
+    private static String describe(Object owner) {
+        if (owner == GLOBAL) return owner.toString();
+        return ClassReflection.getSimpleName(owner.getClass()) + "@" + Integer.toHexString(System.identityHashCode(owner));
+    }
+
+    private static int sizeOf(Texture texture) {
+        return texture.getWidth() * texture.getHeight() * 4;
+    }
+
+}
@@ -0,0 +1,68 @@
+package lando.systems.ld33.utils;
+
+import com.badlogic.gdx.math.RandomXS128;
+
+/**
+ * A seeded xorshift128+ stream with the same helpers as MathUtils.random, so code
+ * that owns one can swap it in call for call.
+ *
+ * Streams are seeded from a base seed plus a stream number run through SplitMix64,
+ * neighbouring numbers still come out unrelated.
+ */
+public class Rng extends RandomXS128 {
+
+    public Rng(long seed, long stream) {
+        super(0L, 1L);
+        reseed(seed, stream);
+    }
+
+    public void reseed(long seed, long stream) {
+        setSeed(splitMix(seed + stream * 0x9E3779B97F4A7C15L));
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+
+    /**
+     * @return a float from 0 up to 1
+     */
+    public float random() {
+        return nextFloat();
+    }
+
+    /**
+     * @return a float from 0 up to range
+     */
+    public float random(float range) {
+        return nextFloat() * range;
+    }
+
+    /**
+     * @return a float from start up to end
+     */
+    public float random(float start, float end) {
+        return start + nextFloat() * (end - start);
+    }
+
+    /**
+     * @return an int from 0 to range, both included
+     */
+    public int random(int range) {
+        return nextInt(range + 1);
+    }
+
+    /**
+     * @return an int from start to end, both included
+     */
+    public int random(int start, int end) {
+        return start + nextInt(end - start + 1);
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+
+    private static long splitMix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+}
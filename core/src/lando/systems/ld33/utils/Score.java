@@ -2,7 +2,6 @@ package lando.systems.ld33.utils;
 
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.OrthographicCamera;
-import com.badlogic.gdx.graphics.g2d.GlyphLayout;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.math.MathUtils;
 
@@ -17,6 +16,8 @@ public class Score {
     private String scoreStr;
     private String coinStr;
     private String world;
+    private String timeStr;
+    private int shownTime = -1;
 
     public Score(String world){
         buildScoreString();
@@ -48,18 +49,17 @@ public class Score {
         drawStringShaded(batch, world, 11.5f * 32, cam.viewportHeight - 48);
 
         drawStringShaded(batch, "TIME", 15 * 32, cam.viewportHeight - 32);
-        final GlyphLayout layout = new GlyphLayout();
-        String timeStr = "" + (int)time;
-        layout.setText(Assets.font, timeStr);
-        drawStringShaded(batch, timeStr, 17 * 32 - layout.width, cam.viewportHeight - 48);
+        if ((int)time != shownTime) {
+            shownTime = (int)time;
+            timeStr = String.valueOf(shownTime);
+        }
+        float timeWidth = Assets.textCache.get(Assets.font, timeStr).width;
+        drawStringShaded(batch, timeStr, 17 * 32 - timeWidth, cam.viewportHeight - 48);
     }
 
     private void drawStringShaded(SpriteBatch batch, String text, float x, float y){
-        Assets.font.setColor(Color.BLACK);
-        Assets.font.draw(batch, text, x+1, y - 1);
-        Assets.font.setColor(Color.WHITE);
-        Assets.font.draw(batch, text, x, y);
-
+        Assets.textCache.get(Assets.font, text, Color.BLACK).draw(batch, x + 1, y - 1);
+        Assets.textCache.get(Assets.font, text).draw(batch, x, y);
     }
 
     public void addScore(int s){
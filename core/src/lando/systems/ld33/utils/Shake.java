@@ -1,7 +1,6 @@
 package lando.systems.ld33.utils;
 
 import com.badlogic.gdx.graphics.Camera;
-import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Vector2;
 
 /**
@@ -24,18 +23,25 @@ public class Shake {
 
     int sampleCount;
 
-    public Shake() {
-        this(default_frequency, default_amplitude);
+    public Shake(Rng random) {
+        this(default_frequency, default_amplitude, random);
     }
 
-    public Shake(int frequency, float amplitude) {
+    public Shake(int frequency, float amplitude, Rng random) {
         this.frequency = frequency;
         this.amplitude = amplitude;
 
         sampleCount = duration * frequency;
         samples = new float[sampleCount];
+        randomize(random);
+    }
+
+    /**
+     * Draw a new set of samples, for a shake that follows a reseeded stream
+     */
+    public void randomize(Rng random) {
         for (int i = 0; i < sampleCount; i++) {
-            samples[i] = MathUtils.random(-1f, 1f);
+            samples[i] = random.random(-1f, 1f);
         }
     }
 
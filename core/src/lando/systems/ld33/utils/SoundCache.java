@@ -0,0 +1,158 @@
+package lando.systems.ld33.utils;
+
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/**
+ * Loads sound effects when they're first needed and lets go of the ones that haven't
+ * been played in a while, keeping the decoded audio under a memory budget.
+ *
+ * Each story step hints at the effects it uses so they can load in the background
+ * ahead of time, hinted effects are the last to be evicted. Anything played without
+ * a hint is queued the first time it's asked for and skipped until it's in, which
+ * shows up as a cold load.
+ */
+public class SoundCache {
+
+    // Effects are decoded to 16 bit mono at 44.1kHz
+    public static final int BYTES_PER_SECOND = 44100 * 2;
+    // Hints count against the budget, this covers the biggest current and next step hints
+    // (about 655KB, either side of GET_MUSHROOM) with room for a few unhinted effects
+    public static final int DEFAULT_BUDGET   = 768 * 1024;
+
+    public static class Stats {
+        public int hits;
+        public int coldLoads;
+        public int prewarmed;
+        public int evictions;
+        public int residentBytes;
+        public int peakBytes;
+    }
+
+    private static class Entry {
+        final SoundManager.SoundOptions option;
+        final int                       bytes;
+        Sound                           sound;
+        long                            lastUsed;
+        boolean                         hinted;
+
+        Entry(SoundManager.SoundOptions option) {
+            this.option = option;
+            this.bytes = (int) (option.duration * BYTES_PER_SECOND);
+        }
+    }
+
+    public final Stats stats;
+
+    private final AssetManager                                assetManager;
+    private final int                                         budget;
+    private final ObjectMap<SoundManager.SoundOptions, Entry> entries;
+    private final Array<Entry>                                resident;
+    private long                                              frame;
+
+    public SoundCache(AssetManager assetManager, int budget) {
+        this.assetManager = assetManager;
+        this.budget = budget;
+        this.stats = new Stats();
+        this.entries = new ObjectMap<SoundManager.SoundOptions, Entry>();
+        this.resident = new Array<Entry>();
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+
+    /**
+     * @return the sound, or null while it's still loading, asking for one nobody hinted queues it
+     */
+    public Sound get(SoundManager.SoundOptions option) {
+        Entry entry = entries.get(option);
+        if (entry == null) {
+            entry = add(option);
+            stats.coldLoads++;
+        } else if (entry.sound == null && !assetManager.isLoaded(option.fileName, Sound.class)) {
+            // Hinted but still in the queue
+            stats.coldLoads++;
+        } else {
+            stats.hits++;
+        }
+        entry.lastUsed = frame;
+        if (entry.sound == null) {
+            if (!assetManager.isLoaded(option.fileName, Sound.class)) return null;
+            entry.sound = assetManager.get(option.fileName, Sound.class);
+        }
+        return entry.sound;
+    }
+
+    /**
+     * Start loading the hinted effects in the background and hold on to them over anything
+     * unhinted, effects hinted by an earlier call go back to being fair game
+     */
+    public void prewarm(Array<SoundManager.SoundOptions> hints) {
+        for (Entry entry : resident) {
+            entry.hinted = false;
+        }
+        for (SoundManager.SoundOptions option : hints) {
+            Entry entry = entries.get(option);
+            if (entry == null) {
+                entry = add(option);
+                stats.prewarmed++;
+            }
+            entry.hinted = true;
+            entry.lastUsed = frame;
+        }
+    }
+
+    public boolean isLoaded(SoundManager.SoundOptions option) {
+        return entries.containsKey(option) && assetManager.isLoaded(option.fileName, Sound.class);
+    }
+
+    /**
+     * Evict the least recently played effects until the cache is back under budget, unhinted
+     * ones first, skipping anything still playing
+     */
+    public void trim(SoundScheduler scheduler) {
+        frame++;
+        while (stats.residentBytes > budget) {
+            Entry victim = null;
+            for (Entry entry : resident) {
+                if (scheduler.isPlaying(entry.option)) continue;
+                if (victim == null
+                 || (victim.hinted && !entry.hinted)
+                 || (victim.hinted == entry.hinted && entry.lastUsed < victim.lastUsed)) {
+                    victim = entry;
+                }
+            }
+            if (victim == null) break;
+            remove(victim);
+            stats.evictions++;
+        }
+    }
+
+    public void clear() {
+        for (int i = resident.size - 1; i >= 0; i--) {
+            remove(resident.get(i));
+        }
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+
+    private Entry add(SoundManager.SoundOptions option) {
+        Entry entry = new Entry(option);
+        assetManager.load(option.fileName, Sound.class);
+        entries.put(option, entry);
+        resident.add(entry);
+        stats.residentBytes += entry.bytes;
+        stats.peakBytes = Math.max(stats.peakBytes, stats.residentBytes);
+        return entry;
+    }
+
+    private void remove(Entry entry) {
+        entries.remove(entry.option);
+        resident.removeValue(entry, true);
+        stats.residentBytes -= entry.bytes;
+        // Drops our reference, or just cancels the load if it never got out of the queue
+        assetManager.unload(entry.option.fileName);
+    }
+
+}
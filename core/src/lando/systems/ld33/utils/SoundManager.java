@@ -1,15 +1,10 @@
 package lando.systems.ld33.utils;
 
-import aurelienribon.tweenengine.BaseTween;
-import aurelienribon.tweenengine.Tween;
-import aurelienribon.tweenengine.TweenCallback;
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.audio.Sound;
-import com.badlogic.gdx.math.MathUtils;
-import com.badlogic.gdx.math.Vector2;
-import lando.systems.ld33.LudumDare33;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.audio.Music;
+import com.badlogic.gdx.utils.Array;
 
-import java.util.HashMap;
+import java.util.HashSet;
 
 /**
  * Author: Ian McNamara <ian.mcnamara@wisc.edu>
@@ -19,183 +14,212 @@ import java.util.HashMap;
 public class SoundManager{
 
     public enum SoundOptions {
-        COIN_GET,
-        GLASS_JAR_BREAK,
-        GOOMBA_2ND_CHANCE,
-        GOOMBA_JUMP,
-        GOOMBA_MUSHROOM_GET,
-        GOOMBA_SQUASH,
-        MARIO_DEATH,
-        MARIO_JUMP,
-        MARIO_RECLAIMATION,
-        MUSHROOM_GET,
-        MUSHROOM_REVEAL,
-        PIPE_TRAVEL,
-        SPIKE_STAB
+        //                   file                                         length  voices  priority
+        COIN_GET            ("sounds/effects/coin-get.mp3",               0.42f,  2,      1),
+        GLASS_JAR_BREAK     ("sounds/effects/glass-jar-break.mp3",        1.33f,  2,      3),
+        GOOMBA_2ND_CHANCE   ("sounds/effects/goomba-2nd-chance.mp3",      0.52f,  1,      5),
+        GOOMBA_JUMP         ("sounds/effects/goomba-jump.mp3",            0.34f,  1,      4),
+        GOOMBA_MUSHROOM_GET ("sounds/effects/goomba-mushroom-get.mp3",    2.22f,  1,      5),
+        GOOMBA_SQUASH       ("sounds/effects/goomba-squash.mp3",          0.39f,  1,      5),
+        MARIO_DEATH         ("sounds/effects/mario-death.mp3",            0.26f,  2,      2),
+        MARIO_JUMP          ("sounds/effects/mario-jump.mp3",             0.34f,  2,      1),
+        MARIO_RECLAIMATION  ("sounds/effects/mario-reclaimation.mp3",     1.25f,  1,      3),
+        MUSHROOM_GET        ("sounds/effects/mushroom-get.mp3",           0.99f,  1,      3),
+        MUSHROOM_REVEAL     ("sounds/effects/mushroom-reveal.mp3",        0.76f,  1,      3),
+        PIPE_TRAVEL         ("sounds/effects/pipe-travel.mp3",            1.36f,  1,      4),
+        SPIKE_STAB          ("sounds/effects/spike-stab.mp3",             0.37f,  2,      3);
+
+        final String fileName;
+        // Seconds, used to tell when a voice has finished
+        final float  duration;
+        // Most copies of this effect that can play at once
+        final int    maxVoices;
+        // Higher priorities cut off lower ones when every voice is taken
+        final int    priority;
+        SoundOptions(String fileName, float duration, int maxVoices, int priority) {
+            this.fileName = fileName;
+            this.duration = duration;
+            this.maxVoices = maxVoices;
+            this.priority = priority;
+        }
     }
     public enum MusicOptions {
-        DNUORGREDNU,
-        MARIO_MAJOR,
-        MARIO_MAJOR_BK,
-        MARIO_MINOR,
-        METRIOD_BK,
-        ZELDA_BK
+        DNUORGREDNU     (MusicPieces.DNUORGREDNU),
+        MARIO_MAJOR     (MusicPieces.MARIO_MAJOR_INTRO, 2.6f, MusicPieces.MARIO_MAJOR_LOOP),
+        MARIO_MAJOR_BK  (MusicPieces.MARIO_MAJOR_LOOP_BK),
+        MARIO_MINOR     (MusicPieces.MARIO_MINOR_INTRO, 3.2f, MusicPieces.MARIO_MINOR_LOOP),
+        METRIOD_BK      (MusicPieces.METROID_LOOP_BK),
+        ZELDA_BK        (MusicPieces.ZELDA_MYSTERIOUS_LOOP_BK);
+
+        final MusicPieces intro;
+        final float       handoffAt;
+        final MusicPieces loop;
+        final String[]    fileNames;
+        MusicOptions(MusicPieces loop) {
+            this(null, 0f, loop);
+        }
+        // handoffAt is the point in the intro where the loop comes in, a little before the file ends
+        MusicOptions(MusicPieces intro, float handoffAt, MusicPieces loop) {
+            this.intro = intro;
+            this.handoffAt = handoffAt;
+            this.loop = loop;
+            this.fileNames = (intro != null) ? new String[] { intro.fileName, loop.fileName }
+                                             : new String[] { loop.fileName };
+        }
     }
     private enum MusicPieces {
-        DNUORGREDNU,
-        MARIO_MAJOR_INTRO,
-        MARIO_MAJOR_LOOP,
-        MARIO_MAJOR_LOOP_BK,
-        MARIO_MINOR_INTRO,
-        MARIO_MINOR_LOOP,
-        METROID_LOOP_BK,
-        ZELDA_MYSTERIOUS_LOOP_BK
+        DNUORGREDNU              ("sounds/music/dnuorgrednu.mp3"),
+        MARIO_MAJOR_INTRO        ("sounds/music/mario-major-intro.mp3"),
+        MARIO_MAJOR_LOOP         ("sounds/music/mario-major-loop.mp3"),
+        MARIO_MAJOR_LOOP_BK      ("sounds/music/mario-major-backwards.mp3"),
+        MARIO_MINOR_INTRO        ("sounds/music/mario-minor-intro.mp3"),
+        MARIO_MINOR_LOOP         ("sounds/music/mario-minor-loop.mp3"),
+        METROID_LOOP_BK          ("sounds/music/metriod-tourian-loop-bk.mp3"),
+        ZELDA_MYSTERIOUS_LOOP_BK ("sounds/music/zelda-mysterious-loop-backwards.mp3");
+
+        final String fileName;
+        MusicPieces(String fileName) {
+            this.fileName = fileName;
+        }
     }
 
-    private HashMap<SoundOptions, Sound> soundMap = new HashMap<SoundOptions, Sound>();
-    private HashMap<MusicPieces, Sound> musicMap = new HashMap<MusicPieces, Sound>();
+    private final AssetManager assetManager;
+    private final MusicPlayer  musicPlayer;
+    private final SoundScheduler scheduler;
+    private final SoundCache     soundCache;
+    private HashSet<String> queued = new HashSet<String>();
 
     // -----------------------------------------------------------------------------------------------------------------
 
-    public SoundManager() {
-        load();
+    public SoundManager(AssetManager assetManager) {
+        this.assetManager = assetManager;
+        this.musicPlayer = new MusicPlayer();
+        this.soundCache = new SoundCache(assetManager, SoundCache.DEFAULT_BUDGET);
+        this.scheduler = new SoundScheduler(soundCache);
     }
 
-    // -----------------------------------------------------------------------------------------------------------------
+    /**
+     * Starts the sound effects requested this frame and drives music handoffs and fades,
+     * call once per frame after everything has had a chance to play something
+     */
+    public void update(float dt) {
+        scheduler.flush(dt);
+        soundCache.trim(scheduler);
+        musicPlayer.update(dt);
+    }
+
+    public SoundScheduler.Stats getStats() {
+        return scheduler.stats;
+    }
 
-    private void load() {
-        soundMap.put(SoundOptions.COIN_GET, Gdx.audio.newSound(Gdx.files.internal("sounds/effects/coin-get.mp3")));
-        soundMap.put(SoundOptions.GLASS_JAR_BREAK, Gdx.audio.newSound(Gdx.files.internal("sounds/effects/glass-jar-break.mp3")));
-        soundMap.put(SoundOptions.GOOMBA_2ND_CHANCE, Gdx.audio.newSound(Gdx.files.internal("sounds/effects/goomba-2nd-chance.mp3")));
-        soundMap.put(SoundOptions.GOOMBA_JUMP, Gdx.audio.newSound(Gdx.files.internal("sounds/effects/goomba-jump.mp3")));
-        soundMap.put(SoundOptions.GOOMBA_MUSHROOM_GET, Gdx.audio.newSound(Gdx.files.internal("sounds/effects/goomba-mushroom-get.mp3")));
-        soundMap.put(SoundOptions.GOOMBA_SQUASH, Gdx.audio.newSound(Gdx.files.internal("sounds/effects/goomba-squash.mp3")));
-        soundMap.put(SoundOptions.MARIO_DEATH, Gdx.audio.newSound(Gdx.files.internal("sounds/effects/mario-death.mp3")));
-        soundMap.put(SoundOptions.MARIO_JUMP, Gdx.audio.newSound(Gdx.files.internal("sounds/effects/mario-jump.mp3")));
-        soundMap.put(SoundOptions.MARIO_RECLAIMATION, Gdx.audio.newSound(Gdx.files.internal("sounds/effects/mario-reclaimation.mp3")));
-        soundMap.put(SoundOptions.MUSHROOM_GET, Gdx.audio.newSound(Gdx.files.internal("sounds/effects/mushroom-get.mp3")));
-        soundMap.put(SoundOptions.MUSHROOM_REVEAL, Gdx.audio.newSound(Gdx.files.internal("sounds/effects/mushroom-reveal.mp3")));
-        soundMap.put(SoundOptions.PIPE_TRAVEL, Gdx.audio.newSound(Gdx.files.internal("sounds/effects/pipe-travel.mp3")));
-        soundMap.put(SoundOptions.SPIKE_STAB, Gdx.audio.newSound(Gdx.files.internal("sounds/effects/spike-stab.mp3")));
-
-        musicMap.put(MusicPieces.DNUORGREDNU, Gdx.audio.newSound(Gdx.files.internal("sounds/music/dnuorgrednu.mp3")));
-        musicMap.put(MusicPieces.MARIO_MAJOR_INTRO, Gdx.audio.newSound(Gdx.files.internal("sounds/music/mario-major-intro.mp3")));
-        musicMap.put(MusicPieces.MARIO_MAJOR_LOOP, Gdx.audio.newSound(Gdx.files.internal("sounds/music/mario-major-loop.mp3")));
-        musicMap.put(MusicPieces.MARIO_MAJOR_LOOP_BK, Gdx.audio.newSound(Gdx.files.internal("sounds/music/mario-major-backwards.mp3")));
-        musicMap.put(MusicPieces.MARIO_MINOR_INTRO, Gdx.audio.newSound(Gdx.files.internal("sounds/music/mario-minor-intro.mp3")));
-        musicMap.put(MusicPieces.MARIO_MINOR_LOOP, Gdx.audio.newSound(Gdx.files.internal("sounds/music/mario-minor-loop.mp3")));
-        musicMap.put(MusicPieces.METROID_LOOP_BK, Gdx.audio.newSound(Gdx.files.internal("sounds/music/metriod-tourian-loop-bk.mp3")));
-        musicMap.put(MusicPieces.ZELDA_MYSTERIOUS_LOOP_BK, Gdx.audio.newSound(Gdx.files.internal("sounds/music/zelda-mysterious-loop-backwards.mp3")));
+    public SoundCache.Stats getCacheStats() {
+        return soundCache.stats;
     }
 
     // -----------------------------------------------------------------------------------------------------------------
 
-    public void dispose() {
-        SoundOptions[] allSounds = SoundOptions.values();
-        for (SoundOptions allSound : allSounds) {
-            soundMap.get(allSound).dispose();
+    /**
+     * Queue up just the pieces of one music option, ahead of everything else
+     */
+    public void queueMusic(MusicOptions musicOption) {
+        for (String fileName : musicOption.fileNames) {
+            queue(fileName, Music.class);
         }
-        MusicPieces[] allMusicPieces = MusicPieces.values();
-        for (MusicPieces musicPiece : allMusicPieces) {
-            musicMap.get(musicPiece).dispose();
+    }
+
+    /**
+     * Start loading the effects a story step is going to play, see {@link SoundCache#prewarm(Array)}
+     */
+    public void prewarmEffects(Array<SoundOptions> hints) {
+        soundCache.prewarm(hints);
+    }
+
+    public boolean isSoundLoaded(SoundOptions soundOption) {
+        return soundCache.isLoaded(soundOption);
+    }
+
+    public String[] getMusicFiles(MusicOptions musicOption) {
+        return musicOption.fileNames;
+    }
+
+    public MusicOptions getCurrentMusic() {
+        return musicPlayer.getCurrent();
+    }
+
+    /**
+     * @return the music that can still be heard, fading out included; don't hold on to it
+     */
+    public Array<MusicOptions> getAudibleMusic() {
+        return musicPlayer.getAudible();
+    }
+
+    public boolean isMusicLoaded(MusicOptions musicOption) {
+        for (String fileName : musicOption.fileNames) {
+            if (!assetManager.isLoaded(fileName)) return false;
         }
+        return true;
+    }
+
+    private void queue(String fileName, Class<?> type) {
+        if (queued.contains(fileName)) return;
+        queued.add(fileName);
+        assetManager.load(fileName, type);
+    }
+
+    private Music getMusic(MusicPieces musicPiece) {
+        // Not cached, the preloader unloads music that no upcoming step needs
+        return assetManager.get(musicPiece.fileName, Music.class);
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+
+    public void dispose() {
+        // The asset manager owns the sounds, just make sure nothing keeps playing
+        scheduler.stopAll();
+        musicPlayer.dispose();
+        soundCache.clear();
     }
 
     // -----------------------------------------------------------------------------------------------------------------
 
     public void playSound(SoundOptions soundOption) {
         //Gdx.app.log("DEBUG", "SoundManager.playSound | soundOption='" + String.valueOf(soundOption) + "'");
-        soundMap.get(soundOption).play();
+        scheduler.request(soundOption, 1f, 1f, 0f);
     }
 
-    public void playSound3D(SoundOptions soundOption, Vector2 pos){
-        //Gdx.app.log("DEBUG", "SoundManager.playSound3d | soundOption='" + String.valueOf(soundOption) + "'");
-        float maxSoundDist = 20;
-        float v = MathUtils.clamp(1 - (pos.len()/maxSoundDist), 0, 1);
-        float pitch = 1;
-        float pan = MathUtils.clamp((pos.x * 2) /maxSoundDist, -1, 1);
-        soundMap.get(soundOption).play(v, pitch, pan);
-
+    /**
+     * Play a sound from a spot in the world, quieter and panned the further it is from the listener
+     */
+    public void playSoundAt(SoundOptions soundOption, float x, float y) {
+        scheduler.requestAt(soundOption, x, y);
     }
 
-    private MusicOptions currentOption;
-    private long currentLoopID;
-    private Sound currentLoopSound;
+    /**
+     * Where positional sounds are heard from, usually the player; call once per frame
+     */
+    public void setListener(float x, float y) {
+        scheduler.setListener(x, y);
+    }
 
     public void setMusicVolume(float level){
-        if (currentLoopSound != null){
-            currentLoopSound.setVolume(currentLoopID, level);
-        }
+        musicPlayer.setVolume(level);
     }
 
+    /**
+     * Crossfade over to a piece of music, playing it through its intro first if it has one
+     */
     public void playMusic(MusicOptions musicOption) {
 
 //        Gdx.app.log("DEBUG", "SoundManager.playMusic | musicOption='" + String.valueOf(musicOption) + "'");
 
-        currentOption = musicOption;
-        // Kill any currently play loop
-        if (currentLoopSound != null) {
-            currentLoopSound.stop(currentLoopID);
+        // Should have been preloaded with the story step, skip it rather than stall
+        if (!isMusicLoaded(musicOption)) {
+            musicPlayer.stop();
+            return;
         }
 
-        switch (musicOption) {
-
-            case DNUORGREDNU:
-                currentLoopSound = musicMap.get(MusicPieces.DNUORGREDNU);
-                currentLoopID = currentLoopSound.loop();
-                break;
-
-            case MARIO_MAJOR:
-                musicMap.get(MusicPieces.MARIO_MAJOR_INTRO).play();
-                Tween.call(new TweenCallback() {
-                    @Override
-                    public void onEvent(int i, BaseTween<?> baseTween) {
-                        // Are we still in this case?
-                        if (currentOption == MusicOptions.MARIO_MAJOR) {
-                            currentLoopID = musicMap.get(MusicPieces.MARIO_MAJOR_LOOP).loop();
-                            currentLoopSound = musicMap.get(MusicPieces.MARIO_MAJOR_LOOP);
-                        }
-                    }
-                })
-                        .delay(2.6f)
-                        .start(LudumDare33.tween);
-                break;
-
-            case MARIO_MAJOR_BK:
-                currentLoopSound = musicMap.get(MusicPieces.MARIO_MAJOR_LOOP_BK);
-                currentLoopID = currentLoopSound.loop();
-                break;
-
-            case MARIO_MINOR:
-                musicMap.get(MusicPieces.MARIO_MINOR_INTRO).play();
-                Tween.call(new TweenCallback() {
-                    @Override
-                    public void onEvent(int i, BaseTween<?> baseTween) {
-                        // Are we still in this case?
-                        if (currentOption == MusicOptions.MARIO_MINOR) {
-                            currentLoopID = musicMap.get(MusicPieces.MARIO_MINOR_LOOP).loop();
-                            currentLoopSound = musicMap.get(MusicPieces.MARIO_MINOR_LOOP);
-                        }
-                    }
-                })
-                        .delay(3.2f)
-                        .start(LudumDare33.tween);
-                break;
-
-            case METRIOD_BK:
-                currentLoopSound = musicMap.get(MusicPieces.METROID_LOOP_BK);
-                currentLoopID = currentLoopSound.loop();
-                break;
-
-            case ZELDA_BK:
-                currentLoopSound = musicMap.get(MusicPieces.ZELDA_MYSTERIOUS_LOOP_BK);
-                currentLoopID = currentLoopSound.loop();
-                break;
-
-            default:
-//                Gdx.app.log("ERROR", "SoundManager.playMusic | Unrecognized music option.");
-
-        }
+        Music intro = (musicOption.intro != null) ? getMusic(musicOption.intro) : null;
+        musicPlayer.play(musicOption, intro, getMusic(musicOption.loop), musicOption.handoffAt);
     }
 
 }
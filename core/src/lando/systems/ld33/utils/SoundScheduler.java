@@ -0,0 +1,274 @@
+package lando.systems.ld33.utils;
+
+import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Pool;
+
+import java.util.Comparator;
+
+/**
+ * Decides which sound effect requests actually get a voice.
+ *
+ * Requests are collected over the frame and started together in {@link #flush(float)}:
+ * positional ones get their volume and pan from where they are relative to the listener,
+ * anything out of earshot is culled, repeats of the same effect within a frame are merged,
+ * every effect has a cap on how many copies can play at once, and when the global budget
+ * is used up the lowest priority voice gets cut off to make room, or the request is dropped.
+ */
+public class SoundScheduler {
+
+    public static final int   MAX_VOICES     = 8;
+    // World units, positional sounds fade out linearly until they're this far from the listener
+    public static final float MAX_SOUND_DIST = 20f;
+
+    public static class Stats {
+        public int requested;
+        public int deduplicated;
+        public int played;
+        public int stolen;
+        public int dropped;
+        public int culled;
+        public int activeVoices;
+        public int peakVoices;
+    }
+
+    private static class Request {
+        SoundManager.SoundOptions option;
+        float volume;
+        float pitch;
+        float pan;
+        boolean positional;
+        float x;
+        float y;
+    }
+
+    private static class Voice {
+        SoundManager.SoundOptions option;
+        Sound sound;
+        long  id;
+        float startedAt;
+        float endsAt;
+    }
+
+    private static final Comparator<Request> byPriority = new Comparator<Request>() {
+        @Override
+        public int compare(Request a, Request b) {
+            if (a.option.priority != b.option.priority) return b.option.priority - a.option.priority;
+            // Effects sharing a priority stay grouped, repeats have to be neighbours to be merged
+            if (a.option != b.option) return a.option.ordinal() - b.option.ordinal();
+            // Loudest first, so merging repeats keeps the one that's heard best
+            return Float.compare(b.volume, a.volume);
+        }
+    };
+
+    public final Stats stats;
+
+    private final SoundCache     soundCache;
+    private final Array<Request> queue;
+    private final Array<Voice>   voices;
+    private final Pool<Request>  requestPool;
+    private final Pool<Voice>    voicePool;
+    private float                clock;
+    private float                listenerX;
+    private float                listenerY;
+
+    public SoundScheduler(SoundCache soundCache) {
+        this.soundCache = soundCache;
+        stats = new Stats();
+        queue = new Array<Request>();
+        voices = new Array<Voice>();
+        requestPool = new Pool<Request>() {
+            @Override
+            protected Request newObject() {
+                return new Request();
+            }
+        };
+        voicePool = new Pool<Voice>() {
+            @Override
+            protected Voice newObject() {
+                return new Voice();
+            }
+        };
+        clock = 0f;
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Ask for a sound to be played when the frame is flushed
+     */
+    public void request(SoundManager.SoundOptions option, float volume, float pitch, float pan) {
+        Request request = obtain(option);
+        request.volume = volume;
+        request.pitch = pitch;
+        request.pan = pan;
+        request.positional = false;
+    }
+
+    /**
+     * Ask for a sound coming from a point in the world, how it sounds is worked out
+     * against the listener when the frame is flushed
+     */
+    public void requestAt(SoundManager.SoundOptions option, float x, float y) {
+        Request request = obtain(option);
+        request.pitch = 1f;
+        request.positional = true;
+        request.x = x;
+        request.y = y;
+    }
+
+    /**
+     * Where positional sounds are heard from, set once per frame before the flush
+     */
+    public void setListener(float x, float y) {
+        listenerX = x;
+        listenerY = y;
+    }
+
+    /**
+     * Start this frame's requests, highest priority first
+     */
+    public void flush(float dt) {
+        clock += dt;
+        for (int i = voices.size - 1; i >= 0; i--) {
+            if (voices.get(i).endsAt <= clock) {
+                voicePool.free(voices.removeIndex(i));
+            }
+        }
+
+        spatialize();
+
+        // The same effect twice in one frame is heard as one, sorting put the louder first
+        queue.sort(byPriority);
+        for (int i = 0; i < queue.size; i++) {
+            Request request = queue.get(i);
+            if (i > 0 && queue.get(i - 1).option == request.option) {
+                stats.deduplicated++;
+                continue;
+            }
+            start(request);
+        }
+        requestPool.freeAll(queue);
+        queue.clear();
+
+        stats.activeVoices = voices.size;
+        stats.peakVoices = Math.max(stats.peakVoices, voices.size);
+    }
+
+    /**
+     * @return true if a voice of this effect hasn't run its course yet
+     */
+    public boolean isPlaying(SoundManager.SoundOptions option) {
+        for (int i = 0; i < voices.size; i++) {
+            if (voices.get(i).option == option) return true;
+        }
+        for (int i = 0; i < queue.size; i++) {
+            if (queue.get(i).option == option) return true;
+        }
+        return false;
+    }
+
+    public void stopAll() {
+        for (Voice voice : voices) {
+            voice.sound.stop(voice.id);
+        }
+        voicePool.freeAll(voices);
+        voices.clear();
+        requestPool.freeAll(queue);
+        queue.clear();
+        stats.activeVoices = 0;
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+
+    private Request obtain(SoundManager.SoundOptions option) {
+        stats.requested++;
+        Request request = requestPool.obtain();
+        request.option = option;
+        queue.add(request);
+        return request;
+    }
+
+    /**
+     * Volume and pan for every positional request in one pass, dropping the ones out of earshot
+     */
+    private void spatialize() {
+        float maxDist2 = MAX_SOUND_DIST * MAX_SOUND_DIST;
+        for (int i = queue.size - 1; i >= 0; i--) {
+            Request request = queue.get(i);
+            if (!request.positional) continue;
+            float dx = request.x - listenerX;
+            float dy = request.y - listenerY;
+            float dist2 = dx * dx + dy * dy;
+            if (dist2 >= maxDist2) {
+                requestPool.free(queue.removeIndex(i));
+                stats.culled++;
+                continue;
+            }
+            request.volume = 1f - (float) Math.sqrt(dist2) / MAX_SOUND_DIST;
+            request.pan = MathUtils.clamp((dx * 2f) / MAX_SOUND_DIST, -1f, 1f);
+        }
+    }
+
+    private void start(Request request) {
+        SoundManager.SoundOptions option = request.option;
+
+        // Over this effect's own cap, the newest one wins
+        int copies = 0;
+        Voice oldestCopy = null;
+        for (Voice voice : voices) {
+            if (voice.option != option) continue;
+            copies++;
+            if (oldestCopy == null || voice.startedAt < oldestCopy.startedAt) oldestCopy = voice;
+        }
+        Voice victim = null;
+        if (copies >= option.maxVoices) {
+            victim = oldestCopy;
+        } else if (voices.size >= MAX_VOICES) {
+            for (Voice voice : voices) {
+                if (victim == null
+                 || voice.option.priority < victim.option.priority
+                 || (voice.option.priority == victim.option.priority && voice.startedAt < victim.startedAt)) {
+                    victim = voice;
+                }
+            }
+            if (victim.option.priority > option.priority) {
+                stats.dropped++;
+                return;
+            }
+        }
+
+        // Only now does the effect get loaded, so merged, culled and dropped requests never touch the cache.
+        // One that isn't in yet is skipped instead of waited on, nothing gets cut off for it.
+        Sound sound = soundCache.get(option);
+        if (sound == null) {
+            stats.dropped++;
+            return;
+        }
+        if (victim != null) steal(victim);
+        long id = sound.play(request.volume, request.pitch, request.pan);
+        if (id == -1) {
+            // The backend is out of voices of its own
+            stats.dropped++;
+            return;
+        }
+
+        Voice voice = voicePool.obtain();
+        voice.option = option;
+        voice.sound = sound;
+        voice.id = id;
+        voice.startedAt = clock;
+        voice.endsAt = clock + option.duration;
+        voices.add(voice);
+        stats.played++;
+    }
+
+    private void steal(Voice voice) {
+        voice.sound.stop(voice.id);
+        voices.removeValue(voice, true);
+        voicePool.free(voice);
+        stats.stolen++;
+    }
+
+}
@@ -4,6 +4,7 @@ import com.badlogic.gdx.utils.Array;
 import lando.systems.ld33.LudumDare33;
 import lando.systems.ld33.World;
 import lando.systems.ld33.screens.LDScreen;
+import lando.systems.ld33.screens.PrototypeScreen;
 
 /**
  * Brian Ploeckelman created on 8/22/2015.
@@ -15,6 +16,8 @@ public class StoryManager {
     Integer            currentChapter;
     World.Phase        currentPhase;
     LDScreen           currentScreen;
+    // Every phase plays out on this one, reset in between
+    PrototypeScreen    phaseScreen;
     int                storyIndex;
     Array<StoryObject> storySequence;
 
@@ -50,14 +53,60 @@ public class StoryManager {
 
         storyIndex = 0;
         storySequence.get(storyIndex).doTransition();
+        preloadAhead();
+    }
+
+    public int getStoryIndex() {
+        return storyIndex;
+    }
+
+    public int getStoryLength() {
+        return storySequence.size;
+    }
+
+    /**
+     * @return the chapter showing, or null while a phase plays
+     */
+    public Integer getCurrentChapter() {
+        return currentScreen == phaseScreen ? null : currentChapter;
+    }
+
+    public World.Phase getCurrentPhase() {
+        return currentPhase;
+    }
+
+    public LDScreen getCurrentScreen() {
+        return currentScreen;
     }
 
     public void update(float delta) {
+        Assets.stager.update();
         if (!currentScreen.isDone()) return;
+        // Hold on the title screen until the background loading wraps up, and once screens are faded
+        // out until the next step's assets are in, better a few more dark frames than a hitch on the first one
+        AssetManifest next = storySequence.get((storyIndex + 1) % storySequence.size).manifest;
+        if (GameInput.waitOn(Assets.isLoaded() && Assets.preloader.isReady(next) && Assets.stager.isReady())) return;
+        // A replay can get here before this machine has caught up, the stager takes care of itself
+        if (!Assets.isLoaded() || !Assets.preloader.isReady(next)) Assets.finishLoading();
         if (storyIndex + 1 >= storySequence.size) {
             storyIndex = -1;
         }
         storySequence.get(++storyIndex).doTransition();
+        preloadAhead();
+    }
+
+    /**
+     * Start loading whatever the next step needs while this one plays out,
+     * and drop anything that neither of them uses. The next phase's map gets
+     * staged so the world can swap it in as soon as this step is done.
+     */
+    private void preloadAhead() {
+        int nextIndex = (storyIndex + 1) % storySequence.size;
+        StoryObject next = storySequence.get(nextIndex);
+        Assets.preloader.prepare(storySequence.get(storyIndex).manifest, next.manifest);
+        if (next.worldPhase != null) {
+            Assets.stager.stage(next.worldPhase.mapName);
+        }
     }
 
 }
@@ -3,6 +3,7 @@ package lando.systems.ld33.utils;
 import lando.systems.ld33.LudumDare33;
 import lando.systems.ld33.World;
 import lando.systems.ld33.screens.ChapterScreen;
+import lando.systems.ld33.screens.LDScreen;
 import lando.systems.ld33.screens.PrototypeScreen;
 
 /**
@@ -15,15 +16,20 @@ public class StoryObject {
 
     public Integer chapterNumber;
     public World.Phase worldPhase;
+    public AssetManifest manifest;
 
     public StoryObject(StoryManager storyManager, Integer chapterNumber, World.Phase worldPhase) {
         this.storyManager = storyManager;
         this.game = storyManager.game;
         this.chapterNumber = chapterNumber;
         this.worldPhase = worldPhase;
+        this.manifest = (chapterNumber != null) ? AssetManifest.forChapter(chapterNumber)
+                                                : AssetManifest.forPhase(worldPhase);
     }
 
     public void doTransition() {
+        // Let go of the old screen only after the new one has taken what it needs
+        LDScreen previous = storyManager.currentScreen;
         if (chapterNumber != null) {
             System.out.println("launching chapter " + chapterNumber);
             storyManager.currentChapter = chapterNumber;
@@ -33,8 +39,18 @@ public class StoryObject {
         else if (worldPhase != null) {
             System.out.println("launching game phase " + worldPhase.name());
             storyManager.currentPhase = worldPhase;
-            storyManager.currentScreen = new PrototypeScreen(game, worldPhase);
-            game.setScreen(storyManager.currentScreen);
+            if (storyManager.phaseScreen == null) {
+                storyManager.phaseScreen = new PrototypeScreen(game, worldPhase);
+            } else {
+                storyManager.phaseScreen.reset(worldPhase);
+            }
+            // Already showing when going phase to phase, setting it again would hide it
+            if (game.getScreen() != storyManager.phaseScreen) game.setScreen(storyManager.phaseScreen);
+            storyManager.currentScreen = storyManager.phaseScreen;
+        }
+        // The phase screen sticks around for the next phase
+        if (previous != null && previous != storyManager.currentScreen && previous != storyManager.phaseScreen) {
+            previous.dispose();
         }
     }
 
@@ -0,0 +1,151 @@
+package lando.systems.ld33.utils;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Shared cache of laid out text, keyed by font, markup text, color and target width.
+ *
+ * Lookups don't allocate on a hit; misses lay the text out once and keep it until
+ * the least recently used entries have to make room under the memory budget.
+ */
+public class TextCache {
+
+    public static final int DEFAULT_BUDGET_BYTES = 256 * 1024;
+
+    // Rough cost of an entry: 20 vertex floats per glyph plus the layout bookkeeping
+    private static final int BYTES_PER_GLYPH = 20 * 4 + 32;
+    private static final int BYTES_PER_ENTRY = 160;
+
+    private final LinkedHashMap<Key, CachedText> entries;
+    private final Key probe;
+    private final int budgetBytes;
+    private int usedBytes;
+
+    public int hits;
+    public int misses;
+    public int evictions;
+
+    public TextCache() {
+        this(DEFAULT_BUDGET_BYTES);
+    }
+
+    public TextCache(int budgetBytes) {
+        this.budgetBytes = budgetBytes;
+        this.entries = new LinkedHashMap<Key, CachedText>(64, 0.75f, true);
+        this.probe = new Key();
+        this.usedBytes = 0;
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+
+    public CachedText get(BitmapFont font, String text) {
+        return get(font, text, Color.WHITE, 0f);
+    }
+
+    public CachedText get(BitmapFont font, String text, Color color) {
+        return get(font, text, color, 0f);
+    }
+
+    /**
+     * @param font The font to lay the text out with
+     * @param text The text, markup is honored if the font has it enabled
+     * @param color The base color for any text not colored by markup
+     * @param targetWidth Width to wrap at, or 0 to keep the text on one line
+     * @return The prepared text, ready to be drawn
+     */
+    public CachedText get(BitmapFont font, String text, Color color, float targetWidth) {
+        probe.set(font, text, color.toIntBits(), targetWidth);
+        CachedText cached = entries.get(probe);
+        if (cached != null) {
+            hits++;
+            return cached;
+        }
+
+        misses++;
+        cached = new CachedText(font, text, color, targetWidth);
+        Key key = new Key();
+        key.set(font, text, probe.colorBits, targetWidth);
+        entries.put(key, cached);
+        usedBytes += sizeOf(cached);
+        evict(cached);
+        return cached;
+    }
+
+    public void clear() {
+        entries.clear();
+        usedBytes = 0;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public int getUsedBytes() {
+        return usedBytes;
+    }
+
+    public int getBudgetBytes() {
+        return budgetBytes;
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+
+    private void evict(CachedText keep) {
+        Iterator<Map.Entry<Key, CachedText>> iterator = entries.entrySet().iterator();
+        while (usedBytes > budgetBytes && iterator.hasNext()) {
+            CachedText eldest = iterator.next().getValue();
+            // Never throw out the entry we are about to hand back
+            if (eldest == keep) continue;
+            usedBytes -= sizeOf(eldest);
+            iterator.remove();
+            evictions++;
+        }
+    }
+
+    private static int sizeOf(CachedText text) {
+        return BYTES_PER_ENTRY + text.glyphCount * BYTES_PER_GLYPH;
+    }
+
+    private static class Key {
+        BitmapFont font;
+        String     text;
+        int        colorBits;
+        float      targetWidth;
+        int        hash;
+
+        void set(BitmapFont font, String text, int colorBits, float targetWidth) {
+            this.font = font;
+            this.text = text;
+            this.colorBits = colorBits;
+            this.targetWidth = targetWidth;
+
+            int h = font.hashCode();
+            h = 31 * h + text.hashCode();
+            h = 31 * h + colorBits;
+            h = 31 * h + Float.floatToIntBits(targetWidth);
+            this.hash = h;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return font == other.font
+                && colorBits == other.colorBits
+                && targetWidth == other.targetWidth
+                && text.equals(other.text);
+        }
+    }
+
+}
@@ -0,0 +1,185 @@
+package lando.systems.ld33.utils;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+
+/**
+ * Named areas of the map, placed in Tiled as objects of type "trigger", that fire
+ * events when the player walks in or out of them.
+ *
+ * Volumes are indexed by the map cells they cover. Nothing is checked while the
+ * player stays in the same cell, unless a volume's edge runs through that cell, so
+ * the cost away from any trigger is working out which cell the player is in.
+ */
+public class TriggerVolumes {
+
+    public interface Listener {
+        void onEnter(int volume);
+        void onExit(int volume);
+    }
+
+    private final Array<String> names;
+    // x, y, width, height per volume, in tiles
+    private final FloatArray    bounds;
+    private Listener            listener;
+
+    private int       cols;
+    private int       rows;
+    // Volumes overlapping cell c are cellVolumes[cellStart[c]] up to cellVolumes[cellStart[c + 1]]
+    private int[]     cellStart;
+    private int[]     cellVolumes;
+    // Cells where being in the cell doesn't settle whether you're in the volume
+    private boolean[] partial;
+    private boolean[] inside;
+    private int       lastCell;
+
+    public TriggerVolumes() {
+        names = new Array<String>();
+        bounds = new FloatArray();
+        cellStart = new int[1];
+        cellVolumes = new int[0];
+        partial = new boolean[0];
+        inside = new boolean[0];
+        lastCell = -1;
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Forget every volume, for a map the given size in tiles
+     */
+    public void clear(int cols, int rows) {
+        this.cols = cols;
+        this.rows = rows;
+        names.clear();
+        bounds.clear();
+        lastCell = -1;
+    }
+
+    public void add(String name, float x, float y, float width, float height) {
+        names.add(name);
+        bounds.add(x);
+        bounds.add(y);
+        bounds.add(width);
+        bounds.add(height);
+    }
+
+    /**
+     * Index the volumes added since {@link #clear(int, int)}, call once they're all in
+     */
+    public void build() {
+        int cells = cols * rows;
+        int count = names.size;
+        if (cellStart.length < cells + 1) {
+            cellStart = new int[cells + 1];
+            partial = new boolean[cells];
+        }
+        if (inside.length < count) inside = new boolean[count];
+        for (int i = 0; i <= cells; i++) cellStart[i] = 0;
+        for (int i = 0; i < cells; i++) partial[i] = false;
+        for (int i = 0; i < count; i++) inside[i] = false;
+
+        // Count per cell, then turn the counts into offsets and fill them in
+        for (int v = 0; v < count; v++) {
+            int x0 = firstCol(v), x1 = lastCol(v), y0 = firstRow(v), y1 = lastRow(v);
+            for (int cy = y0; cy <= y1; cy++) {
+                for (int cx = x0; cx <= x1; cx++) {
+                    cellStart[cy * cols + cx + 1]++;
+                }
+            }
+        }
+        for (int i = 0; i < cells; i++) {
+            cellStart[i + 1] += cellStart[i];
+        }
+        if (cellVolumes.length < cellStart[cells]) cellVolumes = new int[cellStart[cells]];
+        int[] fill = new int[cells];
+        for (int v = 0; v < count; v++) {
+            int x0 = firstCol(v), x1 = lastCol(v), y0 = firstRow(v), y1 = lastRow(v);
+            for (int cy = y0; cy <= y1; cy++) {
+                for (int cx = x0; cx <= x1; cx++) {
+                    int cell = cy * cols + cx;
+                    cellVolumes[cellStart[cell] + fill[cell]++] = v;
+                    if (!covers(v, cx, cy)) partial[cell] = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Follow the player's bottom left corner, firing events for any volume it crossed into or out of
+     */
+    public void update(Rectangle player) {
+        if (names.size == 0) return;
+        int cx = clamp((int) Math.floor(player.x), cols);
+        int cy = clamp((int) Math.floor(player.y), rows);
+        int cell = cy * cols + cx;
+        if (cell == lastCell && !partial[cell]) return;
+        lastCell = cell;
+
+        float x = player.x;
+        float y = player.y;
+        for (int v = 0; v < names.size; v++) {
+            if (inside[v] && !contains(v, x, y)) {
+                inside[v] = false;
+                if (listener != null) listener.onExit(v);
+            }
+        }
+        for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+            int v = cellVolumes[i];
+            if (!inside[v] && contains(v, x, y)) {
+                inside[v] = true;
+                if (listener != null) listener.onEnter(v);
+            }
+        }
+    }
+
+    public int getCount() {
+        return names.size;
+    }
+
+    /**
+     * @return the volume with this name in Tiled, or -1 if the map doesn't have one
+     */
+    public int indexOf(String name) {
+        return names.indexOf(name, false);
+    }
+
+    public boolean isInside(int volume) {
+        return inside[volume];
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+
+    private boolean contains(int v, float x, float y) {
+        int i = v * 4;
+        float vx = bounds.get(i), vy = bounds.get(i + 1);
+        return x >= vx && x <= vx + bounds.get(i + 2)
+            && y >= vy && y <= vy + bounds.get(i + 3);
+    }
+
+    /**
+     * True if being anywhere in the cell means being in the volume, edge cells
+     * also stand in for everything off the map so they never count
+     */
+    private boolean covers(int v, int cx, int cy) {
+        if (cx == 0 || cy == 0 || cx == cols - 1 || cy == rows - 1) return false;
+        int i = v * 4;
+        return bounds.get(i) <= cx && bounds.get(i) + bounds.get(i + 2) >= cx + 1
+            && bounds.get(i + 1) <= cy && bounds.get(i + 1) + bounds.get(i + 3) >= cy + 1;
+    }
+
+    private int firstCol(int v) { return clamp((int) Math.floor(bounds.get(v * 4)), cols); }
+    private int lastCol(int v)  { return clamp((int) Math.ceil(bounds.get(v * 4) + bounds.get(v * 4 + 2)) - 1, cols); }
+    private int firstRow(int v) { return clamp((int) Math.floor(bounds.get(v * 4 + 1)), rows); }
+    private int lastRow(int v)  { return clamp((int) Math.ceil(bounds.get(v * 4 + 1) + bounds.get(v * 4 + 3)) - 1, rows); }
+
+    private static int clamp(int value, int size) {
+        return Math.max(0, Math.min(size - 1, value));
+    }
+
+}
@@ -0,0 +1,198 @@
+package lando.systems.ld33.utils;
+
+import aurelienribon.tweenengine.BaseTween;
+import aurelienribon.tweenengine.Timeline;
+import aurelienribon.tweenengine.Tween;
+import aurelienribon.tweenengine.TweenManager;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.reflect.ClassReflection;
+
+/**
+ * A tween manager per owner: a world, a screen, or {@link #GLOBAL} for the whole game.
+ *
+ * Owners start their tweens on their own group, so when they end {@link #release(Object)}
+ * kills everything they left running instead of it hanging on to them and ticking away.
+ * Groups can be paused on their own, and the report lists what is still running per owner
+ * along with how many tweens get started each frame, which should stay near zero outside
+ * of cutscenes.
+ */
+public class TweenGroups {
+
+    public static final Object GLOBAL = new Object() {
+        @Override
+        public String toString() {
+            return "global";
+        }
+    };
+
+    private static class Group {
+        final Object          owner;
+        final CountingManager manager;
+        boolean               paused;
+
+        Group(Object owner) {
+            this.owner = owner;
+            this.manager = new CountingManager();
+        }
+    }
+
+    /**
+     * Every tween and timeline goes through add() when it's started
+     */
+    private static class CountingManager extends TweenManager {
+        int started;
+
+        @Override
+        public TweenManager add(BaseTween<?> object) {
+            started++;
+            return super.add(object);
+        }
+    }
+
+    public static class Stats {
+        public int startedLastFrame;
+        public int peakStartedPerFrame;
+        public int startedTotal;
+    }
+
+    public final Stats stats;
+
+    private final ObjectMap<Object, Group> owners;
+    // Same groups in the order they were made, so updating doesn't trip over new ones
+    private final Array<Group>             groups;
+    private final ObjectIntMap<String>     targets;
+
+    public TweenGroups() {
+        owners = new ObjectMap<Object, Group>();
+        groups = new Array<Group>();
+        targets = new ObjectIntMap<String>();
+        stats = new Stats();
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+
+    /**
+     * @return the owner's group, made on first use
+     */
+    public TweenManager get(Object owner) {
+        Group group = owners.get(owner);
+        if (group == null) {
+            group = new Group(owner);
+            owners.put(owner, group);
+            groups.add(group);
+        }
+        return group.manager;
+    }
+
+    /**
+     * Tick every group, and tally up what was started since the last tick
+     */
+    public void update(float dt) {
+        int started = 0;
+        for (int i = 0; i < groups.size; i++) {
+            CountingManager manager = groups.get(i).manager;
+            started += manager.started;
+            manager.started = 0;
+            manager.update(dt);
+        }
+        stats.startedLastFrame = started;
+        stats.peakStartedPerFrame = Math.max(stats.peakStartedPerFrame, started);
+        stats.startedTotal += started;
+    }
+
+    /**
+     * Kill everything the owner has running, its group stays for whatever it starts next
+     */
+    public void kill(Object owner) {
+        Group group = owners.get(owner);
+        if (group != null) group.manager.killAll();
+    }
+
+    /**
+     * The owner is done, kill its tweens and drop the group
+     */
+    public void release(Object owner) {
+        Group group = owners.remove(owner);
+        if (group == null) return;
+        group.manager.killAll();
+        groups.removeValue(group, true);
+    }
+
+    /**
+     * Freeze an owner's tweens where they are, everything else keeps going
+     */
+    public void setPaused(Object owner, boolean paused) {
+        Group group = owners.get(owner);
+        if (group == null || group.paused == paused) return;
+        group.paused = paused;
+        if (paused) {
+            group.manager.pause();
+        } else {
+            group.manager.resume();
+        }
+    }
+
+    public boolean isPaused(Object owner) {
+        Group group = owners.get(owner);
+        return group != null && group.paused;
+    }
+
+    public int getLiveCount() {
+        int count = 0;
+        for (Group group : groups) {
+            count += group.manager.size();
+        }
+        return count;
+    }
+
+    /**
+     * Everything running right now, per owner, with what the tweens are moving
+     */
+    public String getReport() {
+        StringBuilder report = new StringBuilder();
+        report.append("Live tweens: ").append(getLiveCount())
+              .append(" in ").append(groups.size).append(" groups, started ")
+              .append(stats.startedLastFrame).append(" last frame (peak ").append(stats.peakStartedPerFrame)
+              .append(", ").append(stats.startedTotal).append(" total), pooled ")
+              .append(Tween.getPoolSize()).append(" tweens ").append(Timeline.getPoolSize()).append(" timelines\n");
+
+        for (Group group : groups) {
+            TweenManager manager = group.manager;
+            report.append("  ").append(describe(group.owner)).append(": ")
+                  .append(manager.getRunningTweensCount()).append(" tweens, ")
+                  .append(manager.getRunningTimelinesCount()).append(" timelines");
+            if (group.paused) report.append(" (paused)");
+
+            targets.clear();
+            for (BaseTween<?> tween : manager.getObjects()) {
+                targets.getAndIncrement(describeTarget(tween), 0, 1);
+            }
+            for (ObjectIntMap.Entry<String> target : targets.entries()) {
+                report.append(' ').append(target.key).append(" x").append(target.value);
+            }
+            report.append('\n');
+        }
+        return report.toString();
+    }
+
+    public void logReport() {
+        Gdx.app.log("Tweens", getReport());
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+
+    private static String describe(Object owner) {
+        if (owner == GLOBAL) return owner.toString();
+        return ClassReflection.getSimpleName(owner.getClass()) + "@" + Integer.toHexString(System.identityHashCode(owner));
+    }
+
+    private static String describeTarget(BaseTween<?> tween) {
+        if (!(tween instanceof Tween)) return "Timeline";
+        Object target = ((Tween) tween).getTarget();
+        return (target == null) ? "call" : ClassReflection.getSimpleName(target.getClass());
+    }
+
+}
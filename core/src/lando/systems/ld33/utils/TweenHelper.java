@@ -2,15 +2,33 @@ package lando.systems.ld33.utils;
 
 import aurelienribon.tweenengine.Tween;
 import aurelienribon.tweenengine.equations.Linear;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.math.Rectangle;
+import lando.systems.ld33.accessors.ColorAccessor;
+import lando.systems.ld33.accessors.RectangleAccessor;
 import lando.systems.ld33.entities.EntityBase;
 
 /**
  * Author: Ian McNamara <ian.mcnamara@wisc.edu>
  * Teaching and Research Application Development
  * Copyright 2015 Board of Regents of the University of Wisconsin System
+ *
+ * Tweens for the motions that keep coming up. None of these start the tween, and
+ * none of them allocate: tweens come from the engine's pool and callbacks are shared.
  */
 public class TweenHelper {
 
+    public static final float BLOCK_BOUNCE_TIME = 0.175f;
+    public static final float COIN_BOUNCE_TIME  = 0.3f;
+
+    // User data is the entity
+    public static final PayloadCallback<EntityBase> KILL_ENTITY = new PayloadCallback<EntityBase>() {
+        @Override
+        protected void onEvent(EntityBase entity) {
+            entity.dead = true;
+        }
+    };
+
     /**
      * Convenience method to create the pipe transition tween & play the pipe noise.
      * Does NOT start the tween.
@@ -26,4 +44,44 @@ public class TweenHelper {
                 .ease(Linear.INOUT);
     }
 
+    /**
+     * Bump a block up and back down
+     */
+    public static Tween blockBounce(Rectangle bounds, float height) {
+        return Tween.to(bounds, RectangleAccessor.XY, BLOCK_BOUNCE_TIME)
+                .target(bounds.x, bounds.y + height)
+                .repeatYoyo(1, 0f)
+                .ease(Linear.INOUT);
+    }
+
+    /**
+     * Pop a coin up out of a block and back, it's gone once it lands
+     */
+    public static Tween coinBounce(EntityBase coin, float height) {
+        return Tween.to(coin.getBounds(), RectangleAccessor.Y, COIN_BOUNCE_TIME)
+                .target(coin.getBounds().y + height)
+                .repeatYoyo(1, 0f)
+                .ease(Linear.INOUT)
+                .setUserData(coin)
+                .setCallback(KILL_ENTITY);
+    }
+
+    /**
+     * Fade a cover colour away to show what's under it
+     */
+    public static Tween fadeIn(Color cover, float duration) {
+        return Tween.to(cover, ColorAccessor.A, duration)
+                .target(0f)
+                .ease(Linear.INOUT);
+    }
+
+    /**
+     * Fade a cover colour in until it hides everything
+     */
+    public static Tween fadeOut(Color cover, float duration) {
+        return Tween.to(cover, ColorAccessor.A, duration)
+                .target(1f)
+                .ease(Linear.INOUT);
+    }
+
 }
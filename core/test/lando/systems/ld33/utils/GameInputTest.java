@@ -0,0 +1,81 @@
+package lando.systems.ld33.utils;
+
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.InputAdapter;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class GameInputTest {
+
+    private InputRouter router;
+
+    @Before
+    public void setUp() {
+        GameInput.releaseAll();
+        GameInput.update(0f);
+        router = new InputRouter();
+        router.push(GameInput.gameplayBindings());
+    }
+
+    /**
+     * Swallows the one key down, like a box over gameplay that only wants that key
+     */
+    private static InputAdapter swallowing(final int keycode) {
+        return new InputAdapter() {
+            @Override
+            public boolean keyDown(int key) {
+                return key == keycode;
+            }
+        };
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+
+    @Test
+    public void keyUpOfASwallowedKeyDownLeavesTheActionHeld() {
+        router.keyDown(Input.Keys.LEFT);
+        router.push(swallowing(Input.Keys.A));
+        router.keyDown(Input.Keys.A);
+        router.keyUp(Input.Keys.A);
+        GameInput.update(0f);
+        assertTrue(GameInput.isHeld(GameInput.LEFT));
+    }
+
+    @Test
+    public void actionStaysHeldUntilEveryKeyForItIsUp() {
+        router.keyDown(Input.Keys.LEFT);
+        router.keyDown(Input.Keys.A);
+        router.keyUp(Input.Keys.A);
+        GameInput.update(0f);
+        assertTrue(GameInput.isHeld(GameInput.LEFT));
+
+        router.keyUp(Input.Keys.LEFT);
+        GameInput.update(0f);
+        assertFalse(GameInput.isHeld(GameInput.LEFT));
+    }
+
+    @Test
+    public void keyDownPassedOnByAnUpperLayerIsHeldOnceThatLayerGoes() {
+        router.push(swallowing(Input.Keys.ENTER));
+        router.keyDown(Input.Keys.RIGHT);
+        router.pop();
+        GameInput.update(0f);
+        GameInput.update(0f);
+        assertTrue(GameInput.isHeld(GameInput.RIGHT));
+        assertFalse(GameInput.isPressed(GameInput.RIGHT));
+    }
+
+    @Test
+    public void releaseAllForgetsWhichKeysWereDown() {
+        router.keyDown(Input.Keys.LEFT);
+        GameInput.releaseAll();
+        router.keyDown(Input.Keys.A);
+        router.keyUp(Input.Keys.LEFT);
+        GameInput.update(0f);
+        assertTrue(GameInput.isHeld(GameInput.LEFT));
+    }
+
+}
@@ -0,0 +1,128 @@
+package lando.systems.ld33.utils;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class InputSessionTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private FileHandle newFile() throws IOException {
+        return new FileHandle(folder.newFile("session.ldin"));
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+
+    @Test
+    public void packKeepsHeldPressedAndFlagsApart() {
+        int state = InputSession.pack(GameInput.LEFT | GameInput.JUMP, GameInput.JUMP, GameInput.HOLD);
+        assertEquals(GameInput.LEFT | GameInput.JUMP, InputSession.held(state));
+        assertEquals(GameInput.JUMP, InputSession.pressed(state));
+        assertEquals(GameInput.HOLD, InputSession.flags(state));
+    }
+
+    @Test
+    public void replaysEveryTickItRecorded() throws IOException {
+        FileHandle file = newFile();
+        int ticks = 5000;
+        int[] states = new int[ticks];
+        float[] deltas = new float[ticks];
+        for (int i = 0; i < ticks; i++) {
+            // Long steady stretches, runs of one tick, and enough distinct runs to flush more than once
+            int held = (i / 300) % 2 == 0 ? GameInput.RIGHT : (i % 7) & (GameInput.LEFT | GameInput.JUMP);
+            int pressed = i % 97 == 0 ? GameInput.JUMP : 0;
+            states[i] = InputSession.pack(held, pressed, i < 20 ? GameInput.HOLD : 0);
+            deltas[i] = i % 500 == 0 ? 0.1f : 1f / 60f;
+        }
+
+        InputSession.Recorder recorder = new InputSession.Recorder(file, -1234567890123L);
+        for (int i = 0; i < ticks; i++) {
+            recorder.record(states[i], deltas[i]);
+        }
+        recorder.flush();
+        assertEquals(ticks, recorder.getTicks());
+
+        InputSession.Replayer replayer = new InputSession.Replayer(file);
+        assertEquals(-1234567890123L, replayer.getSeed());
+        for (int i = 0; i < ticks; i++) {
+            assertTrue(replayer.next());
+            assertEquals(states[i], replayer.getState());
+            assertEquals(deltas[i], replayer.getDelta(), 0f);
+        }
+        assertFalse(replayer.next());
+        assertEquals(ticks, replayer.getTick());
+    }
+
+    @Test
+    public void longRunsTakeMultiByteLengths() throws IOException {
+        FileHandle file = newFile();
+        InputSession.Recorder recorder = new InputSession.Recorder(file, 0L);
+        for (int i = 0; i < 100000; i++) {
+            recorder.record(0, 1f / 60f);
+        }
+        recorder.record(InputSession.pack(GameInput.START, GameInput.START, 0), 1f / 60f);
+        recorder.flush();
+
+        InputSession.Replayer replayer = new InputSession.Replayer(file);
+        for (int i = 0; i < 100000; i++) {
+            assertTrue(replayer.next());
+            assertEquals(0, replayer.getState());
+        }
+        assertTrue(replayer.next());
+        assertEquals(GameInput.START, InputSession.pressed(replayer.getState()));
+        assertFalse(replayer.next());
+    }
+
+    @Test
+    public void recordingCarriesOnAfterAFlush() throws IOException {
+        FileHandle file = newFile();
+        InputSession.Recorder recorder = new InputSession.Recorder(file, 42L);
+        recorder.record(InputSession.pack(GameInput.RIGHT, 0, 0), 1f / 60f);
+        recorder.record(InputSession.pack(GameInput.RIGHT, 0, 0), 1f / 60f);
+        recorder.flush();
+        recorder.record(InputSession.pack(GameInput.RIGHT, 0, 0), 1f / 60f);
+        recorder.flush();
+
+        InputSession.Replayer replayer = new InputSession.Replayer(file);
+        int count = 0;
+        while (replayer.next()) {
+            assertEquals(GameInput.RIGHT, InputSession.held(replayer.getState()));
+            count++;
+        }
+        assertEquals(3, count);
+    }
+
+    @Test
+    public void emptySessionHasNoTicks() throws IOException {
+        FileHandle file = newFile();
+        new InputSession.Recorder(file, 7L).flush();
+        InputSession.Replayer replayer = new InputSession.Replayer(file);
+        assertEquals(7L, replayer.getSeed());
+        assertFalse(replayer.next());
+    }
+
+    @Test(expected = GdxRuntimeException.class)
+    public void rejectsFilesThatAreNotSessions() throws IOException {
+        FileHandle file = newFile();
+        file.writeString("R77 RJ1 R40", false);
+        new InputSession.Replayer(file);
+    }
+
+    @Test(expected = GdxRuntimeException.class)
+    public void rejectsOtherVersions() throws IOException {
+        FileHandle file = newFile();
+        file.writeBytes(new byte[] { 0x4C, 0x44, 0x49, 0x4E, 0, 0, 0, 1 }, false);
+        new InputSession.Replayer(file);
+    }
+
+}
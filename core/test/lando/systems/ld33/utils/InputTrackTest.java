@@ -0,0 +1,87 @@
+package lando.systems.ld33.utils;
+
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class InputTrackTest {
+
+    private static void assertSameRuns(InputTrack expected, InputTrack actual) {
+        assertEquals(expected.getRunCount(), actual.getRunCount());
+        assertEquals(expected.getLength(), actual.getLength());
+        for (int run = 0; run < expected.getRunCount(); run++) {
+            assertEquals(expected.getRunBits(run), actual.getRunBits(run));
+            assertEquals(expected.getRunTicks(run), actual.getRunTicks(run));
+        }
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+
+    @Test
+    public void writesRunsAsLettersAndLengths() {
+        InputTrack track = new InputTrack();
+        track.add(InputTrack.RIGHT, 77);
+        track.add(InputTrack.RIGHT | InputTrack.JUMP);
+        track.add(InputTrack.RIGHT, 40);
+        track.add(0, 12);
+        assertEquals("R77 RJ1 R40 -12", track.toString());
+    }
+
+    @Test
+    public void addingTheSameInputExtendsTheRun() {
+        InputTrack track = new InputTrack();
+        track.add(InputTrack.LEFT);
+        track.add(InputTrack.LEFT);
+        track.add(InputTrack.LEFT, 3);
+        track.add(InputTrack.JUMP, 0);
+        assertEquals(1, track.getRunCount());
+        assertEquals(5, track.getLength());
+    }
+
+    @Test
+    public void parsesWhatItWrites() {
+        InputTrack track = new InputTrack();
+        track.add(0, 30);
+        track.add(InputTrack.LEFT | InputTrack.RIGHT | InputTrack.JUMP, 2);
+        track.add(InputTrack.LEFT, 1000);
+        track.add(InputTrack.JUMP, 1);
+        track.add(0, 1);
+        assertSameRuns(track, InputTrack.parse(track.toString()));
+    }
+
+    @Test
+    public void parseSkipsCommentsAndWhitespace() {
+        InputTrack track = InputTrack.parse("# run up to the pipe\n"
+                                          + "  R77\tRJ1   # hop\n"
+                                          + "\n"
+                                          + "R40\n");
+        assertEquals(118, track.getLength());
+        assertEquals("R77 RJ1 R40", track.toString());
+    }
+
+    @Test
+    public void lettersCanComeInAnyOrder() {
+        InputTrack track = InputTrack.parse("JL3 -2");
+        assertEquals(InputTrack.LEFT | InputTrack.JUMP, track.getRunBits(0));
+        assertEquals("LJ3 -2", track.toString());
+    }
+
+    @Test
+    public void emptyTrackRoundTrips() {
+        InputTrack track = InputTrack.parse("# nothing yet\n");
+        assertEquals(0, track.getLength());
+        assertEquals("", track.toString());
+    }
+
+    @Test(expected = GdxRuntimeException.class)
+    public void unknownInputIsAnError() {
+        InputTrack.parse("R10 X3");
+    }
+
+    @Test(expected = GdxRuntimeException.class)
+    public void runWithoutALengthIsAnError() {
+        InputTrack.parse("R10 RJ");
+    }
+
+}
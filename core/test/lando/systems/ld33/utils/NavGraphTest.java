@@ -0,0 +1,125 @@
+package lando.systems.ld33.utils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class NavGraphTest {
+
+    /**
+     * A graph over a map drawn top row first, '#' for solid
+     */
+    private static NavGraph graph(String... rows) {
+        int height = rows.length;
+        int width = rows[0].length();
+        MapCollision collision = new MapCollision(width, height);
+        for (int row = 0; row < height; row++) {
+            for (int x = 0; x < width; x++) {
+                if (rows[row].charAt(x) == '#') collision.setSolid(x, height - 1 - row);
+            }
+        }
+        return new NavGraph(collision);
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+
+    @Test
+    public void flatFloorEndsInPitsOffTheMap() {
+        NavGraph nav = graph(
+            "............",
+            "............",
+            "############");
+        assertEquals(1, nav.getSegmentCount());
+        assertEquals(0, nav.getStartX(0));
+        assertEquals(11, nav.getEndX(0));
+        assertEquals(1, nav.getY(0));
+        assertEquals(NavGraph.PIT, nav.edgeAhead(0, 1, -1));
+        assertEquals(NavGraph.PIT, nav.edgeAhead(11, 1, 1));
+        assertEquals(-1, nav.getLink(0, true));
+    }
+
+    @Test
+    public void lowBlockIsAStepAndItsTopDropsBack() {
+        NavGraph nav = graph(
+            "............",
+            "............",
+            "......######",
+            "############");
+        assertEquals(2, nav.getSegmentCount());
+        assertEquals(NavGraph.STEP, nav.edgeAhead(5, 1, 1));
+        assertEquals(1, nav.getLink(0, true));
+        assertEquals(NavGraph.DROP, nav.edgeAhead(6, 2, -1));
+        assertEquals(0, nav.getLink(1, false));
+    }
+
+    @Test
+    public void tallBlockIsAWall() {
+        NavGraph nav = graph(
+            "............",
+            "......#.....",
+            "......#.....",
+            "......#.....",
+            "......#.....",
+            "......#.....",
+            "############");
+        assertEquals(NavGraph.WALL, nav.edgeAhead(5, 1, 1));
+        assertEquals(-1, nav.getLink(0, true));
+        assertEquals(NavGraph.WALL, nav.edgeAhead(7, 1, -1));
+    }
+
+    @Test
+    public void narrowHoleIsAGapBothWays() {
+        NavGraph nav = graph(
+            "............",
+            "............",
+            "####..######");
+        assertEquals(2, nav.getSegmentCount());
+        assertEquals(NavGraph.GAP, nav.edgeAhead(3, 1, 1));
+        assertEquals(1, nav.getLink(0, true));
+        assertEquals(NavGraph.GAP, nav.edgeAhead(6, 1, -1));
+        assertEquals(0, nav.getLink(1, false));
+    }
+
+    @Test
+    public void holeWiderThanAJumpIsAPit() {
+        NavGraph nav = graph(
+            "............",
+            "............",
+            "####....####");
+        assertEquals(NavGraph.PIT, nav.edgeAhead(3, 1, 1));
+        assertEquals(-1, nav.getLink(0, true));
+        assertEquals(NavGraph.PIT, nav.edgeAhead(8, 1, -1));
+    }
+
+    @Test
+    public void highLedgeWithNothingAcrossDropsToTheFloorBelow() {
+        NavGraph nav = graph(
+            "............",
+            "............",
+            "............",
+            "######......",
+            "............",
+            "............",
+            "............",
+            "############");
+        int floor = nav.segmentAt(8, 1);
+        int ledge = nav.segmentAt(3, 5);
+        assertEquals(NavGraph.DROP, nav.edgeAhead(5, 5, 1));
+        assertEquals(floor, nav.getLink(ledge, true));
+    }
+
+    @Test
+    public void edgeAheadOnlyLooksPastTheEnds() {
+        NavGraph nav = graph(
+            "............",
+            "............",
+            "####..######");
+        assertEquals(NavGraph.NONE, nav.edgeAhead(1, 1, 1));
+        assertEquals(NavGraph.NONE, nav.edgeAhead(3, 1, 0));
+        // Mid air, not standing on anything
+        assertEquals(NavGraph.NONE, nav.edgeAhead(4, 2, 1));
+        assertEquals(-1, nav.segmentAt(4, 1));
+        assertEquals(-1, nav.segmentAt(-1, 1));
+    }
+
+}
@@ -0,0 +1,132 @@
+package lando.systems.ld33.utils;
+
+import com.badlogic.gdx.math.Rectangle;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TriggerVolumesTest {
+
+    private TriggerVolumes volumes;
+    private StringBuilder  events;
+    private Rectangle      player;
+
+    @Before
+    public void setUp() {
+        volumes = new TriggerVolumes();
+        events = new StringBuilder();
+        player = new Rectangle(0, 0, 1, 1);
+        volumes.setListener(new TriggerVolumes.Listener() {
+            @Override
+            public void onEnter(int volume) {
+                events.append('+').append(volume).append(' ');
+            }
+
+            @Override
+            public void onExit(int volume) {
+                events.append('-').append(volume).append(' ');
+            }
+        });
+        volumes.clear(10, 6);
+    }
+
+    private void moveTo(float x, float y) {
+        player.setPosition(x, y);
+        volumes.update(player);
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+
+    @Test
+    public void walkingThroughFiresEnterThenExitOnce() {
+        volumes.add("door", 3, 1, 2, 2);
+        volumes.build();
+        for (float x = 0; x <= 9; x += 0.25f) {
+            moveTo(x, 1.5f);
+        }
+        assertEquals("+0 -0 ", events.toString());
+    }
+
+    @Test
+    public void standingStillInsideDoesNotFireAgain() {
+        volumes.add("door", 3, 1, 2, 2);
+        volumes.build();
+        for (int i = 0; i < 10; i++) {
+            moveTo(3.5f, 1.5f);
+        }
+        assertEquals("+0 ", events.toString());
+        assertTrue(volumes.isInside(0));
+    }
+
+    @Test
+    public void edgeInsideACellIsCrossedWithoutChangingCell() {
+        volumes.add("door", 2.5f, 1, 2, 2);
+        volumes.build();
+        moveTo(2.2f, 1.5f);
+        assertEquals("", events.toString());
+        moveTo(2.7f, 1.5f);
+        assertEquals("+0 ", events.toString());
+        moveTo(2.2f, 1.5f);
+        assertEquals("+0 -0 ", events.toString());
+    }
+
+    @Test
+    public void overlappingVolumesFireIndependently() {
+        volumes.add("outer", 2, 1, 5, 3);
+        volumes.add("inner", 4, 1, 1, 3);
+        volumes.build();
+        moveTo(3, 2);
+        moveTo(4.5f, 2);
+        moveTo(6, 2);
+        moveTo(8, 2);
+        assertEquals("+0 +1 -1 -0 ", events.toString());
+    }
+
+    @Test
+    public void jumpingFarAwayStillExits() {
+        volumes.add("door", 3, 1, 2, 2);
+        volumes.build();
+        moveTo(3.5f, 1.5f);
+        moveTo(9, 5);
+        assertEquals("+0 -0 ", events.toString());
+        assertFalse(volumes.isInside(0));
+    }
+
+    @Test
+    public void offTheMapOnlyCountsIfInsideTheVolume() {
+        volumes.add("start", 0, 1, 1, 2);
+        volumes.build();
+        moveTo(-5, 1.5f);
+        assertEquals("", events.toString());
+        moveTo(0.5f, 1.5f);
+        assertEquals("+0 ", events.toString());
+        moveTo(-5, 1.5f);
+        assertEquals("+0 -0 ", events.toString());
+    }
+
+    @Test
+    public void rebuildingForgetsWhoWasInside() {
+        volumes.add("door", 3, 1, 2, 2);
+        volumes.build();
+        moveTo(3.5f, 1.5f);
+        volumes.clear(10, 6);
+        volumes.add("door", 3, 1, 2, 2);
+        volumes.build();
+        moveTo(3.5f, 1.5f);
+        assertEquals("+0 +0 ", events.toString());
+    }
+
+    @Test
+    public void volumesAreFoundByName() {
+        volumes.add("door", 3, 1, 2, 2);
+        volumes.add("exit", 7, 1, 1, 2);
+        volumes.build();
+        assertEquals(2, volumes.getCount());
+        assertEquals(1, volumes.indexOf("exit"));
+        assertEquals(-1, volumes.indexOf("missing"));
+    }
+
+}
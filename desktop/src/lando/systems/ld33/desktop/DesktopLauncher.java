@@ -4,6 +4,7 @@ import com.badlogic.gdx.backends.lwjgl.LwjglApplication;
 import com.badlogic.gdx.backends.lwjgl.LwjglApplicationConfiguration;
 import lando.systems.ld33.Config;
 import lando.systems.ld33.LudumDare33;
+import lando.systems.ld33.utils.CompiledMapLoader;
 
 public class DesktopLauncher {
 	public static void main (String[] arg) {
@@ -11,6 +12,15 @@ public class DesktopLauncher {
 		config.title = Config.title;
         config.width = Config.width;
         config.height = Config.height;
+		CompiledMapLoader.bufferSource = new MappedBufferSource();
+		// --record <file> or --replay <file> to capture a session's input or play one back,
+		// --seed <n> to fix the worlds' random streams, --profile <file> to write frame timings out on exit
+		for (int i = 0; i + 1 < arg.length; i++) {
+			if ("--record".equals(arg[i])) Config.recordInput = arg[++i];
+			else if ("--replay".equals(arg[i])) Config.replayInput = arg[++i];
+			else if ("--seed".equals(arg[i])) Config.seed = Long.parseLong(arg[++i]);
+			else if ("--profile".equals(arg[i])) Config.profileOutput = arg[++i];
+		}
 		new LwjglApplication(new LudumDare33(), config);
 	}
 }
@@ -0,0 +1,240 @@
+package lando.systems.ld33.desktop;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.maps.tiled.BaseTmxMapLoader;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import com.badlogic.gdx.utils.XmlReader;
+import lando.systems.ld33.utils.CompiledMapLoader;
+import lando.systems.ld33.utils.MapCollision;
+import lando.systems.ld33.utils.MapObjectType;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * Turns every .tmx map in a directory into the binary format read by {@link CompiledMapLoader}.
+ *
+ * Usage: MapCompiler <tmx directory> <output directory>
+ */
+public class MapCompiler {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: MapCompiler <tmx directory> <output directory>");
+            System.exit(1);
+        }
+        File inputDir = new File(args[0]);
+        File outputDir = new File(args[1]);
+        outputDir.mkdirs();
+
+        File[] files = inputDir.listFiles();
+        if (files == null) throw new GdxRuntimeException("Not a directory: " + inputDir);
+        for (File file : files) {
+            if (!file.getName().endsWith(".tmx")) continue;
+            String name = file.getName().substring(0, file.getName().length() - 4);
+            File output = new File(outputDir, name + CompiledMapLoader.SUFFIX);
+            compile(new FileHandle(file), output);
+            System.out.println("Compiled " + file.getName() + " -> " + output.getName()
+                             + " (" + output.length() + " bytes)");
+        }
+    }
+
+    public static void compile(FileHandle tmxFile, File output) throws IOException {
+        XmlReader.Element root = new XmlReader().parse(tmxFile);
+        if (!"orthogonal".equals(root.getAttribute("orientation", "orthogonal"))) {
+            throw new GdxRuntimeException(tmxFile.name() + ": only orthogonal maps are supported");
+        }
+        int width = root.getIntAttribute("width");
+        int height = root.getIntAttribute("height");
+        int tileWidth = root.getIntAttribute("tilewidth");
+        int tileHeight = root.getIntAttribute("tileheight");
+
+        StringTable strings = new StringTable();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(body);
+
+        Array<XmlReader.Element> tilesets = root.getChildrenByName("tileset");
+        out.writeShort(tilesets.size);
+        for (XmlReader.Element tileset : tilesets) {
+            writeTileset(tmxFile, tileset, strings, out);
+        }
+
+        MapCollision collision = new MapCollision(width, height);
+        Array<XmlReader.Element> layers = root.getChildrenByName("layer");
+        out.writeShort(layers.size);
+        for (XmlReader.Element layer : layers) {
+            String name = layer.getAttribute("name");
+            int layerWidth = layer.getIntAttribute("width");
+            int layerHeight = layer.getIntAttribute("height");
+            int[] ids = BaseTmxMapLoader.getTileIds(layer, layerWidth, layerHeight);
+
+            out.writeShort(strings.index(name));
+            out.writeByte(layer.getIntAttribute("visible", 1));
+            out.writeFloat(layer.getFloatAttribute("opacity", 1f));
+            out.writeShort(layerWidth);
+            out.writeShort(layerHeight);
+            for (int id : ids) {
+                out.writeInt(id);
+            }
+
+            if ("foreground".equals(name)) {
+                for (int row = 0; row < layerHeight; row++) {
+                    for (int x = 0; x < layerWidth; x++) {
+                        if (ids[row * layerWidth + x] != 0) collision.setSolid(x, layerHeight - 1 - row);
+                    }
+                }
+            }
+        }
+
+        int[] words = collision.getWords();
+        out.writeInt(words.length);
+        for (int word : words) {
+            out.writeInt(word);
+        }
+
+        writeObjects(tmxFile, root, height * tileHeight, strings, out);
+        out.flush();
+
+        DataOutputStream file = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(output)));
+        try {
+            file.writeInt(CompiledMapLoader.MAGIC);
+            file.writeInt(CompiledMapLoader.VERSION);
+            file.writeInt(width);
+            file.writeInt(height);
+            file.writeInt(tileWidth);
+            file.writeInt(tileHeight);
+            strings.write(file);
+            body.writeTo(file);
+        } finally {
+            file.close();
+        }
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+
+    private static void writeTileset(FileHandle tmxFile, XmlReader.Element tileset, StringTable strings,
+                                     DataOutputStream out) throws IOException {
+        if (tileset.getAttribute("source", null) != null) {
+            throw new GdxRuntimeException(tmxFile.name() + ": external tilesets aren't supported, embed them in the map");
+        }
+        XmlReader.Element image = tileset.getChildByName("image");
+        if (image == null) {
+            throw new GdxRuntimeException(tmxFile.name() + ": tileset " + tileset.getAttribute("name") + " has no image");
+        }
+        if (image.getAttribute("trans", null) != null) {
+            System.err.println(tmxFile.name() + ": transparent color on " + image.getAttribute("source") + " is ignored");
+        }
+
+        out.writeShort(strings.index(tileset.getAttribute("name", "")));
+        out.writeShort(strings.index(image.getAttribute("source")));
+        out.writeInt(tileset.getIntAttribute("firstgid", 1));
+        out.writeShort(tileset.getIntAttribute("tilewidth"));
+        out.writeShort(tileset.getIntAttribute("tileheight"));
+        out.writeShort(tileset.getIntAttribute("spacing", 0));
+        out.writeShort(tileset.getIntAttribute("margin", 0));
+
+        Array<XmlReader.Element> animated = new Array<XmlReader.Element>();
+        for (XmlReader.Element tile : tileset.getChildrenByName("tile")) {
+            if (tile.getChildByName("animation") != null) animated.add(tile);
+        }
+        out.writeShort(animated.size);
+        for (XmlReader.Element tile : animated) {
+            Array<XmlReader.Element> frames = tile.getChildByName("animation").getChildrenByName("frame");
+            out.writeInt(tile.getIntAttribute("id"));
+            out.writeShort(frames.size);
+            for (XmlReader.Element frame : frames) {
+                out.writeInt(frame.getIntAttribute("tileid"));
+                out.writeInt(frame.getIntAttribute("duration"));
+            }
+        }
+    }
+
+    /**
+     * Object positions match what the TMX loader puts in an object's properties,
+     * with y flipped to point up and measured to the object's bottom edge.
+     */
+    private static void writeObjects(FileHandle tmxFile, XmlReader.Element root, int mapHeightInPixels,
+                                     StringTable strings, DataOutputStream out) throws IOException {
+        Array<XmlReader.Element> objects = new Array<XmlReader.Element>();
+        for (XmlReader.Element group : root.getChildrenByName("objectgroup")) {
+            for (XmlReader.Element object : group.getChildrenByName("object")) {
+                String type = object.getAttribute("type", null);
+                if (MapObjectType.fromTmxName(type) == null) {
+                    System.err.println(tmxFile.name() + ": skipping object " + object.getAttribute("id", "?")
+                                     + " of unknown type " + type);
+                    continue;
+                }
+                objects.add(object);
+            }
+        }
+
+        out.writeInt(objects.size);
+        for (XmlReader.Element object : objects) {
+            MapObjectType type = MapObjectType.fromTmxName(object.getAttribute("type"));
+            float x = object.getFloatAttribute("x", 0f);
+            float w = object.getFloatAttribute("width", 0f);
+            float h = object.getFloatAttribute("height", 0f);
+            float y = mapHeightInPixels - object.getFloatAttribute("y", 0f) - h;
+
+            out.writeByte(type.code);
+            out.writeFloat(x);
+            out.writeFloat(y);
+            out.writeFloat(w);
+            out.writeFloat(h);
+            String param = getParam(type, object);
+            out.writeShort(param == null ? -1 : strings.index(param));
+        }
+    }
+
+    /**
+     * The one property each type of object reads, triggers go by their name
+     */
+    private static String getParam(MapObjectType type, XmlReader.Element object) {
+        String property;
+        switch (type) {
+            case QBLOCK:  property = "drops";    break;
+            case TUBE:    property = "contains"; break;
+            case TRIGGER: return object.getAttribute("name");
+            default:      return null;
+        }
+        XmlReader.Element properties = object.getChildByName("properties");
+        if (properties == null) return null;
+        for (XmlReader.Element element : properties.getChildrenByName("property")) {
+            if (property.equals(element.getAttribute("name", null))) {
+                return element.getAttribute("value", element.getText());
+            }
+        }
+        return null;
+    }
+
+    private static class StringTable {
+        final Array<String>        values  = new Array<String>();
+        final ObjectIntMap<String> indices = new ObjectIntMap<String>();
+
+        int index(String value) {
+            int index = indices.get(value, -1);
+            if (index == -1) {
+                index = values.size;
+                values.add(value);
+                indices.put(value, index);
+            }
+            return index;
+        }
+
+        void write(DataOutputStream out) throws IOException {
+            out.writeShort(values.size);
+            for (String value : values) {
+                byte[] bytes = value.getBytes("UTF-8");
+                out.writeShort(bytes.length);
+                out.write(bytes);
+            }
+        }
+    }
+
+}
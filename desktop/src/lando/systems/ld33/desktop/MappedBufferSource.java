@@ -0,0 +1,42 @@
+package lando.systems.ld33.desktop;
+
+import com.badlogic.gdx.Files;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import lando.systems.ld33.utils.CompiledMapLoader;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Maps compiled map files straight into memory instead of copying them onto the heap.
+ * Files packed into the jar can't be mapped and are read the regular way.
+ */
+public class MappedBufferSource implements CompiledMapLoader.BufferSource {
+
+    private final CompiledMapLoader.BufferSource fallback = CompiledMapLoader.bufferSource;
+
+    @Override
+    public ByteBuffer open(FileHandle file) {
+        if (file.type() == Files.FileType.Classpath || !file.file().exists()) {
+            return fallback.open(file);
+        }
+
+        RandomAccessFile input = null;
+        try {
+            input = new RandomAccessFile(file.file(), "r");
+            FileChannel channel = input.getChannel();
+            // The mapping stays valid after the channel is closed
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Couldn't map " + file, e);
+        } finally {
+            if (input != null) {
+                try { input.close(); } catch (IOException ignored) {}
+            }
+        }
+    }
+
+}